@@ -4,6 +4,7 @@ import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
 import javafx.application.Application;
+import util.EmailService;
 
 public class Main extends Application {
 
@@ -24,6 +25,12 @@ public class Main extends Application {
         System.out.println("Login screen loaded...");
     }
 
+    @Override
+    public void stop() {
+        // Let notification emails still in the queue go out
+        EmailService.getInstance().shutdown(10_000);
+    }
+
     public static void main(String[] args) {
         launch(args);
     }
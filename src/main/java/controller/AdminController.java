@@ -18,15 +18,23 @@ import javafx.stage.Modality;
 import javafx.stage.Stage;
 import javafx.stage.WindowEvent;
 import model.Reservation;
+import model.ReservationSeries;
 import model.Room;
 import model.User;
-import util.DataStore;
+import model.UserSession;
+import repository.Repositories;
+import util.AsyncDataStore;
+import util.ChangeFeed;
+import util.ReservationImporter;
+import util.ReservationTablePager;
 
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 import java.util.Optional;
 import java.util.Timer;
 import java.util.TimerTask;
@@ -54,9 +62,10 @@ public class AdminController {
     @FXML private Label roomPreviewLabel;
 
     private final Timer backupTimer = new Timer(true);
-    private final Timer refreshTimer = new Timer(true);
     private TimerTask backupTask;
-    private TimerTask refreshTask;
+    private Runnable changeSubscription;
+    private ReservationTablePager reservationPager;
+    private UserSession session;
 
     @FXML
     public void initialize() {;
@@ -65,9 +74,10 @@ public class AdminController {
         setupReservationTable();
         attachReservationContextMenu();
 
-        roomTable.setItems(DataStore.getRooms());
-        userTable.setItems(DataStore.getUsers());
-        reservationTable.setItems(DataStore.getReservations());
+        AsyncDataStore.getRooms().thenAccept(roomTable::setItems);
+        AsyncDataStore.getUsers().thenAccept(userTable::setItems);
+        // Paged from the database instead of binding the full reservation history
+        reservationPager = new ReservationTablePager(reservationTable);
 
         startAutoBackup();
         startAutoRefresh();
@@ -79,6 +89,15 @@ public class AdminController {
         statusLabel.setText("Admin Dashboard loaded successfully");
     }
 
+    /**
+     * The signed-in admin from login; reused as is, never looked up again
+     */
+    public void setSession(UserSession session) {
+        this.session = session;
+        statusLabel.setText("Admin Dashboard loaded successfully - signed in as " + session.getUsername());
+        System.out.println("[ADMIN] Signed in as " + session.getUsername());
+    }
+
     private void setupRoomTable() {
         roomNameColumn = new TableColumn<>("Room Name");
         roomNameColumn.setCellValueFactory(new PropertyValueFactory<>("name"));
@@ -120,15 +139,8 @@ public class AdminController {
         if (resDateColumn == null) {
             resDateColumn = new TableColumn<>("Date & Time");
         }
-        resDateColumn.setCellValueFactory(cd -> {
-            Reservation r = cd.getValue();
-            String d  = r.getDate() == null ? "" : r.getDate();
-            String st = r.getStartTime() == null ? "" : r.getStartTime();
-            String en = r.getEndTime()   == null ? "" : r.getEndTime();
-            String combined = d;
-            if (!st.isEmpty() && !en.isEmpty()) combined += " " + st + " - " + en;
-            return new javafx.beans.property.SimpleStringProperty(combined.trim());
-        });
+        resDateColumn.setCellValueFactory(cd ->
+                new javafx.beans.property.SimpleStringProperty(cd.getValue().getFullDateTime()));
 
         if (resStatusColumn == null) {
             resStatusColumn = new TableColumn<>("Status");
@@ -145,6 +157,8 @@ public class AdminController {
                     resUsernameColumn, resRoomColumn, resDateColumn, resStatusColumn
             );
         }
+        // Approve / Reject Selected work on several rows at once
+        reservationTable.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
     }
 
     private void attachReservationContextMenu() {
@@ -160,12 +174,8 @@ public class AdminController {
                 statusLabel.setText("Only 'Pending' reservations can be approved.");
                 return;
             }
-            DataStore.updateReservationStatus(sel, "Reserved");
-            DataStore.reloadAll();
-            reservationTable.refresh();
-            roomTable.refresh();
-            statusLabel.setTextFill(Color.GREEN);
-            statusLabel.setText("Reservation approved.");
+            AsyncDataStore.updateReservationStatus(sel, "Reserved")
+                    .thenAccept(updated -> onReservationStatusChanged(updated, "approved", Color.GREEN));
         });
 
         MenuItem reject = new MenuItem("Reject / Cancel Reservation");
@@ -178,12 +188,8 @@ public class AdminController {
                 statusLabel.setText("Only 'Pending' reservations can be rejected.");
                 return;
             }
-            DataStore.updateReservationStatus(sel, "Rejected");
-            DataStore.reloadAll();
-            reservationTable.refresh();
-            roomTable.refresh();
-            statusLabel.setTextFill(Color.ORANGE);
-            statusLabel.setText("Reservation rejected.");
+            AsyncDataStore.updateReservationStatus(sel, "Rejected")
+                    .thenAccept(updated -> onReservationStatusChanged(updated, "rejected", Color.ORANGE));
         });
 
         menu.getItems().addAll(approve, reject);
@@ -201,6 +207,13 @@ public class AdminController {
         });
     }
 
+    private void onReservationStatusChanged(boolean updated, String verb, Color color) {
+        reservationPager.refresh();
+        roomTable.refresh();
+        statusLabel.setTextFill(updated ? color : Color.RED);
+        statusLabel.setText(updated ? "Reservation " + verb + "." : "Reservation could not be " + verb + ".");
+    }
+
     private ComboBox<String> buildStatusBox(String initial) {
         ComboBox<String> box = new ComboBox<>(
                 FXCollections.observableArrayList("Available", "Reserved", "Pending")
@@ -212,6 +225,14 @@ public class AdminController {
 
     @FXML
     private void approveSelectedReservation() {
+        List<Reservation> selection = List.copyOf(reservationTable.getSelectionModel().getSelectedItems());
+        if (selection.size() > 1) {
+            List<Reservation> pending = selection.stream()
+                    .filter(r -> "pending".equalsIgnoreCase(r.getStatus()))
+                    .toList();
+            changeSelectedStatuses(pending, "approved", Color.GREEN);
+            return;
+        }
         Reservation sel = reservationTable.getSelectionModel().getSelectedItem();
         if (sel == null) {
             statusLabel.setTextFill(Color.RED);
@@ -224,38 +245,114 @@ public class AdminController {
             return;
         }
 
-        DataStore.updateReservationStatus(sel, "approved");
-        reservationTable.refresh();
-        statusLabel.setTextFill(Color.GREEN);
-        statusLabel.setText("Reservation approved.");
-
-        // Send approval email to user
-        User user = DataStore.getUserByEmail(sel.getUsername() + "@example.com");
-        if (user != null) {
-            util.EmailService.getInstance().sendReservationApproval(user, sel);
-            System.out.println("[EMAIL] Approval email sent for reservation of " + sel.getRoomName());
-        }
+        // The approval email is queued with the status change
+        AsyncDataStore.updateReservationStatus(sel, "approved")
+                .thenAccept(updated -> onReservationStatusChanged(updated, "approved", Color.GREEN));
     }
 
     @FXML
     private void rejectSelectedReservation() {
+        List<Reservation> selection = List.copyOf(reservationTable.getSelectionModel().getSelectedItems());
+        if (selection.size() > 1) {
+            changeSelectedStatuses(selection, "rejected", Color.ORANGE);
+            return;
+        }
         Reservation sel = reservationTable.getSelectionModel().getSelectedItem();
         if (sel == null) {
             statusLabel.setTextFill(Color.RED);
             statusLabel.setText("Select a reservation to reject.");
             return;
         }
-        DataStore.updateReservationStatus(sel, "rejected");
-        reservationTable.refresh();
-        statusLabel.setTextFill(Color.ORANGE);
-        statusLabel.setText("Reservation rejected.");
-
-        // Send rejection email to user
-        User user = DataStore.getUserByEmail(sel.getUsername() + "@example.com");
-        if (user != null) {
-            util.EmailService.getInstance().sendReservationRejection(user, sel);
-            System.out.println("[EMAIL] Rejection email sent for reservation of " + sel.getRoomName());
+        // The rejection email is queued with the status change
+        AsyncDataStore.updateReservationStatus(sel, "rejected")
+                .thenAccept(updated -> onReservationStatusChanged(updated, "rejected", Color.ORANGE));
+    }
+
+    // One transaction for the whole selection; rows are addressed by id
+    private void changeSelectedStatuses(List<Reservation> selection, String newStatus, Color color) {
+        if (selection.isEmpty()) {
+            statusLabel.setTextFill(Color.RED);
+            statusLabel.setText("Only 'Pending' reservations can be " + newStatus + ".");
+            return;
+        }
+        List<Integer> ids = selection.stream().map(Reservation::getId).toList();
+        AsyncDataStore.updateReservationStatuses(ids, newStatus).thenAccept(updated -> {
+            reservationPager.refresh();
+            roomTable.refresh();
+            statusLabel.setTextFill(updated.isEmpty() ? Color.RED : color);
+            statusLabel.setText(updated.size() + " of " + ids.size() + " reservations " + newStatus + ".");
+        });
+    }
+
+    // -------------------- RECURRING SERIES --------------------
+    @FXML
+    private void manageSeries() {
+        TableView<ReservationSeries> table = new TableView<>();
+        table.setPrefSize(720, 360);
+        table.setPlaceholder(new Label("No recurring reservations"));
+        table.getColumns().add(seriesColumn("User", 110, ReservationSeries::getUsername));
+        table.getColumns().add(seriesColumn("Room", 150, ReservationSeries::getRoomName));
+        table.getColumns().add(seriesColumn("Schedule", 300, s -> s.getDescription()
+                + " from " + s.getRule().getStartDate()));
+        table.getColumns().add(seriesColumn("Status", 90, ReservationSeries::getStatus));
+
+        Label seriesStatus = new Label();
+        Button approve = new Button("Approve");
+        approve.setStyle("-fx-background-color: #4CAF50; -fx-text-fill: white; -fx-font-weight: bold;");
+        Button reject = new Button("Reject");
+        reject.setStyle("-fx-background-color: #f44336; -fx-text-fill: white; -fx-font-weight: bold;");
+        Button delete = new Button("Delete");
+        approve.setOnAction(e -> changeSeriesStatus(table, seriesStatus, "approved"));
+        reject.setOnAction(e -> changeSeriesStatus(table, seriesStatus, "rejected"));
+        delete.setOnAction(e -> {
+            ReservationSeries selected = table.getSelectionModel().getSelectedItem();
+            if (selected == null) return;
+            AsyncDataStore.deleteSeries(selected).thenRun(() -> {
+                table.getItems().remove(selected);
+                seriesStatus.setText("Series #" + selected.getId() + " deleted.");
+            });
+        });
+
+        HBox actions = new HBox(10, approve, reject, delete, seriesStatus);
+        VBox content = new VBox(10, table, actions);
+        content.setPadding(new Insets(10));
+
+        Dialog<Void> dialog = new Dialog<>();
+        dialog.setTitle("Recurring Series");
+        dialog.setHeaderText("Approve or reject recurring reservations");
+        dialog.getDialogPane().setContent(content);
+        dialog.getDialogPane().getButtonTypes().add(ButtonType.CLOSE);
+
+        AsyncDataStore.getAllSeries().thenAccept(series -> table.setItems(FXCollections.observableArrayList(series)));
+        dialog.showAndWait();
+    }
+
+    private void changeSeriesStatus(TableView<ReservationSeries> table, Label seriesStatus, String newStatus) {
+        ReservationSeries selected = table.getSelectionModel().getSelectedItem();
+        if (selected == null) {
+            seriesStatus.setText("Select a series first.");
+            return;
         }
+        AsyncDataStore.updateSeriesStatus(selected, newStatus).thenAccept(updated -> {
+            if (!updated) {
+                seriesStatus.setTextFill(Color.RED);
+                seriesStatus.setText("Cannot " + ("approved".equals(newStatus) ? "approve" : "update")
+                        + ": some dates are already taken.");
+                return;
+            }
+            table.refresh();
+            seriesStatus.setTextFill(Color.GREEN);
+            seriesStatus.setText("Series #" + selected.getId() + " " + newStatus + ".");
+            simulateGitHubSync("SERIES_" + newStatus.toUpperCase(), selected.getRoomName());
+        });
+    }
+
+    private static TableColumn<ReservationSeries, String> seriesColumn(
+            String title, double width, java.util.function.Function<ReservationSeries, String> value) {
+        TableColumn<ReservationSeries, String> column = new TableColumn<>(title);
+        column.setPrefWidth(width);
+        column.setCellValueFactory(cd -> new javafx.beans.property.SimpleStringProperty(value.apply(cd.getValue())));
+        return column;
     }
 
     @FXML
@@ -322,12 +419,11 @@ public class AdminController {
         });
 
         Optional<Room> result = dialog.showAndWait();
-        result.ifPresent(room -> {
-            DataStore.addRoom(room);
+        result.ifPresent(room -> AsyncDataStore.addRoom(room).thenRun(() -> {
             statusLabel.setTextFill(Color.GREEN);
             statusLabel.setText("Room '" + room.getName() + "' added successfully!");
             simulateGitHubSync("ADD_ROOM", room.getName());
-        });
+        }));
     }
 
     @FXML
@@ -414,13 +510,12 @@ public class AdminController {
         });
 
         Optional<Room> result = dialog.showAndWait();
-        result.ifPresent(room -> {
-            DataStore.saveRooms();
+        result.ifPresent(room -> AsyncDataStore.saveRooms().thenRun(() -> {
             roomTable.refresh();
             statusLabel.setTextFill(Color.GREEN);
             statusLabel.setText("Room updated successfully!");
             simulateGitHubSync("EDIT_ROOM", room.getName());
-        });
+        }));
     }
 
     @FXML
@@ -439,10 +534,11 @@ public class AdminController {
 
         Optional<ButtonType> result = alert.showAndWait();
         if (result.isPresent() && result.get() == ButtonType.OK) {
-            DataStore.removeRoom(selected);
-            statusLabel.setTextFill(Color.ORANGE);
-            statusLabel.setText("Room '" + selected.getName() + "' deleted.");
-            simulateGitHubSync("DELETE_ROOM", selected.getName());
+            AsyncDataStore.removeRoom(selected).thenRun(() -> {
+                statusLabel.setTextFill(Color.ORANGE);
+                statusLabel.setText("Room '" + selected.getName() + "' deleted.");
+                simulateGitHubSync("DELETE_ROOM", selected.getName());
+            });
         }
     }
 
@@ -468,13 +564,17 @@ public class AdminController {
 
         Optional<ButtonType> result = alert.showAndWait();
         if (result.isPresent() && result.get() == ButtonType.OK) {
-            DataStore.deleteUser(selected);                 // perform actual DB delete
-            DataStore.reloadAll();                          // reload lists from MySQL
-            userTable.setItems(DataStore.getUsers());       // rebind updated list
-            userTable.refresh();                            // force visual refresh
-            statusLabel.setTextFill(Color.ORANGE);
-            statusLabel.setText("User '" + selected.getUsername() + "' removed from database.");
-            simulateGitHubSync("REMOVE_USER", selected.getEmail());
+            AsyncDataStore.supply(() -> {
+                Repositories.users().deleteUser(selected);  // perform actual delete
+                Repositories.get().reloadAll();             // reload lists from storage
+                return Repositories.users().getUsers();
+            }).thenAccept(users -> {
+                userTable.setItems(users);                  // rebind updated list
+                userTable.refresh();                        // force visual refresh
+                statusLabel.setTextFill(Color.ORANGE);
+                statusLabel.setText("User '" + selected.getUsername() + "' removed from database.");
+                simulateGitHubSync("REMOVE_USER", selected.getEmail());
+            });
 
         }
     }
@@ -491,10 +591,11 @@ public class AdminController {
         }
 
         selected.setRole("approved_user");
-        DataStore.saveUsers();
-        userTable.refresh();
-        statusLabel.setTextFill(Color.GREEN);
-        statusLabel.setText("User '" + selected.getUsername() + "' approved!");
+        AsyncDataStore.updateUser(selected).thenRun(() -> {
+            userTable.refresh();
+            statusLabel.setTextFill(Color.GREEN);
+            statusLabel.setText("User '" + selected.getUsername() + "' approved!");
+        });
     }
 
     private void setupReservationDoubleClick() {
@@ -591,7 +692,7 @@ public class AdminController {
     private void startAutoBackup() {
         backupTask = new TimerTask() {
             public void run() {
-                DataStore.saveAll();
+                Repositories.get().saveAll(); // already on the timer thread
                 Platform.runLater(() -> {
                     System.out.println("[AUTO-BACKUP] Complete at " +
                             LocalDateTime.now().format(DateTimeFormatter.ofPattern("HH:mm:ss")));
@@ -602,19 +703,14 @@ public class AdminController {
     }
 
     private void startAutoRefresh() {
-        refreshTask = new TimerTask() {
-            public void run() {
-                Platform.runLater(() -> {
-                    DataStore.reloadAll();
-                    roomTable.refresh();
-                    userTable.refresh();
-                    reservationTable.refresh();
-                    System.out.println("[AUTO-REFRESH] Dashboard data refreshed at " +
-                            LocalDateTime.now().format(DateTimeFormatter.ofPattern("HH:mm:ss")));
-                });
-            }
-        };
-        refreshTimer.schedule(refreshTask, 30000, 30000);
+        // Other clients' writes arrive through the change feed, with the shared lists already re-read
+        changeSubscription = ChangeFeed.subscribe(tables -> {
+            if (tables.contains(ChangeFeed.ROOMS)) roomTable.refresh();
+            if (tables.contains(ChangeFeed.USERS)) userTable.refresh();
+            if (tables.contains(ChangeFeed.RESERVATIONS)) reservationPager.refresh();
+            System.out.println("[AUTO-REFRESH] " + tables + " changed, refreshed at " +
+                    LocalDateTime.now().format(DateTimeFormatter.ofPattern("HH:mm:ss")));
+        });
     }
 
     private void simulateGitHubSync(String action, String data) {
@@ -633,8 +729,61 @@ public class AdminController {
         }).start();
     }
 
+    @FXML
+    private void importReservations() {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Import Reservations");
+        fileChooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("CSV or JSON", "*.csv", "*.json"),
+                new FileChooser.ExtensionFilter("All Files", "*.*")
+        );
+        File file = fileChooser.showOpenDialog(statusLabel.getScene().getWindow());
+        if (file == null) return;
+
+        ButtonType notifyButton = new ButtonType("Import and Email Users");
+        ButtonType silentButton = new ButtonType("Import Without Emails");
+        Alert alert = new Alert(Alert.AlertType.CONFIRMATION, "", notifyButton, silentButton, ButtonType.CANCEL);
+        alert.setTitle("Import Reservations");
+        alert.setHeaderText("Import reservations from " + file.getName());
+        alert.setContentText("Should each user get the usual confirmation email for their imported bookings?");
+        Optional<ButtonType> choice = alert.showAndWait();
+        if (choice.isEmpty() || choice.get() == ButtonType.CANCEL) return;
+        boolean notify = choice.get() == notifyButton;
+
+        statusLabel.setTextFill(Color.GRAY);
+        statusLabel.setText("Importing " + file.getName() + "...");
+        AsyncDataStore.supply(() -> {
+            try {
+                return ReservationImporter.importFile(file.toPath(), notify);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }).whenComplete((result, error) -> {
+            if (error != null) {
+                statusLabel.setTextFill(Color.RED);
+                statusLabel.setText("Import failed: " + error.getMessage());
+                return;
+            }
+            reservationPager.reload();
+            statusLabel.setTextFill(result.imported() > 0 ? Color.GREEN : Color.ORANGE);
+            statusLabel.setText("Import finished: " + result.summary());
+            if (!result.errors().isEmpty()) {
+                Alert details = new Alert(Alert.AlertType.WARNING);
+                details.setTitle("Import Reservations");
+                details.setHeaderText((result.invalid() + result.conflicts()) + " row(s) were skipped");
+                details.setContentText(String.join("\n", result.errors()));
+                details.show();
+            }
+        });
+    }
+
     @FXML
     private void generateTextReport() {
+        // Rooms and users come from the tables; reservations are synced in the background first
+        AsyncDataStore.getReservations().thenAccept(this::writeTextReport);
+    }
+
+    private void writeTextReport(List<Reservation> reservations) {
         try {
             String filename = "report_" +
                     LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".txt";
@@ -644,18 +793,18 @@ public class AdminController {
             writer.write("Generated: " + LocalDateTime.now() + "\n\n");
 
             writer.write("--- ROOMS ---\n");
-            for (Room room : DataStore.getRooms()) {
+            for (Room room : roomTable.getItems()) {
                 writer.write("Room: " + room.getName() + " | Status: " + room.getStatus() + "\n");
             }
 
             writer.write("\n--- USERS ---\n");
-            for (User user : DataStore.getUsers()) {
+            for (User user : userTable.getItems()) {
                 writer.write("User: " + user.getUsername() + " | Email: " +
                         user.getEmail() + " | Role: " + user.getRole() + "\n");
             }
 
             writer.write("\n--- RESERVATIONS ---\n");
-            for (Reservation res : DataStore.getReservations()) {
+            for (Reservation res : reservations) {
                 writer.write("User: " + res.getUsername() + " | Room: " +
                         res.getRoomName() + " | Date: " + res.getDate() + "\n");
             }
@@ -672,6 +821,10 @@ public class AdminController {
 
     @FXML
     private void generateJsonReport() {
+        AsyncDataStore.getReservations().thenAccept(this::writeJsonReport);
+    }
+
+    private void writeJsonReport(List<Reservation> reservations) {
         try {
             String filename = "report_" +
                     LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".json";
@@ -679,9 +832,9 @@ public class AdminController {
 
             writer.write("{\n");
             writer.write("  \"generated\": \"" + LocalDateTime.now() + "\",\n");
-            writer.write("  \"total_rooms\": " + DataStore.getRooms().size() + ",\n");
-            writer.write("  \"total_users\": " + DataStore.getUsers().size() + ",\n");
-            writer.write("  \"total_reservations\": " + DataStore.getReservations().size() + "\n");
+            writer.write("  \"total_rooms\": " + roomTable.getItems().size() + ",\n");
+            writer.write("  \"total_users\": " + userTable.getItems().size() + ",\n");
+            writer.write("  \"total_reservations\": " + reservations.size() + "\n");
             writer.write("}\n");
 
             writer.close();
@@ -702,13 +855,14 @@ public class AdminController {
     }
 
     private void handleWindowClose(WindowEvent event) {
-        DataStore.saveAll();
+        Repositories.get().saveAll();
 
         try {
             String logFile = "admin_log_" +
                     LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd")) + ".txt";
             FileWriter writer = new FileWriter(logFile, true);
-            writer.write("[" + LocalDateTime.now() + "] Admin session ended\n");
+            String who = session != null ? " for " + session.getUsername() + " (signed in " + session.getSignedInAt() + ")" : "";
+            writer.write("[" + LocalDateTime.now() + "] Admin session ended" + who + "\n");
             writer.close();
             System.out.println("[ADMIN] Session log saved: " + logFile);
         } catch (IOException e) {
@@ -716,9 +870,8 @@ public class AdminController {
         }
 
         if (backupTask != null) backupTask.cancel();
-        if (refreshTask != null) refreshTask.cancel();
+        if (changeSubscription != null) changeSubscription.run();
         backupTimer.cancel();
-        refreshTimer.cancel();
 
         System.out.println("[ADMIN] Dashboard closed, all data saved");
     }
@@ -733,12 +886,11 @@ public class AdminController {
         Optional<ButtonType> result = alert.showAndWait();
         if (result.isPresent() && result.get() == ButtonType.OK) {
             try {
-                DataStore.saveAll();
+                AsyncDataStore.saveAll();
 
                 if (backupTask != null) backupTask.cancel();
-                if (refreshTask != null) refreshTask.cancel();
+                if (changeSubscription != null) changeSubscription.run();
                 backupTimer.cancel();
-                refreshTimer.cancel();
 
                 javafx.fxml.FXMLLoader loader =
                         new javafx.fxml.FXMLLoader(getClass().getResource("/view/login.fxml"));
@@ -11,14 +11,17 @@ import javafx.scene.input.KeyEvent;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 import javafx.stage.WindowEvent;
-import model.User;
-import util.DataStore;
+import model.UserSession;
+import repository.Repositories;
+import util.AsyncDataStore;
+import util.AuthService;
 import util.Validator;
 
 import java.io.IOException;
 import java.util.Optional;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.concurrent.RejectedExecutionException;
 
 public class LoginController {
     // -------------------- FXML ELEMENTS --------------------
@@ -44,8 +47,8 @@ public class LoginController {
     // -------------------- INITIALIZATION --------------------
     @FXML
     public void initialize() {
-        // Initialize database connection
-        DataStore.initialize();
+        // Connect in the background while the user types
+        AsyncDataStore.initialize();
 
         // Start idle timer
         startIdleTimer();
@@ -176,26 +179,42 @@ public class LoginController {
             return;
         }
 
-        boolean isValid = DataStore.validateUser(email, pass);
-        if (!isValid) {
-            setStatus(statusLabel, "Invalid login credentials!", "red");
-            emailField.setStyle("-fx-border-color: red; -fx-border-width: 2;");
-            passwordField.setStyle("-fx-border-color: red; -fx-border-width: 2;");
-        } else {
-            setStatus(statusLabel, "Login Successful!", "green");
-            emailField.setStyle("-fx-border-color: green; -fx-border-width: 2;");
-            passwordField.setStyle("-fx-border-color: green; -fx-border-width: 2;");
-
-            stopIdleTimer();
-
-            if (DataStore.isAdmin(email)) {
-                System.out.println("Opening Admin Dashboard...");
-                switchToAdminDashboard();
-            } else {
-                System.out.println("Opening User Dashboard...");
-                switchToUserDashboard(email);
-            }
-        }
+        loginButton.setDisable(true);
+        setStatus(statusLabel, "Signing in...", "gray");
+
+        // One user lookup and the password check, off the FX thread; the callback runs on it
+        AuthService.login(email, pass)
+                .whenComplete((session, error) -> {
+                    loginButton.setDisable(false);
+                    if (error instanceof RejectedExecutionException) {
+                        setStatus(statusLabel, "Too many sign-in attempts, please try again.", "red");
+                        return;
+                    }
+                    if (error != null) {
+                        setStatus(statusLabel, "Database unavailable, please try again.", "red");
+                        return;
+                    }
+                    if (session == null) {
+                        setStatus(statusLabel, "Invalid login credentials!", "red");
+                        emailField.setStyle("-fx-border-color: red; -fx-border-width: 2;");
+                        passwordField.setStyle("-fx-border-color: red; -fx-border-width: 2;");
+                        return;
+                    }
+
+                    setStatus(statusLabel, "Login Successful!", "green");
+                    emailField.setStyle("-fx-border-color: green; -fx-border-width: 2;");
+                    passwordField.setStyle("-fx-border-color: green; -fx-border-width: 2;");
+
+                    stopIdleTimer();
+
+                    if (session.isAdmin()) {
+                        System.out.println("Opening Admin Dashboard...");
+                        switchToAdminDashboard(session);
+                    } else {
+                        System.out.println("Opening User Dashboard...");
+                        switchToUserDashboard(session);
+                    }
+                });
     }
 
     // -------------------- ACTION EVENT: REGISTRATION --------------------
@@ -225,18 +244,25 @@ public class LoginController {
             return;
         }
 
-        if (DataStore.userExists(email)) {
-            setStatus(registerStatusLabel, "User already exists!", "red");
-            return;
-        }
+        registerButton.setDisable(true);
+        AuthService.register(username, email, pass).whenComplete((created, error) -> {
+            registerButton.setDisable(false);
+            if (error instanceof RejectedExecutionException) {
+                setStatus(registerStatusLabel, "Server busy, please try again.", "red");
+            } else if (error != null) {
+                setStatus(registerStatusLabel, "Database unavailable, please try again.", "red");
+            } else if (!created) {
+                setStatus(registerStatusLabel, "User already exists!", "red");
+            } else {
+                onRegistered(username, email, pass);
+            }
+        });
+    }
 
-        DataStore.addUser(username, email, pass, "user");
+    private void onRegistered(String username, String email, String pass) {
         setStatus(registerStatusLabel, "Account created! You can now log in.", "green");
 
-        // Send welcome email after successful signup
-        User newUser = new User(username, email, pass, "user");
-        util.EmailService.getInstance().sendWelcomeEmail(newUser);
-        System.out.println("[EMAIL] Welcome email triggered for: " + email);
+        // The welcome email was queued with the new account
 
         usernameField.clear();
         signupEmailField.clear();
@@ -283,17 +309,13 @@ public class LoginController {
     }
 
     // -------------------- DASHBOARD SWITCHING --------------------
-    private void switchToUserDashboard(String email) {
+    private void switchToUserDashboard(UserSession session) {
         try {
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/view/user_dashboard.fxml"));
             Parent root = loader.load();
 
             UserController controller = loader.getController();
-            User currentUser = DataStore.getUserByEmail(email);
-
-            if (currentUser != null) {
-                controller.setCurrentUser(currentUser);
-            }
+            controller.setSession(session);
 
             Stage stage = (Stage) loginPane.getScene().getWindow();
             stage.setScene(new Scene(root, 1000, 700));
@@ -304,11 +326,14 @@ public class LoginController {
         }
     }
 
-    private void switchToAdminDashboard() {
+    private void switchToAdminDashboard(UserSession session) {
         try {
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/view/admin_dashboard.fxml"));
             Parent root = loader.load();
 
+            AdminController controller = loader.getController();
+            controller.setSession(session);
+
             Stage stage = (Stage) loginPane.getScene().getWindow();
             stage.setScene(new Scene(root, 800, 500));
             stage.setTitle("Admin Dashboard");
@@ -382,7 +407,7 @@ public class LoginController {
             event.consume();
         } else {
             stopIdleTimer();
-            DataStore.closeConnection();
+            Repositories.get().close();
         }
     }
 
@@ -404,9 +429,9 @@ public class LoginController {
         new Thread(() -> {
             try {
                 Thread.sleep(1000);
-                Platform.runLater(() -> {
+                AsyncDataStore.getUsers().thenAccept(users -> {
                     System.out.println("[API] Admin user list synced successfully");
-                    System.out.println("[API] Total users: " + DataStore.getUsers().size());
+                    System.out.println("[API] Total users: " + users.size());
                 });
             } catch (InterruptedException e) {
                 e.printStackTrace();
@@ -5,13 +5,17 @@ import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.paint.Color;
 import javafx.stage.Stage;
+import model.RecurrenceRule;
 import model.Reservation;
+import model.ReservationSeries;
 import model.Room;
 import model.User;
-import util.DataStore;
+import util.AsyncDataStore;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.EnumSet;
 
 public class ReservationFormController {
 
@@ -22,6 +26,8 @@ public class ReservationFormController {
     @FXML private ComboBox<String> startMinuteCombo;
     @FXML private ComboBox<String> endHourCombo;
     @FXML private ComboBox<String> endMinuteCombo;
+    @FXML private ComboBox<String> repeatCombo;
+    @FXML private DatePicker untilDatePicker;
     @FXML private TextField customerField;
     @FXML private TextArea notesField;
     @FXML private Label statusLabel;
@@ -67,6 +73,12 @@ public class ReservationFormController {
         startMinuteCombo.setValue("00");
         endHourCombo.setValue("10");
         endMinuteCombo.setValue("00");
+
+        // Recurrence: the weekly options repeat on the chosen date's weekday
+        repeatCombo.setItems(FXCollections.observableArrayList(
+                "Does not repeat", "Daily", "Weekly", "Every 2 weeks", "Monthly"));
+        repeatCombo.setValue("Does not repeat");
+        untilDatePicker.disableProperty().bind(repeatCombo.valueProperty().isEqualTo("Does not repeat"));
     }
 
     // -------------------- SETTERS --------------------
@@ -94,6 +106,15 @@ public class ReservationFormController {
         this.parentController = controller;
     }
 
+    // Pre-fill a time found by "Find a Room"; times are "HH:mm" on the 15-minute grid
+    public void setTimeSlot(LocalDate date, String startTime, String endTime) {
+        datePicker.setValue(date);
+        startHourCombo.setValue(startTime.substring(0, 2));
+        startMinuteCombo.setValue(startTime.substring(3, 5));
+        endHourCombo.setValue(endTime.substring(0, 2));
+        endMinuteCombo.setValue(endTime.substring(3, 5));
+    }
+
     // -------------------- CONFLICT DETECTION --------------------
     private void setupConflictDetection() {
         // Check for conflicts when date or times change
@@ -105,20 +126,37 @@ public class ReservationFormController {
     }
 
     private void checkForConflicts() {
-        if (selectedRoom == null || datePicker.getValue() == null ||
-                startHourCombo.getValue() == null || startMinuteCombo.getValue() == null ||
-                endHourCombo.getValue() == null || endMinuteCombo.getValue() == null) {
-            return;
-        }
+        String slot = selectedSlot();
+        if (slot == null) return;
 
+        String roomName = selectedRoom.getName();
         String date = datePicker.getValue().format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
         String startTime = startHourCombo.getValue() + ":" + startMinuteCombo.getValue();
         String endTime = endHourCombo.getValue() + ":" + endMinuteCombo.getValue();
 
-        boolean hasConflict = DataStore.hasConflict(selectedRoom.getName(), date, startTime, endTime);
+        // Pending requests hold their slot too, so any overlap will be refused on submit
+        AsyncDataStore.getRoomStatusForTime(roomName, date, startTime, endTime).thenAccept(status -> {
+            // The user may have picked another time while this was loading
+            if (slot.equals(selectedSlot())) {
+                showConflictWarning(!"Available".equals(status));
+            }
+        });
+    }
 
+    // The room, date and times currently picked, or null while any of them is missing
+    private String selectedSlot() {
+        if (selectedRoom == null || datePicker.getValue() == null ||
+                startHourCombo.getValue() == null || startMinuteCombo.getValue() == null ||
+                endHourCombo.getValue() == null || endMinuteCombo.getValue() == null) {
+            return null;
+        }
+        return selectedRoom.getName() + " " + datePicker.getValue() + " " + startHourCombo.getValue() + ":"
+                + startMinuteCombo.getValue() + "-" + endHourCombo.getValue() + ":" + endMinuteCombo.getValue();
+    }
+
+    private void showConflictWarning(boolean hasConflict) {
         if (hasConflict) {
-            conflictWarningLabel.setText("⚠️ WARNING: This time slot conflicts with an approved reservation. You can still submit, but it may be rejected.");
+            conflictWarningLabel.setText("⚠️ WARNING: This time slot is already requested or booked. Please choose another time.");
             conflictWarningLabel.setVisible(true);
             conflictWarningLabel.setManaged(true);
             reserveButton.setStyle("-fx-background-color: #FF9800; -fx-text-fill: white; -fx-font-size: 15px; -fx-font-weight: bold; -fx-background-radius: 5;");
@@ -233,35 +271,95 @@ public class ReservationFormController {
             return;
         }
 
-        // Check for conflicts
-        boolean hasConflict = DataStore.hasConflict(selectedRoom.getName(), date, startTime, endTime);
-
-        if (hasConflict) {
-            // Show warning but allow submission
-            Alert warning = new Alert(Alert.AlertType.WARNING);
-            warning.setTitle("Time Conflict Detected");
-            warning.setHeaderText("This time slot conflicts with an approved reservation");
-            warning.setContentText("Your reservation will be marked as PENDING and may be rejected by the admin.\n\nDo you want to continue?");
-
-            ButtonType result = warning.showAndWait().orElse(ButtonType.CANCEL);
-            if (result != ButtonType.OK) {
-                return;
-            }
+        if (!"Does not repeat".equals(repeatCombo.getValue()) && untilDatePicker.getValue() != null
+                && untilDatePicker.getValue().isBefore(datePicker.getValue())) {
+            showStatus("Repeat end date must be after the first date!", Color.RED);
+            return;
         }
 
         // Create reservation
         String username = currentUser != null ? currentUser.getUsername() : customerField.getText();
         String roomName = selectedRoom.getName();
 
+        RecurrenceRule rule = buildRecurrenceRule();
+        if (rule != null) {
+            submitSeries(new ReservationSeries(username, roomName, startTime, endTime, "pending", rule));
+            return;
+        }
+
         // Save reservation with PENDING status (admin will approve)
+        // The database claims the time slots atomically, so a concurrent request for the same slot loses here
         Reservation reservation = new Reservation(username, roomName, date, startTime, endTime, "pending");
-        DataStore.addReservation(reservation);
+        reserveButton.setDisable(true);
+        showStatus("Submitting request...", Color.GRAY);
+        AsyncDataStore.addReservation(reservation).whenComplete((accepted, error) -> {
+            reserveButton.setDisable(false);
+            if (error != null) {
+                showStatus("Could not submit request, please try again.", Color.RED);
+            } else if (!accepted) {
+                showStatus("Time slot is no longer available!", Color.RED);
+                showAlert(Alert.AlertType.WARNING, "Time Conflict Detected",
+                        "'" + roomName + "' is already requested or booked on " + date +
+                                " between " + startTime + " and " + endTime + ".\n\nPlease choose another time.");
+                checkForConflicts();
+            } else {
+                onReservationSubmitted(reservation);
+            }
+        });
+    }
 
-        // Send reservation confirmation email to user
-        if (currentUser != null) {
-            util.EmailService.getInstance().sendReservationConfirmation(currentUser, reservation);
-            System.out.println("[EMAIL] Reservation confirmation triggered for: " + currentUser.getEmail());
-        }
+    // -------------------- RECURRING BOOKINGS --------------------
+    // Null when "Does not repeat" is chosen
+    private RecurrenceRule buildRecurrenceRule() {
+        String repeat = repeatCombo.getValue();
+        if (repeat == null || "Does not repeat".equals(repeat)) return null;
+
+        LocalDate start = datePicker.getValue();
+        LocalDate until = untilDatePicker.getValue();
+        return switch (repeat) {
+            case "Daily" -> RecurrenceRule.daily(1, start, until);
+            case "Weekly" -> RecurrenceRule.weekly(1, start, until, EnumSet.of(start.getDayOfWeek()));
+            case "Every 2 weeks" -> RecurrenceRule.weekly(2, start, until, EnumSet.of(start.getDayOfWeek()));
+            case "Monthly" -> RecurrenceRule.monthly(1, start, until);
+            default -> null;
+        };
+    }
+
+    private void submitSeries(ReservationSeries series) {
+        reserveButton.setDisable(true);
+        showStatus("Submitting recurring request...", Color.GRAY);
+        AsyncDataStore.addSeries(series).whenComplete((accepted, error) -> {
+            reserveButton.setDisable(false);
+            if (error != null) {
+                showStatus("Could not submit request, please try again.", Color.RED);
+            } else if (!accepted) {
+                showStatus("Some dates in this series are already taken!", Color.RED);
+                showAlert(Alert.AlertType.WARNING, "Time Conflict Detected",
+                        "'" + series.getRoomName() + "' is already requested or booked at " + series.getTimeRange()
+                                + " on at least one date of this series (" + series.getRule().describe()
+                                + ").\n\nPlease choose another time or repeat pattern.");
+            } else {
+                showStatus("Recurring request submitted successfully!", Color.GREEN);
+                showAlert(Alert.AlertType.INFORMATION, "Reservation Submitted",
+                        "Your recurring reservation for '" + series.getRoomName() + "' ("
+                                + series.getDescription() + ") is now PENDING.\n\n"
+                                + "The admin will review and approve your request.");
+                if (parentController != null) {
+                    parentController.refreshCards();
+                }
+                closeForm();
+            }
+        });
+    }
+
+    private void onReservationSubmitted(Reservation reservation) {
+        String username = reservation.getUsername();
+        String roomName = reservation.getRoomName();
+        String date = reservation.getDate();
+        String startTime = reservation.getStartTime();
+        String endTime = reservation.getEndTime();
+
+        // The confirmation email was queued with the booking
         // Show success
         showStatus("Request submitted successfully!", Color.GREEN);
         showAlert(Alert.AlertType.INFORMATION, "Reservation Submitted",
@@ -5,28 +5,34 @@ import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.geometry.Insets;
-import javafx.geometry.Pos;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
-import javafx.scene.image.Image;
-import javafx.scene.image.ImageView;
 import javafx.scene.input.MouseButton;
 import javafx.scene.layout.*;
 import javafx.scene.paint.Color;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
 import model.Reservation;
+import model.ReservationSeries;
 import model.Room;
 import model.User;
-import util.DataStore;
+import model.UserSession;
+import repository.Repositories;
+import util.AsyncDataStore;
+import util.ChangeFeed;
+import util.RoomCardGrid;
+import util.RoomFinder;
 
-import java.io.File;
 import java.io.IOException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Timer;
 import java.util.TimerTask;
@@ -37,7 +43,7 @@ public class UserController {
     @FXML private BorderPane mainPane;
     @FXML private Label welcomeLabel;
     @FXML private Label statusLabel;
-    @FXML private FlowPane roomCardsContainer;
+    @FXML private ListView<List<Room>> roomCardsContainer;
     @FXML private TextField searchField;
     @FXML private VBox myReservationsSection;
     @FXML private TableView<Reservation> myReservationsTable;
@@ -46,16 +52,26 @@ public class UserController {
     @FXML private TableColumn<Reservation, String> myResStatusColumn;
     @FXML private Button cancelButton;
 
+    // Recurring bookings are expanded for this many days ahead in "My Reservations"
+    private static final int SERIES_WINDOW_DAYS = 30;
+
+    private UserSession session;
     private User currentUser;
     private final Timer refreshTimer = new Timer(true);
     private TimerTask refreshTask;
+    private Runnable changeSubscription;
+
+    // Last rooms and statuses fetched in the background; the search filter works on these
+    private List<Room> allRooms = List.of();
+    private Map<String, String> roomStatuses = Map.of();
+    private RoomCardGrid roomGrid;
 
     @FXML
     public void initialize() {
-        DataStore.initialize();
-
         setupMyReservationsTable();
         setupSearchFilter();
+        // Only the visible cards exist; they are reused as the list scrolls
+        roomGrid = new RoomCardGrid(roomCardsContainer, this::openReservationForm);
         loadRoomCards();
         startAutoRefresh();
 
@@ -63,12 +79,16 @@ public class UserController {
         System.out.println("[USER DASHBOARD] Initialized successfully");
     }
 
-    public void setCurrentUser(User user) {
-        this.currentUser = user;
+    /**
+     * The signed-in user from login; reused as is, never looked up again
+     */
+    public void setSession(UserSession session) {
+        this.session = session;
+        this.currentUser = session.getUser();
         if (welcomeLabel != null) {
-            welcomeLabel.setText("Welcome, " + user.getUsername() + "!");
+            welcomeLabel.setText("Welcome, " + session.getUsername() + "!");
         }
-        System.out.println("[USER DASHBOARD] Current user set: " + user.getUsername());
+        System.out.println("[USER DASHBOARD] Current user set: " + session.getUsername());
     }
 
     private void setupMyReservationsTable() {
@@ -77,6 +97,7 @@ public class UserController {
         myResDateColumn.setCellValueFactory(cd -> {
             Reservation r = cd.getValue();
             String dateTime = r.getDate() + " " + r.getStartTime() + " - " + r.getEndTime();
+            if (r.isOccurrence()) dateTime += " (recurring)";
             return new javafx.beans.property.SimpleStringProperty(dateTime);
         });
 
@@ -119,12 +140,12 @@ public class UserController {
 
     private void filterRoomCards(String query) {
         if (query == null || query.trim().isEmpty()) {
-            loadRoomCards();
+            displayRoomCards(allRooms);
             return;
         }
 
         String lowerQuery = query.toLowerCase().trim();
-        List<Room> filteredRooms = DataStore.getRooms().stream()
+        List<Room> filteredRooms = allRooms.stream()
                 .filter(room -> room.getName().toLowerCase().contains(lowerQuery) ||
                         room.getStatus().toLowerCase().contains(lowerQuery))
                 .collect(Collectors.toList());
@@ -133,177 +154,30 @@ public class UserController {
         statusLabel.setText("Found " + filteredRooms.size() + " room(s) matching '" + query + "'");
     }
 
+    /**
+     * Fetch rooms and their current statuses off the FX thread, then redraw the cards
+     */
     private void loadRoomCards() {
-        displayRoomCards(DataStore.getRooms());
+        // One query for every room's current status instead of one per card
+        AsyncDataStore.getRooms()
+                .thenCombine(AsyncDataStore.computeRoomStatusesNow(), (rooms, statuses) -> {
+                    allRooms = List.copyOf(rooms);
+                    roomStatuses = statuses;
+                    return null;
+                })
+                .thenRun(() -> filterRoomCards(searchField != null ? searchField.getText() : null));
     }
 
     private void displayRoomCards(List<Room> rooms) {
-        roomCardsContainer.getChildren().clear();
-
-        for (Room room : rooms) {
-            VBox card = createRoomCard(room);
-            roomCardsContainer.getChildren().add(card);
-        }
+        roomGrid.setRooms(rooms, roomStatuses);
     }
 
-    private VBox createRoomCard(Room room) {
-        VBox card = new VBox(0);
-        card.setPrefSize(320, 200);
-        card.setMaxSize(320, 200);
-        card.setStyle("-fx-background-color: white; " +
-                "-fx-border-color: #ddd; " +
-                "-fx-border-width: 2; " +
-                "-fx-border-radius: 10; " +
-                "-fx-background-radius: 10; " +
-                "-fx-effect: dropshadow(gaussian, rgba(0,0,0,0.1), 8, 0, 0, 2);");
-
-        // Create main horizontal layout
-        HBox mainContent = new HBox(0);
-        mainContent.setPrefSize(316, 196);
-
-        // Left side - Image (landscape)
-        StackPane imageContainer = new StackPane();
-        imageContainer.setPrefSize(180, 196);
-        imageContainer.setMaxSize(180, 196);
-
-        ImageView imageView = new ImageView();
-        imageView.setFitWidth(180);
-        imageView.setFitHeight(196);
-        imageView.setPreserveRatio(false);
-
-        if (room.getImagePath() != null && !room.getImagePath().isEmpty()) {
-            try {
-                File imageFile = new File(room.getImagePath());
-                if (imageFile.exists()) {
-                    Image image = new Image(imageFile.toURI().toString());
-                    imageView.setImage(image);
-                } else {
-                    imageView.setStyle("-fx-background-color: #f5f5f5;");
-                }
-            } catch (Exception e) {
-                System.err.println("[USER DASHBOARD] Error loading image: " + e.getMessage());
-                imageView.setStyle("-fx-background-color: #f5f5f5;");
-            }
-        } else {
-            imageView.setStyle("-fx-background-color: #f5f5f5;");
-        }
-
-        imageContainer.getChildren().add(imageView);
-
-        // Right side - Content
-        VBox contentBox = new VBox(8);
-        contentBox.setPrefSize(136, 196);
-        contentBox.setPadding(new Insets(15, 12, 15, 12));
-        contentBox.setAlignment(Pos.TOP_LEFT);
-
-        // Room name
-        Label nameLabel = new Label(room.getName());
-        nameLabel.setStyle("-fx-font-size: 15px; -fx-font-weight: bold; -fx-text-fill: #333;");
-        nameLabel.setWrapText(true);
-        nameLabel.setMaxWidth(112);
-
-        // Status with current computation
-        String currentStatus = DataStore.computeRoomStatusNow(room.getName());
-        Label statusLabel = new Label(currentStatus);
-        statusLabel.setStyle("-fx-font-size: 12px; -fx-padding: 4 8; -fx-background-radius: 3;");
-        statusLabel.setMaxWidth(112);
-
-        String borderColor = "#ddd";
-        if ("Available".equalsIgnoreCase(currentStatus)) {
-            statusLabel.setStyle(statusLabel.getStyle() +
-                    "-fx-background-color: #e8f5e9; -fx-text-fill: #2e7d32; -fx-font-weight: bold;");
-            borderColor = "#4CAF50";
-        } else if ("Occupied".equalsIgnoreCase(currentStatus)) {
-            statusLabel.setStyle(statusLabel.getStyle() +
-                    "-fx-background-color: #ffebee; -fx-text-fill: #c62828; -fx-font-weight: bold;");
-            borderColor = "#f44336";
-        } else if ("Pending".equalsIgnoreCase(currentStatus)) {
-            statusLabel.setStyle(statusLabel.getStyle() +
-                    "-fx-background-color: #fff3cd; -fx-text-fill: #f57c00; -fx-font-weight: bold;");
-            borderColor = "#FFC107";
-        }
-
-        // Update card border based on status
-        String finalBorderColor = borderColor;
-        card.setStyle(card.getStyle() + "-fx-border-color: " + finalBorderColor + ";");
-
-        // Spacer
-        Region spacer = new Region();
-        VBox.setVgrow(spacer, Priority.ALWAYS);
-
-        // Hint at bottom
-        Label hintLabel = new Label("Double-click to reserve");
-        hintLabel.setStyle("-fx-font-size: 10px; -fx-text-fill: #999; -fx-font-style: italic;");
-        hintLabel.setWrapText(true);
-        hintLabel.setMaxWidth(112);
-
-        contentBox.getChildren().addAll(nameLabel, statusLabel, spacer, hintLabel);
-
-        // Status icon at bottom right
-        StackPane statusIconPane = new StackPane();
-        statusIconPane.setPrefSize(30, 30);
-        statusIconPane.setMaxSize(30, 30);
-        statusIconPane.setAlignment(Pos.BOTTOM_RIGHT);
-        statusIconPane.setStyle("-fx-background-radius: 15; -fx-padding: 0 8 8 0;");
-
-        Label iconLabel = new Label();
-        iconLabel.setStyle("-fx-font-size: 18px; -fx-font-weight: bold;");
-
-        if ("Available".equalsIgnoreCase(currentStatus)) {
-            iconLabel.setText("✓");
-            iconLabel.setStyle(iconLabel.getStyle() + "-fx-text-fill: #4CAF50;");
-        } else if ("Occupied".equalsIgnoreCase(currentStatus)) {
-            iconLabel.setText("✗");
-            iconLabel.setStyle(iconLabel.getStyle() + "-fx-text-fill: #f44336;");
-        } else if ("Pending".equalsIgnoreCase(currentStatus)) {
-            iconLabel.setText("⏱");
-            iconLabel.setStyle(iconLabel.getStyle() + "-fx-text-fill: #FFC107;");
-        }
-
-        statusIconPane.getChildren().add(iconLabel);
-        StackPane.setAlignment(iconLabel, Pos.BOTTOM_RIGHT);
-
-        // Combine everything
-        mainContent.getChildren().addAll(imageContainer, contentBox);
-
-        // Use StackPane to overlay icon
-        StackPane cardStack = new StackPane();
-        cardStack.getChildren().addAll(mainContent, statusIconPane);
-        StackPane.setAlignment(statusIconPane, Pos.BOTTOM_RIGHT);
-
-        card.getChildren().add(cardStack);
-
-        // Mouse events
-        card.setOnMouseClicked(event -> {
-            if (event.getButton() == MouseButton.PRIMARY && event.getClickCount() == 2) {
-                openReservationForm(room);
-            }
-        });
-
-        String originalStyle = card.getStyle();
-        card.setOnMouseEntered(e -> {
-            String glowColor;
-            if ("Available".equalsIgnoreCase(currentStatus)) {
-                glowColor = "rgba(76, 175, 80, 0.4)";
-            } else if ("Occupied".equalsIgnoreCase(currentStatus)) {
-                glowColor = "rgba(244, 67, 54, 0.4)";
-            } else {
-                glowColor = "rgba(255, 193, 7, 0.4)";
-            }
-            card.setStyle(originalStyle +
-                    "-fx-cursor: hand; " +
-                    "-fx-effect: dropshadow(gaussian, " + glowColor + ", 15, 0.5, 0, 0); " +
-                    "-fx-scale-x: 1.02; -fx-scale-y: 1.02;");
-        });
-
-        card.setOnMouseExited(e -> {
-            card.setStyle(originalStyle);
-        });
-
-        return card;
+    private void openReservationForm(Room room) {
+        openReservationForm(room, null);
     }
 
-    private void openReservationForm(Room room) {
+    // slot is an optional free time to pre-fill, from "Find a Room"
+    private void openReservationForm(Room room, RoomFinder.Candidate slot) {
         try {
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/view/reservation_form.fxml"));
             Parent root = loader.load();
@@ -312,6 +186,7 @@ public class UserController {
             controller.setRoom(room);
             controller.setCurrentUser(currentUser);
             controller.setParentController(this);
+            if (slot != null) controller.setTimeSlot(slot.date(), slot.startTime(), slot.endTime());
 
             Stage stage = new Stage();
             stage.initModality(Modality.APPLICATION_MODAL);
@@ -341,14 +216,24 @@ public class UserController {
             return;
         }
 
-        List<Reservation> userReservations = DataStore.getReservationsByUser(currentUser.getUsername());
-        myReservationsTable.setItems(FXCollections.observableArrayList(userReservations));
-
-        myReservationsSection.setVisible(true);
-        myReservationsSection.setManaged(true);
-
-        statusLabel.setText("Showing " + userReservations.size() + " reservation(s)");
-        statusLabel.setTextFill(Color.BLACK);
+        String username = currentUser.getUsername();
+        AsyncDataStore.supply(() -> {
+            // Single bookings plus the coming weeks of any recurring ones, newest first
+            List<Reservation> rows = new ArrayList<>(Repositories.reservations().getReservationsByUser(username));
+            LocalDate today = LocalDate.now();
+            rows.addAll(Repositories.series().getOccurrencesByUser(username, today, today.plusDays(SERIES_WINDOW_DAYS)));
+            rows.sort(Comparator.comparingInt(Reservation::getEpochDay)
+                    .thenComparingInt(Reservation::getStartMinute).reversed());
+            return rows;
+        }).thenAccept(userReservations -> {
+            myReservationsTable.setItems(FXCollections.observableArrayList(userReservations));
+
+            myReservationsSection.setVisible(true);
+            myReservationsSection.setManaged(true);
+
+            statusLabel.setText("Showing " + userReservations.size() + " reservation(s)");
+            statusLabel.setTextFill(Color.BLACK);
+        });
     }
 
     @FXML
@@ -367,6 +252,11 @@ public class UserController {
             return;
         }
 
+        if (selected.isOccurrence()) {
+            cancelOccurrence(selected);
+            return;
+        }
+
         Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
         alert.setTitle("Cancel Reservation");
         alert.setHeaderText("Cancel reservation for " + selected.getRoomName() + "?");
@@ -374,40 +264,206 @@ public class UserController {
 
         Optional<ButtonType> result = alert.showAndWait();
         if (result.isPresent() && result.get() == ButtonType.OK) {
-            DataStore.deleteReservation(selected);
+            cancelButton.setDisable(true);
+            AsyncDataStore.deleteReservation(selected).whenComplete((ignored, error) -> {
+                cancelButton.setDisable(false);
+                showReservations();
+                loadRoomCards();
+                statusLabel.setText(error == null ? "Reservation cancelled successfully"
+                        : "Failed to cancel reservation");
+                statusLabel.setTextFill(error == null ? Color.GREEN : Color.RED);
+            });
+        }
+    }
+
+    // A row from a recurring series: cancel just that date, or the whole series
+    private void cancelOccurrence(Reservation occurrence) {
+        ButtonType thisDate = new ButtonType("This Date Only");
+        ButtonType wholeSeries = new ButtonType("Whole Series");
+        Alert alert = new Alert(Alert.AlertType.CONFIRMATION, "", thisDate, wholeSeries, ButtonType.CANCEL);
+        alert.setTitle("Cancel Recurring Reservation");
+        alert.setHeaderText("Cancel recurring reservation for " + occurrence.getRoomName() + "?");
+        alert.setContentText("Date: " + occurrence.getDate() + "\nTime: " + occurrence.getStartTime()
+                + " - " + occurrence.getEndTime() + "\n\nCancel only this date, or every date in the series?");
+
+        Optional<ButtonType> result = alert.showAndWait();
+        if (result.isEmpty() || result.get() == ButtonType.CANCEL) return;
+        boolean onlyThisDate = result.get() == thisDate;
+
+        cancelButton.setDisable(true);
+        AsyncDataStore.supply(() -> {
+            ReservationSeries series = Repositories.series().getSeriesByUser(occurrence.getUsername()).stream()
+                    .filter(s -> s.getId() == occurrence.getSeriesId())
+                    .findFirst().orElse(null);
+            if (series == null) return false;
+            if (onlyThisDate) {
+                Repositories.series().skipOccurrence(series, LocalDate.parse(occurrence.getDate()));
+            } else {
+                Repositories.series().deleteSeries(series);
+            }
+            return true;
+        }).whenComplete((done, error) -> {
+            cancelButton.setDisable(false);
             showReservations();
-            refreshCards();
-            statusLabel.setText("Reservation cancelled successfully");
-            statusLabel.setTextFill(Color.GREEN);
+            loadRoomCards();
+            boolean ok = error == null && done;
+            statusLabel.setText(!ok ? "Failed to cancel reservation"
+                    : onlyThisDate ? "Cancelled the " + occurrence.getDate() + " occurrence"
+                    : "Recurring reservation cancelled");
+            statusLabel.setTextFill(ok ? Color.GREEN : Color.RED);
+        });
+    }
+
+    // -------------------- FIND A ROOM --------------------
+    @FXML
+    private void findRoom() {
+        DatePicker fromPicker = new DatePicker(LocalDate.now());
+        DatePicker toPicker = new DatePicker(LocalDate.now().plusDays(6));
+        ComboBox<String> durationCombo = new ComboBox<>(FXCollections.observableArrayList(
+                "30 min", "1 hour", "1.5 hours", "2 hours", "3 hours", "4 hours"));
+        durationCombo.setValue("1 hour");
+        List<String> times = new ArrayList<>();
+        for (int h = 6; h <= 22; h++) {
+            times.add(String.format("%02d:00", h));
         }
+        ComboBox<String> earliestCombo = new ComboBox<>(FXCollections.observableArrayList(times));
+        earliestCombo.setValue("08:00");
+        ComboBox<String> latestCombo = new ComboBox<>(FXCollections.observableArrayList(times));
+        latestCombo.setValue("18:00");
+
+        GridPane form = new GridPane();
+        form.setHgap(10);
+        form.setVgap(8);
+        form.addRow(0, new Label("From:"), fromPicker, new Label("To:"), toPicker);
+        form.addRow(1, new Label("Duration:"), durationCombo);
+        form.addRow(2, new Label("Earliest start:"), earliestCombo, new Label("End by:"), latestCombo);
+
+        ListView<RoomFinder.Candidate> results = new ListView<>();
+        results.setPrefHeight(260);
+        results.setPlaceholder(new Label("Pick a date range and duration, then Search"));
+        results.setCellFactory(lv -> new ListCell<>() {
+            @Override
+            protected void updateItem(RoomFinder.Candidate item, boolean empty) {
+                super.updateItem(item, empty);
+                setText(item == null || empty ? null : item.describe());
+            }
+        });
+        Label info = new Label();
+
+        Button search = new Button("Search");
+        Button book = new Button("Book Selected");
+        book.disableProperty().bind(results.getSelectionModel().selectedItemProperty().isNull());
+
+        Stage stage = new Stage();
+        search.setOnAction(e -> {
+            LocalDate from = fromPicker.getValue();
+            LocalDate to = toPicker.getValue();
+            if (from == null || to == null || to.isBefore(from)) {
+                info.setText("Choose a valid date range.");
+                info.setTextFill(Color.RED);
+                return;
+            }
+            if (earliestCombo.getValue().compareTo(latestCombo.getValue()) >= 0) {
+                info.setText("The earliest start must be before the end time.");
+                info.setTextFill(Color.RED);
+                return;
+            }
+            int minutes = durationMinutes(durationCombo.getValue());
+            List<String> roomNames = allRooms.stream().map(Room::getName).toList();
+            search.setDisable(true);
+            long started = System.nanoTime();
+            AsyncDataStore.supply(() -> RoomFinder.find(roomNames, from, to, minutes,
+                    earliestCombo.getValue(), latestCombo.getValue(), RoomFinder.DEFAULT_LIMIT))
+                    .whenComplete((found, error) -> {
+                        search.setDisable(false);
+                        if (error != null) {
+                            info.setText("Search failed.");
+                            info.setTextFill(Color.RED);
+                            return;
+                        }
+                        results.setItems(FXCollections.observableArrayList(found));
+                        long millis = (System.nanoTime() - started) / 1_000_000;
+                        info.setText(found.isEmpty() ? "No room is free for that long in the chosen range."
+                                : found.size() + " options across " + roomNames.size() + " rooms (" + millis + " ms)");
+                        info.setTextFill(found.isEmpty() ? Color.RED : Color.GREEN);
+                    });
+        });
+        book.setOnAction(e -> bookCandidate(results.getSelectionModel().getSelectedItem(), stage));
+        results.setOnMouseClicked(e -> {
+            if (e.getButton() == MouseButton.PRIMARY && e.getClickCount() == 2
+                    && results.getSelectionModel().getSelectedItem() != null) {
+                bookCandidate(results.getSelectionModel().getSelectedItem(), stage);
+            }
+        });
+
+        HBox buttons = new HBox(10, search, book);
+        VBox layout = new VBox(12, form, buttons, results, info);
+        layout.setPadding(new Insets(15));
+
+        stage.initModality(Modality.APPLICATION_MODAL);
+        stage.setTitle("Find a Room");
+        stage.setScene(new Scene(layout));
+        stage.show();
+    }
+
+    private void bookCandidate(RoomFinder.Candidate candidate, Stage finder) {
+        Room room = allRooms.stream()
+                .filter(r -> r.getName().equals(candidate.roomName()))
+                .findFirst().orElse(null);
+        if (room == null) return;
+        finder.close();
+        openReservationForm(room, candidate);
+    }
+
+    private static int durationMinutes(String label) {
+        return switch (label) {
+            case "30 min" -> 30;
+            case "1.5 hours" -> 90;
+            case "2 hours" -> 120;
+            case "3 hours" -> 180;
+            case "4 hours" -> 240;
+            default -> 60;
+        };
     }
 
     @FXML
     private void refreshRooms() {
-        DataStore.reloadAll();
-        loadRoomCards();
-        statusLabel.setText("Room list refreshed at " +
-                LocalDateTime.now().format(DateTimeFormatter.ofPattern("HH:mm:ss")));
-        statusLabel.setTextFill(Color.GREEN);
+        AsyncDataStore.reloadAll().thenRun(() -> {
+            loadRoomCards();
+            statusLabel.setText("Room list refreshed at " +
+                    LocalDateTime.now().format(DateTimeFormatter.ofPattern("HH:mm:ss")));
+            statusLabel.setTextFill(Color.GREEN);
+        });
     }
 
     public void refreshCards() {
-        DataStore.reloadAll();
-        loadRoomCards();
+        AsyncDataStore.reloadAll().thenRun(this::loadRoomCards);
     }
 
     private void startAutoRefresh() {
+        // Other clients' writes arrive through the change feed, with the shared lists already re-read
+        changeSubscription = ChangeFeed.subscribe(tables -> {
+            if (tables.contains(ChangeFeed.ROOMS)) {
+                loadRoomCards();
+            } else if (tables.contains(ChangeFeed.RESERVATIONS) || tables.contains(ChangeFeed.SERIES)) {
+                refreshRoomStatuses();
+            }
+        });
+        // Bookings start and end as the clock moves; statuses come from memory, not the database
         refreshTask = new TimerTask() {
             public void run() {
-                Platform.runLater(() -> {
-                    DataStore.reloadAll();
-                    loadRoomCards();
-                    System.out.println("[AUTO-REFRESH] Room cards refreshed at " +
-                            LocalDateTime.now().format(DateTimeFormatter.ofPattern("HH:mm:ss")));
-                });
+                Platform.runLater(() -> refreshRoomStatuses());
             }
         };
-        refreshTimer.schedule(refreshTask, 30000, 30000);
+        refreshTimer.schedule(refreshTask, 60000, 60000);
+    }
+
+    private void refreshRoomStatuses() {
+        AsyncDataStore.computeRoomStatusesNow().thenAccept(statuses -> {
+            roomStatuses = statuses;
+            // Rebinds the visible cards' statuses; the filter and the cards stay as they are
+            roomGrid.setStatuses(statuses);
+        });
     }
 
     @FXML
@@ -419,6 +475,7 @@ public class UserController {
 
         Optional<ButtonType> result = alert.showAndWait();
         if (result.isPresent() && result.get() == ButtonType.OK) {
+            if (changeSubscription != null) changeSubscription.run();
             if (refreshTask != null) refreshTask.cancel();
             refreshTimer.cancel();
 
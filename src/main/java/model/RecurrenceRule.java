@@ -0,0 +1,357 @@
+package model;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * When a recurring reservation happens: every N days, every N weeks on some weekdays, or every
+ * N months on the start date's day of the month, from a start date to an optional end date,
+ * minus any skipped dates. Stored as text like "FREQ=WEEKLY;INTERVAL=2;BYDAY=MO,TH".
+ *
+ * Dates are never materialized up front: occursOn() answers for one date in constant time and
+ * occurrences() only walks the window asked for.
+ */
+public class RecurrenceRule {
+
+    public enum Frequency { DAILY, WEEKLY, MONTHLY }
+
+    public static final int MAX_INTERVAL = 52;
+
+    // The Gregorian calendar repeats exactly every 400 years
+    private static final int CALENDAR_CYCLE_DAYS = 146_097;
+    private static final int CALENDAR_CYCLE_MONTHS = 4_800;
+
+    private final Frequency frequency;
+    private final int interval;
+    private final LocalDate startDate;
+    private final LocalDate untilDate;           // inclusive, null for no end
+    private final Set<DayOfWeek> daysOfWeek;     // weekly only
+    private final NavigableSet<LocalDate> exceptions = new TreeSet<>();
+
+    public RecurrenceRule(Frequency frequency, int interval, LocalDate startDate, LocalDate untilDate,
+                          Set<DayOfWeek> daysOfWeek) {
+        if (interval < 1 || interval > MAX_INTERVAL) {
+            throw new IllegalArgumentException("Interval must be between 1 and " + MAX_INTERVAL);
+        }
+        if (untilDate != null && untilDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("Series ends before it starts");
+        }
+        this.frequency = frequency;
+        this.interval = interval;
+        this.startDate = startDate;
+        this.untilDate = untilDate;
+        this.daysOfWeek = daysOfWeek == null || daysOfWeek.isEmpty()
+                ? EnumSet.of(startDate.getDayOfWeek())
+                : EnumSet.copyOf(daysOfWeek);
+    }
+
+    public static RecurrenceRule daily(int interval, LocalDate start, LocalDate until) {
+        return new RecurrenceRule(Frequency.DAILY, interval, start, until, null);
+    }
+
+    public static RecurrenceRule weekly(int interval, LocalDate start, LocalDate until, Set<DayOfWeek> days) {
+        return new RecurrenceRule(Frequency.WEEKLY, interval, start, until, days);
+    }
+
+    public static RecurrenceRule monthly(int interval, LocalDate start, LocalDate until) {
+        return new RecurrenceRule(Frequency.MONTHLY, interval, start, until, null);
+    }
+
+    // Getters
+    public Frequency getFrequency() {
+        return frequency;
+    }
+
+    public int getInterval() {
+        return interval;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public LocalDate getUntilDate() {
+        return untilDate;
+    }
+
+    public Set<DayOfWeek> getDaysOfWeek() {
+        return Collections.unmodifiableSet(daysOfWeek);
+    }
+
+    public NavigableSet<LocalDate> getExceptions() {
+        return Collections.unmodifiableNavigableSet(exceptions);
+    }
+
+    /**
+     * Skip one occurrence, e.g. a stand-up cancelled for a public holiday
+     */
+    public void addException(LocalDate date) {
+        exceptions.add(date);
+    }
+
+    // -------------------- QUERIES --------------------
+    public boolean occursOn(LocalDate date) {
+        return inRange(date) && matchesPattern(date) && !exceptions.contains(date);
+    }
+
+    /**
+     * Occurrence dates in [from, to], jumping straight to the first candidate in the window
+     */
+    public List<LocalDate> occurrences(LocalDate from, LocalDate to) {
+        List<LocalDate> dates = new ArrayList<>();
+        LocalDate lo = from.isBefore(startDate) ? startDate : from;
+        LocalDate hi = untilDate != null && untilDate.isBefore(to) ? untilDate : to;
+        if (lo.isAfter(hi)) return dates;
+
+        switch (frequency) {
+            case DAILY -> {
+                long offset = Math.floorMod(ChronoUnit.DAYS.between(startDate, lo), (long) interval);
+                for (LocalDate d = offset == 0 ? lo : lo.plusDays(interval - offset); !d.isAfter(hi);
+                     d = d.plusDays(interval)) {
+                    if (!exceptions.contains(d)) dates.add(d);
+                }
+            }
+            case WEEKLY -> {
+                LocalDate monday = lo.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                monday = monday.plusWeeks(Math.floorMod(-weekOffset(monday), (long) interval));
+                for (; !monday.isAfter(hi); monday = monday.plusWeeks(interval)) {
+                    for (DayOfWeek day : daysOfWeek) {
+                        LocalDate d = monday.plusDays(day.ordinal());
+                        if (!d.isBefore(lo) && !d.isAfter(hi) && !exceptions.contains(d)) dates.add(d);
+                    }
+                }
+            }
+            case MONTHLY -> {
+                long months = Math.max(0, ChronoUnit.MONTHS.between(startDate.withDayOfMonth(1), lo.withDayOfMonth(1)));
+                months += Math.floorMod(-months, (long) interval);
+                for (LocalDate month = startDate.withDayOfMonth(1).plusMonths(months); !month.isAfter(hi);
+                     month = month.plusMonths(interval)) {
+                    LocalDate d = monthlyDate(month);
+                    if (d != null && !d.isBefore(lo) && !d.isAfter(hi) && !exceptions.contains(d)) dates.add(d);
+                }
+            }
+        }
+        return dates;
+    }
+
+    /**
+     * The first occurrence on or after the date, looked up a year at a time; null if the
+     * series has ended
+     */
+    public LocalDate nextOccurrence(LocalDate from) {
+        LocalDate lo = from.isBefore(startDate) ? startDate : from;
+        LocalDate giveUp = lo.plusYears(400);
+        for (LocalDate window = lo; (untilDate == null || !window.isAfter(untilDate)) && window.isBefore(giveUp);
+             window = window.plusYears(1)) {
+            List<LocalDate> dates = occurrences(window, window.plusYears(1).minusDays(1));
+            if (!dates.isEmpty()) return dates.get(0);
+        }
+        return null;
+    }
+
+    /**
+     * The first date in [from, to] on which both rules occur, or null if there is none.
+     * Worked out from the two periods rather than by listing occurrences: for daily and weekly
+     * rules the shared pattern repeats every lcm(period, period) days, so only that many
+     * candidate days are tested, and each repeating candidate is then stepped past the skipped
+     * dates. A monthly rule is walked month by month, for at most one full calendar cycle.
+     * @param to inclusive; null for no upper bound
+     */
+    public LocalDate firstCommonDate(RecurrenceRule other, LocalDate from, LocalDate to) {
+        LocalDate lo = latest(from, startDate, other.startDate);
+        LocalDate hi = earliest(to, untilDate, other.untilDate);
+        if (hi != null && lo.isAfter(hi)) return null;
+
+        if (frequency != Frequency.MONTHLY && other.frequency != Frequency.MONTHLY) {
+            long cycle = lcm(periodDays(), other.periodDays());
+            LocalDate best = null;
+            for (long i = 0; i < cycle; i++) {
+                LocalDate candidate = lo.plusDays(i);
+                if (hi != null && candidate.isAfter(hi)) break;
+                if (!matchesPattern(candidate) || !other.matchesPattern(candidate)) continue;
+                // Every cycle after this one repeats the match; only skipped dates can hide it
+                while (exceptions.contains(candidate) || other.exceptions.contains(candidate)) {
+                    candidate = candidate.plusDays(cycle);
+                }
+                if ((hi == null || !candidate.isAfter(hi)) && (best == null || candidate.isBefore(best))) {
+                    best = candidate;
+                }
+            }
+            return best;
+        }
+
+        RecurrenceRule monthly = frequency == Frequency.MONTHLY ? this : other;
+        RecurrenceRule partner = monthly == this ? other : this;
+        long cycleMonths = lcm(CALENDAR_CYCLE_MONTHS, monthly.interval);
+        if (partner.frequency != Frequency.MONTHLY) {
+            long period = partner.periodDays();
+            cycleMonths *= period / gcd(period, CALENDAR_CYCLE_DAYS);
+        } else {
+            cycleMonths = lcm(cycleMonths, partner.interval);
+        }
+        // Matches can only be hidden by skipped dates, so one cycle past the last of them is enough
+        LocalDate scanFrom = latest(lo, lastException(), other.lastException());
+        LocalDate scanTo = scanFrom.plusMonths(cycleMonths);
+        if (hi == null || hi.isAfter(scanTo)) hi = scanTo;
+
+        long months = Math.max(0, ChronoUnit.MONTHS.between(monthly.startDate.withDayOfMonth(1), lo.withDayOfMonth(1)));
+        months += Math.floorMod(-months, (long) monthly.interval);
+        for (LocalDate month = monthly.startDate.withDayOfMonth(1).plusMonths(months); !month.isAfter(hi);
+             month = month.plusMonths(monthly.interval)) {
+            LocalDate d = monthly.monthlyDate(month);
+            if (d != null && !d.isBefore(lo) && !d.isAfter(hi) && occursOn(d) && other.occursOn(d)) return d;
+        }
+        return null;
+    }
+
+    private boolean inRange(LocalDate date) {
+        return !date.isBefore(startDate) && (untilDate == null || !date.isAfter(untilDate));
+    }
+
+    // Ignores the date range and exceptions
+    private boolean matchesPattern(LocalDate date) {
+        return switch (frequency) {
+            case DAILY -> Math.floorMod(ChronoUnit.DAYS.between(startDate, date), (long) interval) == 0;
+            case WEEKLY -> daysOfWeek.contains(date.getDayOfWeek()) && weekOffset(date) == 0;
+            case MONTHLY -> date.getDayOfMonth() == startDate.getDayOfMonth()
+                    && Math.floorMod(ChronoUnit.MONTHS.between(startDate.withDayOfMonth(1), date.withDayOfMonth(1)),
+                    (long) interval) == 0;
+        };
+    }
+
+    private long weekOffset(LocalDate date) {
+        LocalDate firstMonday = startDate.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        LocalDate monday = date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        return Math.floorMod(ChronoUnit.WEEKS.between(firstMonday, monday), (long) interval);
+    }
+
+    // The start date's day in the given month, or null when the month is too short (e.g. the 31st)
+    private LocalDate monthlyDate(LocalDate firstOfMonth) {
+        int day = startDate.getDayOfMonth();
+        return day <= firstOfMonth.lengthOfMonth() ? firstOfMonth.withDayOfMonth(day) : null;
+    }
+
+    private long periodDays() {
+        return frequency == Frequency.WEEKLY ? 7L * interval : interval;
+    }
+
+    private LocalDate lastException() {
+        return exceptions.isEmpty() ? null : exceptions.last();
+    }
+
+    // -------------------- STORAGE --------------------
+    /**
+     * The rule part, e.g. "FREQ=MONTHLY;INTERVAL=1"; the dates are stored in their own columns
+     */
+    public String toRuleString() {
+        StringBuilder sb = new StringBuilder("FREQ=").append(frequency).append(";INTERVAL=").append(interval);
+        if (frequency == Frequency.WEEKLY) {
+            sb.append(";BYDAY=");
+            boolean first = true;
+            for (DayOfWeek day : daysOfWeek) {
+                if (!first) sb.append(',');
+                sb.append(day.name(), 0, 2);
+                first = false;
+            }
+        }
+        return sb.toString();
+    }
+
+    public String exceptionsString() {
+        StringBuilder sb = new StringBuilder();
+        for (LocalDate date : exceptions) {
+            if (!sb.isEmpty()) sb.append(',');
+            sb.append(date);
+        }
+        return sb.toString();
+    }
+
+    public static RecurrenceRule parse(String rule, LocalDate startDate, LocalDate untilDate, String exceptions) {
+        Frequency frequency = Frequency.WEEKLY;
+        int interval = 1;
+        Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+        for (String part : rule.split(";")) {
+            String[] kv = part.split("=", 2);
+            if (kv.length != 2) continue;
+            switch (kv[0].trim().toUpperCase(Locale.ROOT)) {
+                case "FREQ" -> frequency = Frequency.valueOf(kv[1].trim().toUpperCase(Locale.ROOT));
+                case "INTERVAL" -> interval = Integer.parseInt(kv[1].trim());
+                case "BYDAY" -> {
+                    for (String code : kv[1].split(",")) {
+                        days.add(dayFromCode(code.trim()));
+                    }
+                }
+                default -> { }
+            }
+        }
+        RecurrenceRule parsed = new RecurrenceRule(frequency, interval, startDate, untilDate, days);
+        if (exceptions != null && !exceptions.isBlank()) {
+            for (String date : exceptions.split(",")) {
+                parsed.addException(LocalDate.parse(date.trim()));
+            }
+        }
+        return parsed;
+    }
+
+    private static DayOfWeek dayFromCode(String code) {
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if (day.name().startsWith(code.toUpperCase(Locale.ROOT))) return day;
+        }
+        throw new IllegalArgumentException("Unknown day '" + code + "'");
+    }
+
+    /**
+     * Short description for the dashboards, e.g. "Every 2 weeks on MON, THU until 2025-12-19"
+     */
+    public String describe() {
+        String unit = switch (frequency) {
+            case DAILY -> interval == 1 ? "Daily" : "Every " + interval + " days";
+            case WEEKLY -> (interval == 1 ? "Weekly" : "Every " + interval + " weeks") + " on "
+                    + daysOfWeek.stream().map(d -> d.name().substring(0, 3)).reduce((a, b) -> a + ", " + b).orElse("");
+            case MONTHLY -> (interval == 1 ? "Monthly" : "Every " + interval + " months")
+                    + " on day " + startDate.getDayOfMonth();
+        };
+        return unit + (untilDate != null ? " until " + untilDate : "");
+    }
+
+    // -------------------- HELPERS --------------------
+    private static LocalDate latest(LocalDate... dates) {
+        LocalDate max = null;
+        for (LocalDate d : dates) {
+            if (d != null && (max == null || d.isAfter(max))) max = d;
+        }
+        return max;
+    }
+
+    private static LocalDate earliest(LocalDate... dates) {
+        LocalDate min = null;
+        for (LocalDate d : dates) {
+            if (d != null && (min == null || d.isBefore(min))) min = d;
+        }
+        return min;
+    }
+
+    private static long gcd(long a, long b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+
+    private static long lcm(long a, long b) {
+        return a / gcd(a, b) * b;
+    }
+
+    @Override
+    public String toString() {
+        return toRuleString() + " from " + startDate + (untilDate != null ? " until " + untilDate : "")
+                + (exceptions.isEmpty() ? "" : " except " + exceptionsString());
+    }
+}
@@ -1,37 +1,71 @@
 package model;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.LocalDate;
 
+/**
+ * One booking. Dates, times and status are parsed once when the row is built and kept as an
+ * epoch day, minutes since midnight and an enum, so sorting and overlap checks never touch
+ * strings; the String getters format them on demand.
+ */
 public class Reservation {
+    private static final int NO_DATE = Integer.MIN_VALUE;
+
+    private int id;            // Database row id (0 until loaded from the database)
     private String username;
     private String roomName;
-    private String date;
-    private String startTime;  // NEW: e.g., "09:00"
-    private String endTime;    // NEW: e.g., "11:00"
-    private String status;     // NEW: "pending" or "approved"
+    private int epochDay;      // LocalDate.toEpochDay(), NO_DATE if none was given
+    private short startMinute; // Minutes since midnight, e.g. 540 for "09:00"
+    private short endMinute;
+    private ReservationStatus status;
+    private int seriesId;      // Id of the recurring series this is an occurrence of, 0 for single bookings
 
     // Legacy constructor (for backwards compatibility)
     public Reservation(String username, String roomName, String date) {
-        this.username = username;
-        this.roomName = roomName;
-        this.date = date;
-        this.startTime = "00:00";
-        this.endTime = "23:59";
-        this.status = "pending";
+        this(username, roomName, date, "00:00", "23:59", "pending");
     }
 
     // NEW: Full constructor with time range and status
     public Reservation(String username, String roomName, String date, String startTime, String endTime, String status) {
         this.username = username;
         this.roomName = roomName;
-        this.date = date;
-        this.startTime = startTime;
-        this.endTime = endTime;
-        this.status = status != null ? status : "pending";
+        this.epochDay = parseDate(date);
+        this.startMinute = (short) parseMinutes(startTime);
+        this.endMinute = (short) parseMinutes(endTime);
+        this.status = ReservationStatus.of(status);
+    }
+
+    // Pre-parsed values, e.g. straight from a result set
+    public Reservation(String username, String roomName, int epochDay, int startMinute, int endMinute,
+                       ReservationStatus status) {
+        this.username = username;
+        this.roomName = roomName;
+        this.epochDay = epochDay;
+        this.startMinute = (short) startMinute;
+        this.endMinute = (short) endMinute;
+        this.status = status != null ? status : ReservationStatus.PENDING;
     }
 
     // Getters and Setters
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public int getSeriesId() {
+        return seriesId;
+    }
+
+    public void setSeriesId(int seriesId) {
+        this.seriesId = seriesId;
+    }
+
+    public boolean isOccurrence() {
+        return seriesId != 0;
+    }
+
     public String getUsername() {
         return username;
     }
@@ -48,85 +82,133 @@ public class Reservation {
         this.roomName = roomName;
     }
 
+    // "yyyy-MM-dd", or null if the reservation has no date
     public String getDate() {
-        return date;
+        return epochDay == NO_DATE ? null : LocalDate.ofEpochDay(epochDay).toString();
     }
 
     public void setDate(String date) {
-        this.date = date;
+        this.epochDay = parseDate(date);
     }
 
+    public LocalDate getLocalDate() {
+        return epochDay == NO_DATE ? null : LocalDate.ofEpochDay(epochDay);
+    }
+
+    public int getEpochDay() {
+        return epochDay;
+    }
+
+    // "HH:mm"
     public String getStartTime() {
-        return startTime;
+        return formatMinutes(startMinute);
     }
 
     public void setStartTime(String startTime) {
-        this.startTime = startTime;
+        this.startMinute = (short) parseMinutes(startTime);
+    }
+
+    public int getStartMinute() {
+        return startMinute;
     }
 
     public String getEndTime() {
-        return endTime;
+        return formatMinutes(endMinute);
     }
 
     public void setEndTime(String endTime) {
-        this.endTime = endTime;
+        this.endMinute = (short) parseMinutes(endTime);
+    }
+
+    public int getEndMinute() {
+        return endMinute;
     }
 
+    // Lower-case label, e.g. "pending"
     public String getStatus() {
-        return status;
+        return status.label();
     }
 
     public void setStatus(String status) {
+        this.status = ReservationStatus.of(status);
+    }
+
+    public ReservationStatus getReservationStatus() {
+        return status;
+    }
+
+    public void setReservationStatus(ReservationStatus status) {
         this.status = status;
     }
 
     // Helper: Get formatted time range display
     public String getTimeRange() {
-        return startTime + " - " + endTime;
+        return getStartTime() + " - " + getEndTime();
     }
 
     // Helper: Get full display string
     public String getFullDateTime() {
-        return date + " " + getTimeRange();
+        return getDate() + " " + getTimeRange();
     }
 
     // Helper: Check if this reservation conflicts with another time range
     public boolean conflictsWith(String checkDate, String checkStartTime, String checkEndTime) {
-        if (!this.date.equals(checkDate)) {
+        return conflictsWith(parseDate(checkDate), parseMinutes(checkStartTime), parseMinutes(checkEndTime));
+    }
+
+    public boolean conflictsWith(int checkEpochDay, int checkStart, int checkEnd) {
+        if (epochDay != checkEpochDay) {
             return false; // Different dates = no conflict
         }
-
-        // Convert times to minutes for easier comparison
-        int thisStart = timeToMinutes(this.startTime);
-        int thisEnd = timeToMinutes(this.endTime);
-        int checkStart = timeToMinutes(checkStartTime);
-        int checkEnd = timeToMinutes(checkEndTime);
-
         // Check for overlap: (StartA < EndB) && (EndA > StartB)
-        return (thisStart < checkEnd) && (thisEnd > checkStart);
-    }
-
-    // Helper: Convert time string "HH:MM" to minutes since midnight
-    private int timeToMinutes(String time) {
-        if (time == null || time.isEmpty()) return 0;
-        String[] parts = time.split(":");
-        try {
-            int hours = Integer.parseInt(parts[0]);
-            int minutes = Integer.parseInt(parts[1]);
-            return hours * 60 + minutes;
-        } catch (Exception e) {
-            return 0;
+        return (startMinute < checkEnd) && (endMinute > checkStart);
+    }
+
+    // -------------------- PARSING --------------------
+    /**
+     * Parse "HH:MM" or "HH:MM:SS" into minutes since midnight without splitting the string.
+     * Malformed input counts as midnight.
+     */
+    public static int parseMinutes(String time) {
+        if (time == null) return 0;
+        int len = time.length();
+        int hours = 0;
+        int i = 0;
+        while (i < len && time.charAt(i) != ':') {
+            int d = time.charAt(i) - '0';
+            if (d < 0 || d > 9) return 0;
+            hours = hours * 10 + d;
+            i++;
         }
+        if (i == 0 || i + 2 >= len) return 0;
+        int m1 = time.charAt(i + 1) - '0';
+        int m2 = time.charAt(i + 2) - '0';
+        if (m1 < 0 || m1 > 9 || m2 < 0 || m2 > 9) return 0;
+        return hours * 60 + m1 * 10 + m2;
+    }
+
+    public static String formatMinutes(int minutes) {
+        int h = minutes / 60;
+        int m = minutes % 60;
+        return new String(new char[] {
+                (char) ('0' + h / 10), (char) ('0' + h % 10), ':', (char) ('0' + m / 10), (char) ('0' + m % 10)
+        });
+    }
+
+    // "yyyy-MM-dd" to an epoch day; throws DateTimeParseException for anything else
+    private static int parseDate(String date) {
+        return date == null ? NO_DATE : (int) LocalDate.parse(date).toEpochDay();
     }
 
     @Override
     public String toString() {
         return "Reservation{" +
-                "username='" + username + '\'' +
+                "id=" + id +
+                ", username='" + username + '\'' +
                 ", roomName='" + roomName + '\'' +
-                ", date='" + date + '\'' +
-                ", startTime='" + startTime + '\'' +
-                ", endTime='" + endTime + '\'' +
+                ", date='" + getDate() + '\'' +
+                ", startTime='" + getStartTime() + '\'' +
+                ", endTime='" + getEndTime() + '\'' +
                 ", status='" + status + '\'' +
                 '}';
     }
@@ -0,0 +1,166 @@
+package model;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A recurring booking stored as one row: the same room and time of day on every date its
+ * RecurrenceRule produces. Individual occurrences are only turned into Reservation objects for
+ * the date window being shown, and conflict checks work on the rule directly.
+ */
+public class ReservationSeries {
+
+    // Same granularity as the reservation_slots table: bookings sharing a 15-minute slot clash
+    private static final int SLOT_MINUTES = 15;
+
+    private int id;            // Database row id (0 until stored)
+    private String username;
+    private String roomName;
+    private String startTime;
+    private String endTime;
+    private String status;
+    private RecurrenceRule rule;
+
+    public ReservationSeries(String username, String roomName, String startTime, String endTime,
+                             String status, RecurrenceRule rule) {
+        this.username = username;
+        this.roomName = roomName;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.status = status != null ? status : "pending";
+        this.rule = rule;
+    }
+
+    // Getters and Setters
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getRoomName() {
+        return roomName;
+    }
+
+    public String getStartTime() {
+        return startTime;
+    }
+
+    public String getEndTime() {
+        return endTime;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public RecurrenceRule getRule() {
+        return rule;
+    }
+
+    public String getTimeRange() {
+        return startTime + " - " + endTime;
+    }
+
+    public String getDescription() {
+        return rule.describe() + ", " + getTimeRange();
+    }
+
+    // -------------------- OCCURRENCES --------------------
+    /**
+     * The occurrences in [from, to] as reservation rows for display; each carries this series' id
+     */
+    public List<Reservation> occurrences(LocalDate from, LocalDate to) {
+        List<Reservation> rows = new ArrayList<>();
+        for (LocalDate date : rule.occurrences(from, to)) {
+            rows.add(occurrenceOn(date));
+        }
+        return rows;
+    }
+
+    /**
+     * The first occurrence on or after the date, or null if the series has ended
+     */
+    public Reservation nextOccurrence(LocalDate from) {
+        LocalDate date = rule.nextOccurrence(from);
+        return date == null ? null : occurrenceOn(date);
+    }
+
+    public Reservation occurrenceOn(LocalDate date) {
+        Reservation r = new Reservation(username, roomName, (int) date.toEpochDay(),
+                minutes(startTime), minutes(endTime), ReservationStatus.of(status));
+        r.setSeriesId(id);
+        return r;
+    }
+
+    /**
+     * True if an occurrence of this series shares a slot with the given booking
+     */
+    public boolean conflictsWith(String checkRoom, String checkDate, String checkStart, String checkEnd) {
+        return roomName.equals(checkRoom)
+                && overlapsTime(checkStart, checkEnd)
+                && rule.occursOn(LocalDate.parse(checkDate));
+    }
+
+    public boolean conflictsWith(Reservation r) {
+        return roomName.equals(r.getRoomName())
+                && overlapsMinutes(r.getStartMinute(), r.getEndMinute())
+                && rule.occursOn(r.getLocalDate());
+    }
+
+    /**
+     * The first date on which both series book the same slot, or null if they never clash
+     */
+    public LocalDate firstConflictWith(ReservationSeries other) {
+        if (!roomName.equals(other.roomName) || !overlapsTime(other.startTime, other.endTime)) return null;
+        return rule.firstCommonDate(other.rule, rule.getStartDate(), null);
+    }
+
+    /**
+     * True if an occurrence is in progress at the given moment
+     */
+    public boolean isRunningAt(LocalDate date, LocalTime time) {
+        int minute = time.getHour() * 60 + time.getMinute();
+        return minutes(startTime) <= minute && minute < minutes(endTime) && rule.occursOn(date);
+    }
+
+    public boolean overlapsTime(String otherStart, String otherEnd) {
+        return overlapsMinutes(minutes(otherStart), minutes(otherEnd));
+    }
+
+    private boolean overlapsMinutes(int otherStart, int otherEnd) {
+        int first = minutes(startTime) / SLOT_MINUTES;
+        int last = (minutes(endTime) + SLOT_MINUTES - 1) / SLOT_MINUTES;
+        int otherFirst = otherStart / SLOT_MINUTES;
+        int otherLast = (otherEnd + SLOT_MINUTES - 1) / SLOT_MINUTES;
+        return first < otherLast && otherFirst < last;
+    }
+
+    private static int minutes(String time) {
+        return Reservation.parseMinutes(time);
+    }
+
+    @Override
+    public String toString() {
+        return "ReservationSeries{" +
+                "id=" + id +
+                ", username='" + username + '\'' +
+                ", roomName='" + roomName + '\'' +
+                ", time='" + getTimeRange() + '\'' +
+                ", status='" + status + '\'' +
+                ", rule='" + rule + '\'' +
+                '}';
+    }
+}
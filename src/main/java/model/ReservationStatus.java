@@ -0,0 +1,48 @@
+package model;
+
+/**
+ * Lifecycle of a reservation. The database keeps the lower-case label in a VARCHAR column.
+ */
+public enum ReservationStatus {
+    PENDING,
+    APPROVED,
+    RESERVED,   // What the admin context menu sets; treated like approved
+    REJECTED;
+
+    private static final ReservationStatus[] VALUES = values();
+
+    private final String label = name().toLowerCase();
+
+    public String label() {
+        return label;
+    }
+
+    /**
+     * Pending, approved and reserved bookings hold their time slots; rejected ones release them
+     */
+    public boolean holdsSlot() {
+        return this != REJECTED;
+    }
+
+    public boolean isApproved() {
+        return this == APPROVED || this == RESERVED;
+    }
+
+    /**
+     * Case-insensitive lookup of a stored or typed status. Null or blank means a new booking
+     * (pending), which is also how the dashboards show a blank status; any other value the app
+     * never writes counts as inactive.
+     */
+    public static ReservationStatus of(String status) {
+        if (status == null || status.isBlank()) return PENDING;
+        for (ReservationStatus s : VALUES) {
+            if (s.label.equalsIgnoreCase(status)) return s;
+        }
+        return REJECTED;
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
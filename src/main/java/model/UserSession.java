@@ -0,0 +1,50 @@
+package model;
+
+import java.time.LocalDateTime;
+
+/**
+ * The signed-in user, created once at login and handed to the dashboards, so nothing has to
+ * look the user or their role up again
+ */
+public class UserSession {
+    private final User user;
+    private final LocalDateTime signedInAt;
+
+    public UserSession(User user) {
+        this.user = user;
+        this.signedInAt = LocalDateTime.now();
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public String getUsername() {
+        return user.getUsername();
+    }
+
+    public String getEmail() {
+        return user.getEmail();
+    }
+
+    public String getRole() {
+        return user.getRole();
+    }
+
+    public boolean isAdmin() {
+        return "admin".equalsIgnoreCase(user.getRole());
+    }
+
+    public LocalDateTime getSignedInAt() {
+        return signedInAt;
+    }
+
+    @Override
+    public String toString() {
+        return "UserSession{" +
+                "username='" + getUsername() + '\'' +
+                ", role='" + getRole() + '\'' +
+                ", signedInAt=" + signedInAt +
+                '}';
+    }
+}
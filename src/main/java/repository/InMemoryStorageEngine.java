@@ -0,0 +1,867 @@
+package repository;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import model.RecurrenceRule;
+import model.Reservation;
+import model.ReservationStatus;
+import model.ReservationSeries;
+import model.Room;
+import model.User;
+import util.ChangeFeed;
+import util.DataStore;
+import util.EmailService;
+import util.PasswordHasher;
+import util.ReservationIndex;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Storage engine that keeps everything in memory, with the same semantics as the MySQL one:
+ * unique emails and room names, 15-minute slot admission, cascading room deletes and the same
+ * notification emails. Nothing survives a restart.
+ * Reservation writes lock one stripe chosen by room name, so bookings for different rooms never
+ * contend; reads go to concurrent structures and never lock.
+ */
+public class InMemoryStorageEngine implements StorageEngine {
+
+    private static final int STRIPES = 32; // power of two
+    private static final int SLOT_MINUTES = 15;
+
+    // Same order as the MySQL queries: date, start time and id, newest first
+    private static final Comparator<Reservation> TABLE_ORDER = Comparator
+            .comparingInt(Reservation::getEpochDay)
+            .thenComparingInt(Reservation::getStartMinute)
+            .thenComparingInt(Reservation::getId)
+            .reversed();
+
+    private final Lock[] stripes = new Lock[STRIPES];
+    private final AtomicInteger nextId = new AtomicInteger();
+    private volatile boolean initialized;
+
+    // Users and rooms keep a creation sequence number, the equivalent of ORDER BY id
+    private final ConcurrentHashMap<String, Row<User>> usersByEmail = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Row<Room>> roomsByName = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<Integer, Reservation> reservationsById = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<Reservation> reservationsInOrder = new ConcurrentSkipListSet<>(TABLE_ORDER);
+    // room -> date -> reservations; each room's map is only touched under that room's stripe
+    private final ConcurrentHashMap<String, Map<Integer, List<Reservation>>> reservationsByRoom = new ConcurrentHashMap<>();
+    private final ReservationIndex reservationIndex = new ReservationIndex();
+    // Series are written under their room's stripe, like reservations
+    private final ConcurrentHashMap<Integer, ReservationSeries> seriesById = new ConcurrentHashMap<>();
+
+    // Change counters for the change feed, bumped by every write
+    private final ConcurrentHashMap<String, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    private final ObservableList<User> userList = FXCollections.observableArrayList();
+    private final ObservableList<Room> roomList = FXCollections.observableArrayList();
+    private final ObservableList<Reservation> reservationList = FXCollections.observableArrayList();
+
+    public InMemoryStorageEngine() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "memory";
+    }
+
+    @Override
+    public synchronized void initialize() {
+        if (initialized) return;
+        initialized = true;
+        // Same sample data as the MySQL engine, without the welcome emails
+        for (String name : new String[]{"Conference Room A", "Conference Room B", "Conference Room C",
+                "Meeting Room 1", "Meeting Room 2"}) {
+            roomsByName.putIfAbsent(name, new Row<>(nextId.incrementAndGet(), new Room(name, "Available", null)));
+        }
+        putUser(new User("admin", "admin@example.com", PasswordHasher.hash("admin123"), "admin"));
+        putUser(new User("john_doe", "john@example.com", PasswordHasher.hash("password123"), "user"));
+        putUser(new User("jane_smith", "jane@example.com", PasswordHasher.hash("password123"), "user"));
+        System.out.println("[STORAGE] In-memory storage initialized with sample rooms and users");
+    }
+
+    @Override
+    public void reloadAll() {
+        publishUsers();
+        publishRooms();
+        publishReservations();
+    }
+
+    @Override
+    public Map<String, Long> tableVersions() {
+        Map<String, Long> snapshot = new HashMap<>();
+        versions.forEach((table, version) -> snapshot.put(table, version.get()));
+        return snapshot;
+    }
+
+    @Override
+    public void refresh(Set<String> tables) {
+        // The shared lists are republished by every write already
+    }
+
+    @Override
+    public void saveAll() {
+        System.out.println("[STORAGE] In-memory storage has nothing to persist");
+    }
+
+    @Override
+    public void close() {
+        System.out.println("[STORAGE] In-memory storage closed: " + usersByEmail.size() + " users, "
+                + roomsByName.size() + " rooms, " + reservationsById.size() + " reservations");
+    }
+
+    // -------------------- USERS --------------------
+    @Override
+    public ObservableList<User> getUsers() {
+        publishUsers();
+        return userList;
+    }
+
+    @Override
+    public boolean validateUser(String email, String password) {
+        Row<User> row = usersByEmail.get(email);
+        return PasswordHasher.verify(password, row != null ? row.value.getPassword() : null);
+    }
+
+    @Override
+    public boolean userExists(String email) {
+        return usersByEmail.containsKey(email);
+    }
+
+    @Override
+    public boolean isAdmin(String email) {
+        Row<User> row = usersByEmail.get(email);
+        return row != null && "admin".equalsIgnoreCase(row.value.getRole());
+    }
+
+    @Override
+    public User getUserByEmail(String email) {
+        Row<User> row = usersByEmail.get(email);
+        return row == null ? null : copy(row.value);
+    }
+
+    @Override
+    public User loadUserByEmail(String email) {
+        return getUserByEmail(email); // nothing is cached here
+    }
+
+    @Override
+    public User getUserByUsername(String username) {
+        Row<User> found = null;
+        for (Row<User> row : usersByEmail.values()) {
+            if (Objects.equals(row.value.getUsername(), username) && (found == null || row.id < found.id)) {
+                found = row;
+            }
+        }
+        return found == null ? null : copy(found.value);
+    }
+
+    @Override
+    public void addUser(String username, String email, String password, String role) {
+        User user = new User(username, email, password, role);
+        if (!putUser(user)) return;
+        publishUsers();
+        changed(ChangeFeed.USERS);
+
+        if ("user".equalsIgnoreCase(role)) {
+            EmailService.getInstance().sendWelcomeEmail(copy(user));
+        }
+    }
+
+    private boolean putUser(User user) {
+        return usersByEmail.putIfAbsent(user.getEmail(), new Row<>(nextId.incrementAndGet(), copy(user))) == null;
+    }
+
+    @Override
+    public boolean replacePassword(String email, String current, String replacement) {
+        boolean[] replaced = {false};
+        usersByEmail.computeIfPresent(email, (key, row) -> {
+            if (!Objects.equals(row.value.getPassword(), current)) return row;
+            User user = copy(row.value);
+            user.setPassword(replacement);
+            replaced[0] = true;
+            return new Row<>(row.id, user);
+        });
+        if (replaced[0]) changed(ChangeFeed.USERS);
+        return replaced[0];
+    }
+
+    @Override
+    public void updateUser(User user) {
+        usersByEmail.computeIfPresent(user.getEmail(), (email, row) -> new Row<>(row.id, copy(user)));
+        publishUsers();
+        changed(ChangeFeed.USERS);
+    }
+
+    @Override
+    public void deleteUser(User user) {
+        if (usersByEmail.remove(user.getEmail()) != null) {
+            System.out.println("[STORAGE] User deleted: " + user.getEmail());
+            changed(ChangeFeed.USERS);
+        }
+        publishUsers();
+    }
+
+    // -------------------- ROOMS --------------------
+    @Override
+    public ObservableList<Room> getRooms() {
+        publishRooms();
+        return roomList;
+    }
+
+    @Override
+    public Room getRoomByName(String name) {
+        Row<Room> row = roomsByName.get(name);
+        return row == null ? null : copy(row.value);
+    }
+
+    @Override
+    public void addRoom(Room room) {
+        if (roomsByName.putIfAbsent(room.getName(), new Row<>(nextId.incrementAndGet(), copy(room))) != null) {
+            System.err.println("[STORAGE ERROR] Failed to add room: '" + room.getName() + "' already exists");
+            return;
+        }
+        publishRooms();
+        changed(ChangeFeed.ROOMS);
+    }
+
+    @Override
+    public void updateRoom(Room room) {
+        roomsByName.computeIfPresent(room.getName(), (name, row) -> new Row<>(row.id, copy(room)));
+        publishRooms();
+        changed(ChangeFeed.ROOMS);
+    }
+
+    @Override
+    public void saveRooms() {
+        boolean[] changedAny = {false};
+        for (Room room : new ArrayList<>(roomList)) {
+            roomsByName.computeIfPresent(room.getName(), (name, row) -> {
+                if (Objects.equals(row.value.getStatus(), room.getStatus())
+                        && Objects.equals(row.value.getImagePath(), room.getImagePath())) {
+                    return row;
+                }
+                changedAny[0] = true;
+                return new Row<>(row.id, copy(room));
+            });
+        }
+        // Unchanged saves (the admin auto-backup) don't make other dashboards re-read rooms
+        if (changedAny[0]) changed(ChangeFeed.ROOMS);
+        System.out.println("[STORAGE] Rooms saved");
+    }
+
+    @Override
+    public void removeRoom(Room room) {
+        if (roomsByName.remove(room.getName()) == null) return;
+
+        // Cascade to the room's reservations, like the foreign key does in MySQL
+        Lock lock = stripe(room.getName());
+        lock.lock();
+        try {
+            Map<Integer, List<Reservation>> days = reservationsByRoom.remove(room.getName());
+            if (days != null) {
+                for (List<Reservation> day : days.values()) {
+                    for (Reservation r : day) {
+                        forget(r);
+                    }
+                }
+            }
+            seriesById.values().removeIf(s -> s.getRoomName().equals(room.getName()));
+        } finally {
+            lock.unlock();
+        }
+        publishRooms();
+        publishReservations();
+        changed(ChangeFeed.ROOMS, ChangeFeed.RESERVATIONS, ChangeFeed.SERIES);
+    }
+
+    @Override
+    public String computeRoomStatusNow(String roomName) {
+        LocalDate today = LocalDate.now();
+        LocalTime now = LocalTime.now();
+        int minute = now.getHour() * 60 + now.getMinute();
+        int status = reservationIndex.statusFor(roomName, (int) today.toEpochDay(), minute, minute + 1);
+        for (ReservationSeries s : seriesById.values()) {
+            if (status == ReservationIndex.APPROVED) break;
+            if (s.getRoomName().equals(roomName) && holdsSlots(s.getStatus()) && s.isRunningAt(today, now)) {
+                status = ReservationStatus.of(s.getStatus()).isApproved() ? ReservationIndex.APPROVED : ReservationIndex.PENDING;
+            }
+        }
+        return switch (status) {
+            case ReservationIndex.APPROVED -> "Occupied";
+            case ReservationIndex.PENDING -> "Pending";
+            default -> "Available";
+        };
+    }
+
+    @Override
+    public Map<String, String> computeRoomStatusesNow() {
+        Map<String, String> statuses = new HashMap<>();
+        for (String roomName : roomsByName.keySet()) {
+            String status = computeRoomStatusNow(roomName);
+            if (!"Available".equals(status)) statuses.put(roomName, status);
+        }
+        return statuses;
+    }
+
+    // -------------------- RESERVATIONS --------------------
+    @Override
+    public ObservableList<Reservation> getReservations() {
+        publishReservations();
+        return reservationList;
+    }
+
+    @Override
+    public List<Reservation> getReservationsByUser(String username) {
+        List<Reservation> result = new ArrayList<>();
+        for (Reservation r : reservationsInOrder) {
+            if (Objects.equals(r.getUsername(), username)) result.add(r);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean addReservation(Reservation reservation) {
+        Reservation stored = admit(reservation);
+        if (stored == null) return false;
+        publishReservations();
+        changed(ChangeFeed.RESERVATIONS);
+
+        User user = getUserByUsername(stored.getUsername());
+        if (user != null) {
+            EmailService.getInstance().sendReservationConfirmation(user, stored);
+        }
+        return true;
+    }
+
+    @Override
+    public List<Reservation> addReservations(List<Reservation> batch, boolean notify) {
+        List<Reservation> stored = new ArrayList<>(batch.size());
+        for (Reservation reservation : batch) {
+            Reservation admitted = admit(reservation);
+            if (admitted == null) continue;
+            reservation.setId(admitted.getId());
+            stored.add(admitted);
+        }
+        if (!stored.isEmpty()) changed(ChangeFeed.RESERVATIONS);
+
+        if (notify) {
+            Map<String, User> users = new HashMap<>();
+            for (Reservation r : stored) {
+                User user = users.computeIfAbsent(r.getUsername(), this::getUserByUsername);
+                if (user != null) {
+                    EmailService.getInstance().sendReservationConfirmation(user, r);
+                }
+            }
+        }
+        return stored;
+    }
+
+    /**
+     * Store the reservation if its room exists and its slots are free
+     * @return the stored copy, or null if it was refused
+     */
+    private Reservation admit(Reservation reservation) {
+        Reservation stored = normalized(reservation, reservation.getStatus());
+        stored.setId(nextId.incrementAndGet());
+
+        Lock lock = stripe(stored.getRoomName());
+        lock.lock();
+        try {
+            // Checked under the stripe so a concurrent removeRoom either sees this row or we see it gone
+            if (!roomsByName.containsKey(stored.getRoomName())) {
+                System.err.println("[STORAGE ERROR] Failed to add reservation: no room '" + stored.getRoomName() + "'");
+                return null;
+            }
+            if (stored.getReservationStatus().holdsSlot() && (slotTaken(stored, 0) || seriesHolds(stored))) {
+                System.out.println("[STORAGE] Slot already taken: " + stored.getRoomName() + " "
+                        + stored.getDate() + " " + stored.getTimeRange());
+                return null;
+            }
+            day(stored.getRoomName(), stored.getEpochDay()).add(stored);
+            remember(stored);
+        } finally {
+            lock.unlock();
+        }
+        return stored;
+    }
+
+    @Override
+    public boolean updateReservationStatus(Reservation reservation, String newStatus) {
+        int id = resolveId(reservation);
+        if (id == 0 || updateReservationStatuses(List.of(id), newStatus).isEmpty()) return false;
+        reservation.setStatus(newStatus);
+        return true;
+    }
+
+    @Override
+    public List<Reservation> updateReservationStatuses(List<Integer> ids, String newStatus) {
+        List<Reservation> updated = new ArrayList<>();
+        for (int id : ids) {
+            Reservation current = reservationsById.get(id);
+            if (current == null) continue;
+            Lock lock = stripe(current.getRoomName());
+            lock.lock();
+            try {
+                Reservation old = reservationsById.get(id); // may have changed before we got the lock
+                if (old == null) continue;
+                // Re-activating must not overlap a booking that took the slot meanwhile
+                if (!old.getReservationStatus().holdsSlot() && holdsSlots(newStatus)
+                        && (slotTaken(old, old.getId()) || seriesHolds(old))) {
+                    System.out.println("[STORAGE] Cannot set status '" + newStatus + "' on reservation #"
+                            + id + ": time slot is already taken");
+                    continue;
+                }
+                List<Reservation> day = day(old.getRoomName(), old.getEpochDay());
+                Reservation replacement = normalized(old, newStatus);
+                replacement.setId(id);
+                day.set(day.indexOf(old), replacement);
+                forget(old);
+                remember(replacement);
+                Reservation result = normalized(replacement, newStatus); // callers get a copy
+                result.setId(id);
+                updated.add(result);
+            } finally {
+                lock.unlock();
+            }
+        }
+        if (updated.isEmpty()) return updated;
+        publishReservations();
+        changed(ChangeFeed.RESERVATIONS);
+
+        for (Reservation r : updated) {
+            User user = getUserByUsername(r.getUsername());
+            if (user == null) continue;
+            if ("approved".equalsIgnoreCase(newStatus) || "reserved".equalsIgnoreCase(newStatus)) {
+                EmailService.getInstance().sendReservationApproval(user, r);
+            } else if ("rejected".equalsIgnoreCase(newStatus)) {
+                EmailService.getInstance().sendReservationRejection(user, r);
+            }
+        }
+        return updated;
+    }
+
+    @Override
+    public void deleteReservation(Reservation reservation) {
+        int id = resolveId(reservation);
+        if (id != 0) deleteReservations(List.of(id));
+    }
+
+    @Override
+    public List<Reservation> deleteReservations(List<Integer> ids) {
+        List<Reservation> deleted = new ArrayList<>();
+        for (int id : ids) {
+            Reservation current = reservationsById.get(id);
+            if (current == null) continue;
+            Lock lock = stripe(current.getRoomName());
+            lock.lock();
+            try {
+                Reservation old = reservationsById.get(id);
+                if (old == null) continue;
+                day(old.getRoomName(), old.getEpochDay()).remove(old);
+                forget(old);
+                deleted.add(old);
+            } finally {
+                lock.unlock();
+            }
+        }
+        if (deleted.isEmpty()) return deleted;
+        publishReservations();
+        changed(ChangeFeed.RESERVATIONS);
+
+        for (Reservation r : deleted) {
+            User user = getUserByUsername(r.getUsername());
+            if (user != null) {
+                EmailService.getInstance().sendReservationCancellation(user, r);
+            }
+        }
+        return deleted;
+    }
+
+    @Override
+    public boolean hasConflict(String roomName, String date, String startTime, String endTime) {
+        if (indexedStatus(roomName, date, startTime, endTime) == ReservationIndex.APPROVED) return true;
+        for (ReservationSeries s : seriesById.values()) {
+            if (ReservationStatus.of(s.getStatus()).isApproved()
+                    && s.conflictsWith(roomName, date, startTime, endTime)) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public String getRoomStatusForTime(String roomName, String date, String startTime, String endTime) {
+        int status = indexedStatus(roomName, date, startTime, endTime);
+        for (ReservationSeries s : seriesById.values()) {
+            if (status == ReservationIndex.APPROVED) break;
+            if (holdsSlots(s.getStatus()) && s.conflictsWith(roomName, date, startTime, endTime)) {
+                status = ReservationStatus.of(s.getStatus()).isApproved() ? ReservationIndex.APPROVED : ReservationIndex.PENDING;
+            }
+        }
+        return switch (status) {
+            case ReservationIndex.APPROVED -> "Approved";
+            case ReservationIndex.PENDING -> "Pending";
+            default -> "Available";
+        };
+    }
+
+    @Override
+    public String findFreeStart(String roomName, String date, String from, String to, int minutes, int step) {
+        int day = (int) LocalDate.parse(date).toEpochDay();
+        int start = ReservationIndex.parseMinutes(from);
+        int end = ReservationIndex.parseMinutes(to);
+        while (true) {
+            int free = reservationIndex.firstFreeStart(roomName, day, start, end, minutes, step);
+            if (free < 0) return null; // none left, or a past day the index no longer holds
+            String freeStart = Reservation.formatMinutes(free);
+            String freeEnd = Reservation.formatMinutes(free + minutes);
+            boolean seriesBusy = false;
+            for (ReservationSeries s : seriesById.values()) {
+                if (holdsSlots(s.getStatus()) && s.conflictsWith(roomName, date, freeStart, freeEnd)) {
+                    seriesBusy = true;
+                    break;
+                }
+            }
+            if (!seriesBusy) return freeStart;
+            start = free + Math.max(step, 1);
+        }
+    }
+
+    // The index covers recent and future days; evicted (older) ones are scanned under the room's stripe
+    private int indexedStatus(String roomName, String date, String startTime, String endTime) {
+        int status = reservationIndex.statusFor(roomName, date, startTime, endTime);
+        if (status != ReservationIndex.UNKNOWN) return status;
+
+        int day = (int) LocalDate.parse(date).toEpochDay();
+        int start = ReservationIndex.parseMinutes(startTime);
+        int end = ReservationIndex.parseMinutes(endTime);
+        status = ReservationIndex.NONE;
+        Lock lock = stripe(roomName);
+        lock.lock();
+        try {
+            for (Reservation r : day(roomName, day)) {
+                if (!r.conflictsWith(day, start, end)) continue;
+                if (r.getReservationStatus().isApproved()) return ReservationIndex.APPROVED;
+                if (r.getReservationStatus() == ReservationStatus.PENDING) status = ReservationIndex.PENDING;
+            }
+        } finally {
+            lock.unlock();
+        }
+        return status;
+    }
+
+    @Override
+    public List<Reservation> getReservationPageAfter(Reservation after, int limit) {
+        return take(after == null ? reservationsInOrder : reservationsInOrder.tailSet(after, false), limit);
+    }
+
+    @Override
+    public List<Reservation> getReservationPageFrom(Reservation first, int limit) {
+        return take(first == null ? reservationsInOrder : reservationsInOrder.tailSet(first, true), limit);
+    }
+
+    @Override
+    public List<Reservation> getReservationPageBefore(Reservation before, int limit) {
+        List<Reservation> page = take(reservationsInOrder.headSet(before, false).descendingSet(), limit);
+        Collections.reverse(page);
+        return page;
+    }
+
+    // -------------------- SERIES --------------------
+    @Override
+    public boolean addSeries(ReservationSeries series) {
+        ReservationSeries stored = copy(series);
+        stored.setId(nextId.incrementAndGet());
+
+        Lock lock = stripe(stored.getRoomName());
+        lock.lock();
+        try {
+            if (!roomsByName.containsKey(stored.getRoomName())) {
+                System.err.println("[STORAGE ERROR] Failed to add series: no room '" + stored.getRoomName() + "'");
+                return false;
+            }
+            if (holdsSlots(stored.getStatus()) && seriesClashes(stored)) return false;
+            seriesById.put(stored.getId(), stored);
+        } finally {
+            lock.unlock();
+        }
+        series.setId(stored.getId());
+        changed(ChangeFeed.SERIES);
+
+        User user = getUserByUsername(stored.getUsername());
+        Reservation first = stored.nextOccurrence(stored.getRule().getStartDate());
+        if (user != null && first != null) {
+            EmailService.getInstance().sendReservationConfirmation(user, first);
+        }
+        return true;
+    }
+
+    @Override
+    public List<ReservationSeries> getAllSeries() {
+        List<ReservationSeries> list = new ArrayList<>();
+        for (ReservationSeries s : seriesById.values()) {
+            list.add(copy(s));
+        }
+        list.sort(Comparator.comparing((ReservationSeries s) -> s.getRule().getStartDate())
+                .thenComparingInt(ReservationSeries::getId).reversed());
+        return list;
+    }
+
+    @Override
+    public List<ReservationSeries> getSeriesByUser(String username) {
+        List<ReservationSeries> list = new ArrayList<>();
+        for (ReservationSeries s : seriesById.values()) {
+            if (Objects.equals(s.getUsername(), username)) list.add(copy(s));
+        }
+        list.sort(Comparator.comparing((ReservationSeries s) -> s.getRule().getStartDate())
+                .thenComparingInt(ReservationSeries::getId));
+        return list;
+    }
+
+    @Override
+    public List<Reservation> getOccurrencesByUser(String username, LocalDate from, LocalDate to) {
+        List<Reservation> rows = new ArrayList<>();
+        for (ReservationSeries s : getSeriesByUser(username)) {
+            rows.addAll(s.occurrences(from, to));
+        }
+        return rows;
+    }
+
+    @Override
+    public boolean updateSeriesStatus(ReservationSeries series, String newStatus) {
+        Lock lock = stripe(series.getRoomName());
+        lock.lock();
+        try {
+            ReservationSeries current = seriesById.get(series.getId());
+            if (current == null) return false;
+            if (!holdsSlots(current.getStatus()) && holdsSlots(newStatus) && seriesClashes(current)) return false;
+            current.setStatus(newStatus);
+        } finally {
+            lock.unlock();
+        }
+        series.setStatus(newStatus);
+        changed(ChangeFeed.SERIES);
+
+        User user = getUserByUsername(series.getUsername());
+        Reservation next = series.nextOccurrence(LocalDate.now());
+        if (user != null && next != null) {
+            if ("approved".equalsIgnoreCase(newStatus) || "reserved".equalsIgnoreCase(newStatus)) {
+                EmailService.getInstance().sendReservationApproval(user, next);
+            } else if ("rejected".equalsIgnoreCase(newStatus)) {
+                EmailService.getInstance().sendReservationRejection(user, next);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void skipOccurrence(ReservationSeries series, LocalDate date) {
+        Lock lock = stripe(series.getRoomName());
+        lock.lock();
+        try {
+            ReservationSeries current = seriesById.get(series.getId());
+            if (current != null) current.getRule().addException(date);
+        } finally {
+            lock.unlock();
+        }
+        series.getRule().addException(date);
+        changed(ChangeFeed.SERIES);
+    }
+
+    @Override
+    public void deleteSeries(ReservationSeries series) {
+        Lock lock = stripe(series.getRoomName());
+        lock.lock();
+        try {
+            seriesById.remove(series.getId());
+        } finally {
+            lock.unlock();
+        }
+        changed(ChangeFeed.SERIES);
+    }
+
+    // Caller holds the room's stripe. Same checks as the MySQL engine, all on the rule.
+    private boolean seriesClashes(ReservationSeries series) {
+        for (ReservationSeries other : seriesById.values()) {
+            if (other.getId() == series.getId() || !holdsSlots(other.getStatus())) continue;
+            LocalDate clash = series.firstConflictWith(other);
+            if (clash != null) {
+                System.out.println("[STORAGE] Series clashes with series #" + other.getId() + " on " + clash);
+                return true;
+            }
+        }
+        Map<Integer, List<Reservation>> days = reservationsByRoom.getOrDefault(series.getRoomName(), Map.of());
+        for (List<Reservation> day : days.values()) {
+            for (Reservation r : day) {
+                if (r.getReservationStatus().holdsSlot() && series.conflictsWith(r)) {
+                    System.out.println("[STORAGE] Series clashes with reservation #" + r.getId() + " on " + r.getDate());
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // Caller holds the room's stripe
+    private boolean seriesHolds(Reservation r) {
+        for (ReservationSeries s : seriesById.values()) {
+            if (holdsSlots(s.getStatus()) && s.conflictsWith(r)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<Reservation> take(NavigableSet<Reservation> set, int limit) {
+        List<Reservation> page = new ArrayList<>(Math.min(limit, 256));
+        for (Reservation r : set) {
+            if (page.size() >= limit) break;
+            page.add(r);
+        }
+        return page;
+    }
+
+    // -------------------- HELPERS --------------------
+    private Lock stripe(String roomName) {
+        int h = roomName == null ? 0 : roomName.hashCode();
+        return stripes[(h ^ (h >>> 16)) & (STRIPES - 1)];
+    }
+
+    // Caller holds the room's stripe
+    private List<Reservation> day(String roomName, int epochDay) {
+        return reservationsByRoom.computeIfAbsent(roomName, k -> new HashMap<>())
+                .computeIfAbsent(epochDay, k -> new ArrayList<>());
+    }
+
+    // Same rule as the reservation_slots primary key: any shared 15-minute slot is a clash
+    private boolean slotTaken(Reservation candidate, int ignoreId) {
+        int first = candidate.getStartMinute() / SLOT_MINUTES;
+        int last = (candidate.getEndMinute() + SLOT_MINUTES - 1) / SLOT_MINUTES;
+        for (Reservation r : day(candidate.getRoomName(), candidate.getEpochDay())) {
+            if (r.getId() == ignoreId || !r.getReservationStatus().holdsSlot()) continue;
+            int rFirst = r.getStartMinute() / SLOT_MINUTES;
+            int rLast = (r.getEndMinute() + SLOT_MINUTES - 1) / SLOT_MINUTES;
+            if (first < rLast && rFirst < last) return true;
+        }
+        return false;
+    }
+
+    private static boolean holdsSlots(String status) {
+        return ReservationStatus.of(status).holdsSlot();
+    }
+
+    private void remember(Reservation r) {
+        reservationsById.put(r.getId(), r);
+        reservationsInOrder.add(r);
+        reservationIndex.put(r);
+    }
+
+    private void forget(Reservation r) {
+        reservationsById.remove(r.getId());
+        reservationsInOrder.remove(r);
+        reservationIndex.remove(r.getId());
+    }
+
+    private static boolean sameKey(Reservation a, Reservation b) {
+        return Objects.equals(a.getUsername(), b.getUsername())
+                && Objects.equals(a.getRoomName(), b.getRoomName())
+                && a.getEpochDay() == b.getEpochDay()
+                && a.getStartMinute() == b.getStartMinute()
+                && a.getEndMinute() == b.getEndMinute();
+    }
+
+    // Stored rows carry their id; match on the booking fields only for ones built by hand
+    private int resolveId(Reservation reservation) {
+        if (reservation.getId() != 0) return reservation.getId();
+        Lock lock = stripe(reservation.getRoomName());
+        lock.lock();
+        try {
+            for (Reservation r : day(reservation.getRoomName(), reservation.getEpochDay())) {
+                if (sameKey(r, reservation)) return r.getId();
+            }
+        } finally {
+            lock.unlock();
+        }
+        return 0;
+    }
+
+    // A stored copy, so callers can't change rows behind the indexes
+    private static Reservation normalized(Reservation r, String status) {
+        return new Reservation(r.getUsername(), r.getRoomName(), r.getEpochDay(),
+                r.getStartMinute(), r.getEndMinute(), ReservationStatus.of(status));
+    }
+
+    private static String normalizeTime(String time) {
+        if (time == null || time.isBlank()) return "00:00:00";
+        String t = time.trim();
+        return t.length() == 5 ? t + ":00" : t;
+    }
+
+    private static User copy(User user) {
+        return new User(user.getUsername(), user.getEmail(), user.getPassword(), user.getRole());
+    }
+
+    private static Room copy(Room room) {
+        return new Room(room.getName(), room.getStatus(), room.getImagePath());
+    }
+
+    private static ReservationSeries copy(ReservationSeries series) {
+        RecurrenceRule rule = series.getRule();
+        ReservationSeries copy = new ReservationSeries(series.getUsername(), series.getRoomName(),
+                normalizeTime(series.getStartTime()), normalizeTime(series.getEndTime()), series.getStatus(),
+                RecurrenceRule.parse(rule.toRuleString(), rule.getStartDate(), rule.getUntilDate(),
+                        rule.exceptionsString()));
+        copy.setId(series.getId());
+        return copy;
+    }
+
+    // -------------------- SHARED LISTS --------------------
+    private void changed(String... tables) {
+        for (String table : tables) {
+            versions.computeIfAbsent(table, k -> new AtomicLong()).incrementAndGet();
+        }
+    }
+
+    private void publishUsers() {
+        List<User> snapshot = new ArrayList<>();
+        usersByEmail.values().stream()
+                .sorted(Comparator.comparingInt(Row::id))
+                .forEach(row -> snapshot.add(copy(row.value)));
+        DataStore.applyToLists(() -> userList.setAll(snapshot));
+    }
+
+    private void publishRooms() {
+        List<Room> snapshot = new ArrayList<>();
+        roomsByName.values().stream()
+                .sorted(Comparator.comparingInt(Row::id))
+                .forEach(row -> snapshot.add(copy(row.value)));
+        DataStore.applyToLists(() -> roomList.setAll(snapshot));
+    }
+
+    private void publishReservations() {
+        List<Reservation> snapshot = new ArrayList<>(reservationsInOrder);
+        DataStore.applyToLists(() -> reservationList.setAll(snapshot));
+    }
+
+    private record Row<T>(int id, T value) {
+    }
+}
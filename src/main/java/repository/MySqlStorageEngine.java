@@ -0,0 +1,258 @@
+package repository;
+
+import javafx.collections.ObservableList;
+import model.Reservation;
+import model.ReservationSeries;
+import model.Room;
+import model.User;
+import util.DataStore;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The MySQL backend: delegates to DataStore, which owns the connection pool, caches and delta sync
+ */
+public class MySqlStorageEngine implements StorageEngine {
+
+    @Override
+    public String getName() {
+        return "mysql";
+    }
+
+    @Override
+    public void initialize() {
+        DataStore.initialize();
+    }
+
+    @Override
+    public void reloadAll() {
+        DataStore.reloadAll();
+    }
+
+    @Override
+    public Map<String, Long> tableVersions() {
+        return DataStore.getTableVersions();
+    }
+
+    @Override
+    public void refresh(Set<String> tables) {
+        DataStore.refreshTables(tables);
+    }
+
+    @Override
+    public void saveAll() {
+        DataStore.saveAll();
+    }
+
+    @Override
+    public void close() {
+        DataStore.closeConnection();
+    }
+
+    // -------------------- USERS --------------------
+    @Override
+    public ObservableList<User> getUsers() {
+        return DataStore.getUsers();
+    }
+
+    @Override
+    public boolean validateUser(String email, String password) {
+        return DataStore.validateUser(email, password);
+    }
+
+    @Override
+    public boolean userExists(String email) {
+        return DataStore.userExists(email);
+    }
+
+    @Override
+    public boolean isAdmin(String email) {
+        return DataStore.isAdmin(email);
+    }
+
+    @Override
+    public User getUserByEmail(String email) {
+        return DataStore.getUserByEmail(email);
+    }
+
+    @Override
+    public User loadUserByEmail(String email) {
+        return DataStore.loadUserByEmail(email);
+    }
+
+    @Override
+    public User getUserByUsername(String username) {
+        return DataStore.getUserByUsername(username);
+    }
+
+    @Override
+    public void addUser(String username, String email, String password, String role) {
+        DataStore.addUser(username, email, password, role);
+    }
+
+    @Override
+    public boolean replacePassword(String email, String current, String replacement) {
+        return DataStore.replacePassword(email, current, replacement);
+    }
+
+    @Override
+    public void updateUser(User user) {
+        DataStore.updateUser(user);
+    }
+
+    @Override
+    public void deleteUser(User user) {
+        DataStore.deleteUser(user);
+    }
+
+    // -------------------- ROOMS --------------------
+    @Override
+    public ObservableList<Room> getRooms() {
+        return DataStore.getRooms();
+    }
+
+    @Override
+    public Room getRoomByName(String name) {
+        return DataStore.getRoomByName(name);
+    }
+
+    @Override
+    public void addRoom(Room room) {
+        DataStore.addRoom(room);
+    }
+
+    @Override
+    public void updateRoom(Room room) {
+        DataStore.updateRoom(room);
+    }
+
+    @Override
+    public void saveRooms() {
+        DataStore.saveRooms();
+    }
+
+    @Override
+    public void removeRoom(Room room) {
+        DataStore.removeRoom(room);
+    }
+
+    @Override
+    public String computeRoomStatusNow(String roomName) {
+        return DataStore.computeRoomStatusNow(roomName);
+    }
+
+    @Override
+    public Map<String, String> computeRoomStatusesNow() {
+        return DataStore.computeRoomStatusesNow();
+    }
+
+    // -------------------- RESERVATIONS --------------------
+    @Override
+    public ObservableList<Reservation> getReservations() {
+        return DataStore.getReservations();
+    }
+
+    @Override
+    public List<Reservation> getReservationsByUser(String username) {
+        return DataStore.getReservationsByUser(username);
+    }
+
+    @Override
+    public boolean addReservation(Reservation reservation) {
+        return DataStore.addReservation(reservation);
+    }
+
+    @Override
+    public List<Reservation> addReservations(List<Reservation> batch, boolean notify) {
+        return DataStore.addReservations(batch, notify);
+    }
+
+    @Override
+    public boolean updateReservationStatus(Reservation reservation, String newStatus) {
+        return DataStore.updateReservationStatus(reservation, newStatus);
+    }
+
+    @Override
+    public List<Reservation> updateReservationStatuses(List<Integer> ids, String newStatus) {
+        return DataStore.updateReservationStatuses(ids, newStatus);
+    }
+
+    @Override
+    public void deleteReservation(Reservation reservation) {
+        DataStore.deleteReservation(reservation);
+    }
+
+    @Override
+    public List<Reservation> deleteReservations(List<Integer> ids) {
+        return DataStore.deleteReservations(ids);
+    }
+
+    @Override
+    public boolean hasConflict(String roomName, String date, String startTime, String endTime) {
+        return DataStore.hasConflict(roomName, date, startTime, endTime);
+    }
+
+    @Override
+    public String findFreeStart(String roomName, String date, String from, String to, int minutes, int step) {
+        return DataStore.findFreeStart(roomName, date, from, to, minutes, step);
+    }
+
+    @Override
+    public String getRoomStatusForTime(String roomName, String date, String startTime, String endTime) {
+        return DataStore.getRoomStatusForTime(roomName, date, startTime, endTime);
+    }
+
+    @Override
+    public List<Reservation> getReservationPageAfter(Reservation after, int limit) {
+        return DataStore.getReservationPageAfter(after, limit);
+    }
+
+    @Override
+    public List<Reservation> getReservationPageFrom(Reservation first, int limit) {
+        return DataStore.getReservationPageFrom(first, limit);
+    }
+
+    @Override
+    public List<Reservation> getReservationPageBefore(Reservation before, int limit) {
+        return DataStore.getReservationPageBefore(before, limit);
+    }
+
+    // -------------------- SERIES --------------------
+    @Override
+    public boolean addSeries(ReservationSeries series) {
+        return DataStore.addSeries(series);
+    }
+
+    @Override
+    public List<ReservationSeries> getAllSeries() {
+        return DataStore.getAllSeries();
+    }
+
+    @Override
+    public List<ReservationSeries> getSeriesByUser(String username) {
+        return DataStore.getSeriesByUser(username);
+    }
+
+    @Override
+    public List<Reservation> getOccurrencesByUser(String username, LocalDate from, LocalDate to) {
+        return DataStore.getOccurrencesByUser(username, from, to);
+    }
+
+    @Override
+    public boolean updateSeriesStatus(ReservationSeries series, String newStatus) {
+        return DataStore.updateSeriesStatus(series, newStatus);
+    }
+
+    @Override
+    public void skipOccurrence(ReservationSeries series, LocalDate date) {
+        DataStore.skipOccurrence(series, date);
+    }
+
+    @Override
+    public void deleteSeries(ReservationSeries series) {
+        DataStore.deleteSeries(series);
+    }
+}
@@ -0,0 +1,67 @@
+package repository;
+
+/**
+ * Picks the storage engine from the STORAGE_ENGINE environment variable:
+ * "mysql" (default) or "memory" for a database-free install or load test.
+ */
+public final class Repositories {
+
+    private static final String STORAGE_ENGINE = System.getenv("STORAGE_ENGINE") != null ?
+            System.getenv("STORAGE_ENGINE") : "mysql";
+
+    private static volatile StorageEngine engine;
+
+    private Repositories() {
+    }
+
+    public static StorageEngine get() {
+        StorageEngine current = engine;
+        if (current == null) {
+            synchronized (Repositories.class) {
+                current = engine;
+                if (current == null) {
+                    current = create(STORAGE_ENGINE);
+                    engine = current;
+                    System.out.println("[STORAGE] Using " + current.getName() + " storage engine");
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Install a specific engine, e.g. a fresh in-memory one for a load test
+     */
+    public static synchronized void use(StorageEngine storageEngine) {
+        engine = storageEngine;
+    }
+
+    public static UserRepository users() {
+        return get();
+    }
+
+    public static RoomRepository rooms() {
+        return get();
+    }
+
+    public static ReservationRepository reservations() {
+        return get();
+    }
+
+    public static SeriesRepository series() {
+        return get();
+    }
+
+    private static StorageEngine create(String name) {
+        switch (name.trim().toLowerCase()) {
+            case "memory":
+            case "in-memory":
+                return new InMemoryStorageEngine();
+            case "mysql":
+                return new MySqlStorageEngine();
+            default:
+                System.err.println("[STORAGE] Unknown STORAGE_ENGINE '" + name + "', falling back to mysql");
+                return new MySqlStorageEngine();
+        }
+    }
+}
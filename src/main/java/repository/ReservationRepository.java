@@ -0,0 +1,87 @@
+package repository;
+
+import javafx.collections.ObservableList;
+import model.Reservation;
+
+import java.util.List;
+
+/**
+ * Reservation storage operations, named after the DataStore methods they were extracted from.
+ * Reservations are ordered newest first: date, start time and id, all descending.
+ */
+public interface ReservationRepository {
+
+    /**
+     * All reservations, refreshed from storage. The list is shared and only changes on the FX thread.
+     */
+    ObservableList<Reservation> getReservations();
+
+    List<Reservation> getReservationsByUser(String username);
+
+    /**
+     * Admits the reservation unless a pending or approved booking already holds part of its time
+     * @return false if the time is taken, or on error
+     */
+    boolean addReservation(Reservation reservation);
+
+    /**
+     * Bulk insert for imports. Rows are admitted like addReservation and clashing ones are skipped,
+     * but the shared list is not refreshed; call getReservations() once the import is finished.
+     * @param notify send the usual confirmation email for each stored row
+     * @return the rows that were stored, with their ids set
+     */
+    List<Reservation> addReservations(List<Reservation> batch, boolean notify);
+
+    /**
+     * @return false if re-activating the reservation would overlap another booking, or on error
+     */
+    boolean updateReservationStatus(Reservation reservation, String newStatus);
+
+    /**
+     * Set the status of every reservation in the list by id. Rows that can't be re-activated
+     * keep their old status; unknown ids are ignored.
+     * @return the rows whose status changed
+     */
+    List<Reservation> updateReservationStatuses(List<Integer> ids, String newStatus);
+
+    void deleteReservation(Reservation reservation);
+
+    /**
+     * Delete every reservation in the list by id; unknown ids are ignored.
+     * @return the rows that were deleted
+     */
+    List<Reservation> deleteReservations(List<Integer> ids);
+
+    /**
+     * True if an approved booking overlaps the time range
+     */
+    boolean hasConflict(String roomName, String date, String startTime, String endTime);
+
+    /**
+     * "Approved", "Pending" or "Available" for the time range
+     */
+    String getRoomStatusForTime(String roomName, String date, String startTime, String endTime);
+
+    /**
+     * First start time ("HH:mm") in [from, to), on a grid of `step` minutes, where the room is free
+     * of pending and approved bookings for `minutes`; null if there is none
+     */
+    String findFreeStart(String roomName, String date, String from, String to, int minutes, int step);
+
+    /**
+     * The page following the given row, or the first page when it is null.
+     * The page methods return null if storage could not be read; an empty or short page means
+     * the end of the table was reached.
+     */
+    List<Reservation> getReservationPageAfter(Reservation after, int limit);
+
+    /**
+     * Like getReservationPageAfter but including the given row
+     */
+    List<Reservation> getReservationPageFrom(Reservation first, int limit);
+
+    /**
+     * The page of newer reservations directly above the given row, in table order
+     */
+    List<Reservation> getReservationPageBefore(Reservation before, int limit);
+}
@@ -0,0 +1,44 @@
+package repository;
+
+import javafx.collections.ObservableList;
+import model.Room;
+
+import java.util.Map;
+
+/**
+ * Room storage operations, named after the DataStore methods they were extracted from
+ */
+public interface RoomRepository {
+
+    /**
+     * All rooms in creation order, refreshed from storage. The list is shared and only changes
+     * on the FX thread.
+     */
+    ObservableList<Room> getRooms();
+
+    Room getRoomByName(String name);
+
+    void addRoom(Room room);
+
+    void updateRoom(Room room);
+
+    /**
+     * Persist status and image edits made to the rooms in getRooms()
+     */
+    void saveRooms();
+
+    /**
+     * Removes the room together with its reservations
+     */
+    void removeRoom(Room room);
+
+    /**
+     * "Occupied", "Pending" or "Available" for the current time
+     */
+    String computeRoomStatusNow(String roomName);
+
+    /**
+     * Current status of every room with a booking right now; rooms missing from the map are "Available"
+     */
+    Map<String, String> computeRoomStatusesNow();
+}
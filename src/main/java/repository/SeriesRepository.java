@@ -0,0 +1,45 @@
+package repository;
+
+import model.Reservation;
+import model.ReservationSeries;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Recurring reservation storage. A series is stored once and its occurrences are only expanded
+ * for the date window asked for.
+ */
+public interface SeriesRepository {
+
+    /**
+     * Admits the series unless one of its occurrences would share a slot with another active
+     * series or single booking in the room
+     * @return false if the time is taken, or on error
+     */
+    boolean addSeries(ReservationSeries series);
+
+    /**
+     * Every series, newest start date first
+     */
+    List<ReservationSeries> getAllSeries();
+
+    List<ReservationSeries> getSeriesByUser(String username);
+
+    /**
+     * The user's series occurrences between the two dates (inclusive), as reservation rows
+     */
+    List<Reservation> getOccurrencesByUser(String username, LocalDate from, LocalDate to);
+
+    /**
+     * @return false if re-activating the series would clash with another booking, or on error
+     */
+    boolean updateSeriesStatus(ReservationSeries series, String newStatus);
+
+    /**
+     * Cancel one occurrence and keep the rest of the series
+     */
+    void skipOccurrence(ReservationSeries series, LocalDate date);
+
+    void deleteSeries(ReservationSeries series);
+}
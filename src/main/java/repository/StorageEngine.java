@@ -0,0 +1,36 @@
+package repository;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A complete storage backend: all the repositories plus lifecycle
+ */
+public interface StorageEngine extends UserRepository, RoomRepository, ReservationRepository, SeriesRepository {
+
+    String getName();
+
+    /**
+     * Prepare storage and seed the sample rooms and users when empty. Safe to call repeatedly.
+     */
+    void initialize();
+
+    /**
+     * Refresh the shared user, room and reservation lists
+     */
+    void reloadAll();
+
+    /**
+     * Change counter per table (see ChangeFeed); a table whose counter moved has new writes
+     */
+    Map<String, Long> tableVersions();
+
+    /**
+     * Refresh the shared lists backed by the given tables only
+     */
+    void refresh(Set<String> tables);
+
+    void saveAll();
+
+    void close();
+}
@@ -0,0 +1,55 @@
+package repository;
+
+import javafx.collections.ObservableList;
+import model.User;
+
+/**
+ * User storage operations, named after the DataStore methods they were extracted from
+ */
+public interface UserRepository {
+
+    /**
+     * All users, refreshed from storage. The list is shared and only changes on the FX thread.
+     */
+    ObservableList<User> getUsers();
+
+    /**
+     * Whether the password matches the user's stored one (hashed or, from before hashing, plaintext)
+     */
+    boolean validateUser(String email, String password);
+
+    boolean userExists(String email);
+
+    boolean isAdmin(String email);
+
+    /**
+     * May be served from a cache that lags other clients' changes; fine for display
+     */
+    User getUserByEmail(String email);
+
+    /**
+     * The user as stored right now, never from a cache; use it to sign in
+     */
+    User loadUserByEmail(String email);
+
+    User getUserByUsername(String username);
+
+    /**
+     * Adds the user unless the email is taken; new "user" accounts get a welcome email.
+     * The password is stored as given, so pass a PasswordHasher hash.
+     */
+    void addUser(String username, String email, String password, String role);
+
+    /**
+     * Replaces the stored password if it is still `current`
+     * @return whether it was replaced
+     */
+    boolean replacePassword(String email, String current, String replacement);
+
+    /**
+     * Updates username, password and role of the user with this email
+     */
+    void updateUser(User user);
+
+    void deleteUser(User user);
+}
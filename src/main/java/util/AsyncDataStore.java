@@ -0,0 +1,221 @@
+package util;
+
+import javafx.collections.ObservableList;
+import model.Reservation;
+import model.ReservationSeries;
+import model.Room;
+import model.User;
+import repository.Repositories;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Non-blocking facade over the storage engine (see Repositories) for the JavaFX controllers.
+ * Every call runs the blocking JDBC work on a virtual thread and completes its future on the
+ * FX application thread, so callbacks (thenAccept, whenComplete, ...) can update controls directly.
+ * With MySQL the connection pool still bounds how many of these reach the database at once.
+ */
+public final class AsyncDataStore {
+
+    private static final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private AsyncDataStore() {
+    }
+
+    /**
+     * Run any blocking storage work off the FX thread, e.g. to combine several calls in one hop
+     */
+    public static <T> CompletableFuture<T> supply(Supplier<T> work) {
+        return supply(work, executor);
+    }
+
+    /**
+     * Like supply(work), on the given executor instead of a virtual thread, e.g. a bounded pool for
+     * CPU-heavy work. If the executor refuses the task the future fails with its exception.
+     */
+    public static <T> CompletableFuture<T> supply(Supplier<T> work, Executor executor) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        CompletableFuture<T> task;
+        try {
+            task = CompletableFuture.supplyAsync(work, executor);
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(e);
+            return result;
+        }
+        task.whenComplete((value, error) ->
+                // Queued behind any list updates the work made, so callbacks see them applied
+                DataStore.applyToLists(() -> {
+                    if (error == null) {
+                        result.complete(value);
+                    } else {
+                        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                                ? error.getCause() : error;
+                        System.err.println("[DATABASE ERROR] Background call failed: " + cause);
+                        result.completeExceptionally(cause);
+                    }
+                }));
+        return result;
+    }
+
+    public static CompletableFuture<Void> run(Runnable work) {
+        return supply(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    // -------------------- CONNECTION --------------------
+    public static CompletableFuture<Void> initialize() {
+        return run(() -> Repositories.get().initialize());
+    }
+
+    public static CompletableFuture<Void> reloadAll() {
+        return run(() -> Repositories.get().reloadAll());
+    }
+
+    public static CompletableFuture<Void> saveAll() {
+        return run(() -> Repositories.get().saveAll());
+    }
+
+    // -------------------- USERS --------------------
+    public static CompletableFuture<ObservableList<User>> getUsers() {
+        return supply(() -> Repositories.get().getUsers());
+    }
+
+    public static CompletableFuture<Boolean> validateUser(String email, String password) {
+        return supply(() -> Repositories.get().validateUser(email, password));
+    }
+
+    public static CompletableFuture<Boolean> userExists(String email) {
+        return supply(() -> Repositories.get().userExists(email));
+    }
+
+    public static CompletableFuture<Boolean> isAdmin(String email) {
+        return supply(() -> Repositories.get().isAdmin(email));
+    }
+
+    public static CompletableFuture<User> getUserByEmail(String email) {
+        return supply(() -> Repositories.get().getUserByEmail(email));
+    }
+
+    public static CompletableFuture<User> getUserByUsername(String username) {
+        return supply(() -> Repositories.get().getUserByUsername(username));
+    }
+
+    public static CompletableFuture<Void> addUser(String username, String email, String password, String role) {
+        return run(() -> Repositories.get().addUser(username, email, password, role));
+    }
+
+    public static CompletableFuture<Void> updateUser(User user) {
+        return run(() -> Repositories.get().updateUser(user));
+    }
+
+    public static CompletableFuture<Void> deleteUser(User user) {
+        return run(() -> Repositories.get().deleteUser(user));
+    }
+
+    // -------------------- ROOMS --------------------
+    public static CompletableFuture<ObservableList<Room>> getRooms() {
+        return supply(() -> Repositories.get().getRooms());
+    }
+
+    public static CompletableFuture<Room> getRoomByName(String name) {
+        return supply(() -> Repositories.get().getRoomByName(name));
+    }
+
+    public static CompletableFuture<Void> addRoom(Room room) {
+        return run(() -> Repositories.get().addRoom(room));
+    }
+
+    public static CompletableFuture<Void> updateRoom(Room room) {
+        return run(() -> Repositories.get().updateRoom(room));
+    }
+
+    public static CompletableFuture<Void> saveRooms() {
+        return run(() -> Repositories.get().saveRooms());
+    }
+
+    public static CompletableFuture<Void> removeRoom(Room room) {
+        return run(() -> Repositories.get().removeRoom(room));
+    }
+
+    public static CompletableFuture<Map<String, String>> computeRoomStatusesNow() {
+        return supply(() -> Repositories.get().computeRoomStatusesNow());
+    }
+
+    // -------------------- RESERVATIONS --------------------
+    public static CompletableFuture<ObservableList<Reservation>> getReservations() {
+        return supply(() -> Repositories.get().getReservations());
+    }
+
+    public static CompletableFuture<List<Reservation>> getReservationsByUser(String username) {
+        return supply(() -> Repositories.get().getReservationsByUser(username));
+    }
+
+    public static CompletableFuture<Boolean> addReservation(Reservation reservation) {
+        return supply(() -> Repositories.get().addReservation(reservation));
+    }
+
+    public static CompletableFuture<Boolean> updateReservationStatus(Reservation reservation, String newStatus) {
+        return supply(() -> Repositories.get().updateReservationStatus(reservation, newStatus));
+    }
+
+    public static CompletableFuture<List<Reservation>> updateReservationStatuses(List<Integer> ids, String newStatus) {
+        return supply(() -> Repositories.get().updateReservationStatuses(ids, newStatus));
+    }
+
+    public static CompletableFuture<Void> deleteReservation(Reservation reservation) {
+        return run(() -> Repositories.get().deleteReservation(reservation));
+    }
+
+    public static CompletableFuture<List<Reservation>> deleteReservations(List<Integer> ids) {
+        return supply(() -> Repositories.get().deleteReservations(ids));
+    }
+
+    public static CompletableFuture<Boolean> hasConflict(String roomName, String date, String startTime, String endTime) {
+        return supply(() -> Repositories.get().hasConflict(roomName, date, startTime, endTime));
+    }
+
+    public static CompletableFuture<String> getRoomStatusForTime(String roomName, String date,
+                                                                 String startTime, String endTime) {
+        return supply(() -> Repositories.get().getRoomStatusForTime(roomName, date, startTime, endTime));
+    }
+
+    // -------------------- SERIES --------------------
+    public static CompletableFuture<Boolean> addSeries(ReservationSeries series) {
+        return supply(() -> Repositories.get().addSeries(series));
+    }
+
+    public static CompletableFuture<List<ReservationSeries>> getAllSeries() {
+        return supply(() -> Repositories.get().getAllSeries());
+    }
+
+    public static CompletableFuture<List<ReservationSeries>> getSeriesByUser(String username) {
+        return supply(() -> Repositories.get().getSeriesByUser(username));
+    }
+
+    public static CompletableFuture<List<Reservation>> getOccurrencesByUser(String username, LocalDate from, LocalDate to) {
+        return supply(() -> Repositories.get().getOccurrencesByUser(username, from, to));
+    }
+
+    public static CompletableFuture<Boolean> updateSeriesStatus(ReservationSeries series, String newStatus) {
+        return supply(() -> Repositories.get().updateSeriesStatus(series, newStatus));
+    }
+
+    public static CompletableFuture<Void> skipOccurrence(ReservationSeries series, LocalDate date) {
+        return run(() -> Repositories.get().skipOccurrence(series, date));
+    }
+
+    public static CompletableFuture<Void> deleteSeries(ReservationSeries series) {
+        return run(() -> Repositories.get().deleteSeries(series));
+    }
+}
@@ -0,0 +1,90 @@
+package util;
+
+import model.User;
+import model.UserSession;
+import repository.Repositories;
+import repository.UserRepository;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sign-in and registration. A login is one user lookup by email, read fresh rather than from
+ * UserCache, plus a password check against the salted hash; the result is a UserSession carrying the
+ * user and role for the dashboards. Plaintext passwords from before hashing still work and are
+ * replaced with a hash on that login.
+ * Hashing is slow on purpose, so it runs on a small pool of AUTH_THREADS with a short queue: a
+ * burst of sign-ins waits its turn there instead of taking over the CPU, and once the queue is
+ * full further attempts fail fast with RejectedExecutionException.
+ */
+public final class AuthService {
+
+    private static final int AUTH_THREADS = Integer.parseInt(System.getenv("AUTH_THREADS") != null ?
+            System.getenv("AUTH_THREADS") : "2");
+    private static final int AUTH_QUEUE_SIZE = Integer.parseInt(System.getenv("AUTH_QUEUE_SIZE") != null ?
+            System.getenv("AUTH_QUEUE_SIZE") : "32");
+
+    private static final ThreadPoolExecutor executor;
+
+    static {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(AUTH_THREADS, AUTH_THREADS, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(AUTH_QUEUE_SIZE),
+                r -> {
+                    Thread t = new Thread(r, "auth-" + threadNumber.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    private AuthService() {
+    }
+
+    /**
+     * Check the credentials off the FX thread; completes on the FX thread with the session, or
+     * null if the email or password is wrong
+     */
+    public static CompletableFuture<UserSession> login(String email, String password) {
+        return AsyncDataStore.supply(() -> authenticate(email, password), executor);
+    }
+
+    /**
+     * Create a "user" account with a hashed password; completes on the FX thread with false if
+     * the email is taken
+     */
+    public static CompletableFuture<Boolean> register(String username, String email, String password) {
+        return AsyncDataStore.supply(() -> {
+            UserRepository users = Repositories.users();
+            if (users.userExists(email)) return false;
+            users.addUser(username, email, PasswordHasher.hash(password), "user");
+            return true;
+        }, executor);
+    }
+
+    /**
+     * The blocking part of login()
+     */
+    public static UserSession authenticate(String email, String password) {
+        UserRepository users = Repositories.users();
+        User user = users.loadUserByEmail(email); // never the cache: a changed password or role counts at once
+        String stored = user != null ? user.getPassword() : null;
+        if (!PasswordHasher.verify(password, stored)) {
+            return null;
+        }
+
+        if (PasswordHasher.needsRehash(stored)) {
+            String hash = PasswordHasher.hash(password);
+            if (users.replacePassword(email, stored, hash)) {
+                user.setPassword(hash);
+                System.out.println("[AUTH] Upgraded stored password for " + email);
+            }
+        }
+        System.out.println("[AUTH] Signed in " + user.getUsername() + " (" + user.getRole() + ")");
+        return new UserSession(user);
+    }
+}
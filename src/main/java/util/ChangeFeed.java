@@ -0,0 +1,108 @@
+package util;
+
+import repository.Repositories;
+import repository.StorageEngine;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Pushes other clients' writes to the open dashboards. Every write bumps a per-table change
+ * counter (table_versions in MySQL); one background poller per client reads the counters, re-reads
+ * only the tables that moved and then tells the subscribers which ones did. An idle system costs
+ * one tiny query per poll, however many dashboards are open.
+ */
+public final class ChangeFeed {
+
+    public static final String USERS = "users";
+    public static final String ROOMS = "rooms";
+    public static final String RESERVATIONS = "reservations";
+    public static final String SERIES = "reservation_series";
+    public static final List<String> TABLES = List.of(USERS, ROOMS, RESERVATIONS, SERIES);
+
+    private static final long POLL_MS = Long.parseLong(System.getenv("CHANGE_FEED_POLL_MS") != null ?
+            System.getenv("CHANGE_FEED_POLL_MS") : "2000");
+
+    private static final List<Consumer<Set<String>>> listeners = new CopyOnWriteArrayList<>();
+    private static ScheduledExecutorService poller;  // guarded by ChangeFeed.class
+    // Counters as of the last poll; only touched by the poller thread
+    private static Map<String, Long> lastSeen;
+
+    private ChangeFeed() {
+    }
+
+    /**
+     * Call the listener on the FX thread with the names of the tables that changed, after the
+     * shared lists for them have been refreshed. The poller runs while anyone is subscribed.
+     * @return unsubscribes the listener
+     */
+    public static synchronized Runnable subscribe(Consumer<Set<String>> listener) {
+        listeners.add(listener);
+        if (poller == null) {
+            poller = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "change-feed");
+                t.setDaemon(true);
+                return t;
+            });
+            lastSeen = null;
+            poller.scheduleWithFixedDelay(ChangeFeed::poll, 0, POLL_MS, TimeUnit.MILLISECONDS);
+            System.out.println("[CHANGE FEED] Polling every " + POLL_MS + " ms");
+        }
+        return () -> unsubscribe(listener);
+    }
+
+    private static synchronized void unsubscribe(Consumer<Set<String>> listener) {
+        listeners.remove(listener);
+        if (listeners.isEmpty() && poller != null) {
+            poller.shutdownNow();
+            poller = null;
+            System.out.println("[CHANGE FEED] Stopped");
+        }
+    }
+
+    private static void poll() {
+        try {
+            StorageEngine engine = Repositories.get();
+            Map<String, Long> versions = engine.tableVersions();
+            if (lastSeen == null) {
+                // First poll is the baseline; the dashboards have just loaded their data
+                lastSeen = new HashMap<>(versions);
+                return;
+            }
+
+            // A table missing from this read (e.g. the query failed) keeps its old counter
+            Set<String> changed = new LinkedHashSet<>();
+            for (Map.Entry<String, Long> e : versions.entrySet()) {
+                if (!e.getValue().equals(lastSeen.get(e.getKey()))) changed.add(e.getKey());
+            }
+            if (changed.isEmpty()) return;
+            lastSeen.putAll(versions);
+
+            engine.refresh(changed);
+            Set<String> tables = Set.copyOf(changed);
+            // Queued behind the list updates the refresh made
+            DataStore.applyToLists(() -> notifyListeners(tables));
+        } catch (RuntimeException e) {
+            // Keep the schedule alive; the next poll tries again
+            System.err.println("[CHANGE FEED ERROR] Poll failed: " + e.getMessage());
+        }
+    }
+
+    private static void notifyListeners(Set<String> tables) {
+        for (Consumer<Set<String>> listener : listeners) {
+            try {
+                listener.accept(tables);
+            } catch (RuntimeException e) {
+                System.err.println("[CHANGE FEED ERROR] Listener failed: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A text template parsed once into literal segments and named placeholders, so rendering is
+ * a run of appends with no format-string parsing.
+ * {{name}} inserts the value HTML-escaped; {{&name}} inserts it as is, for trusted markup only.
+ * Values are passed to render() in the order the names were given to compile().
+ */
+public final class CompiledTemplate {
+
+    // Rendering reuses one builder per thread; a rare huge render doesn't pin its buffer
+    private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+    private static final ThreadLocal<StringBuilder> BUILDER = ThreadLocal.withInitial(() -> new StringBuilder(8192));
+
+    private final String[] literals;  // literals[i] comes before slot i; the last one ends the text
+    private final int[] slots;        // value index for each placeholder
+    private final boolean[] raw;
+    private final int names;
+    private final int literalLength;
+
+    private CompiledTemplate(String[] literals, int[] slots, boolean[] raw, int names) {
+        this.literals = literals;
+        this.slots = slots;
+        this.raw = raw;
+        this.names = names;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    /**
+     * @throws IllegalArgumentException for an unclosed placeholder or one not in `names`
+     */
+    public static CompiledTemplate compile(String source, String... names) {
+        List<String> literals = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+        List<Boolean> raw = new ArrayList<>();
+        List<String> known = Arrays.asList(names);
+
+        int pos = 0;
+        while (true) {
+            int open = source.indexOf("{{", pos);
+            if (open < 0) break;
+            int close = source.indexOf("}}", open + 2);
+            if (close < 0) throw new IllegalArgumentException("Unclosed placeholder at " + open);
+            String name = source.substring(open + 2, close).trim();
+            boolean unescaped = name.startsWith("&");
+            if (unescaped) name = name.substring(1).trim();
+            int slot = known.indexOf(name);
+            if (slot < 0) throw new IllegalArgumentException("Unknown placeholder {{" + name + "}}");
+
+            literals.add(source.substring(pos, open));
+            slots.add(slot);
+            raw.add(unescaped);
+            pos = close + 2;
+        }
+        literals.add(source.substring(pos));
+
+        int[] slotArray = new int[slots.size()];
+        boolean[] rawArray = new boolean[raw.size()];
+        for (int i = 0; i < slotArray.length; i++) {
+            slotArray[i] = slots.get(i);
+            rawArray[i] = raw.get(i);
+        }
+        return new CompiledTemplate(literals.toArray(new String[0]), slotArray, rawArray, names.length);
+    }
+
+    public String render(String... values) {
+        StringBuilder out = BUILDER.get();
+        out.setLength(0);
+        appendTo(out, values);
+        String text = out.toString();
+        if (out.capacity() > MAX_RETAINED_CAPACITY) BUILDER.remove();
+        return text;
+    }
+
+    public void appendTo(StringBuilder out, String... values) {
+        if (values.length != names) {
+            throw new IllegalArgumentException("Expected " + names + " values, got " + values.length);
+        }
+        out.ensureCapacity(out.length() + literalLength + 64 * slots.length);
+        for (int i = 0; i < slots.length; i++) {
+            out.append(literals[i]);
+            String value = values[slots[i]];
+            if (value == null) continue;
+            if (raw[i]) {
+                out.append(value);
+            } else {
+                escapeHtml(out, value);
+            }
+        }
+        out.append(literals[slots.length]);
+    }
+
+    /**
+     * Append the text with &amp; &lt; &gt; &quot; and &#39; escaped; text with none of them is
+     * appended in one go
+     */
+    public static void escapeHtml(StringBuilder out, String text) {
+        int start = 0;
+        for (int i = 0; i < text.length(); i++) {
+            String entity = switch (text.charAt(i)) {
+                case '&' -> "&amp;";
+                case '<' -> "&lt;";
+                case '>' -> "&gt;";
+                case '"' -> "&quot;";
+                case '\'' -> "&#39;";
+                default -> null;
+            };
+            if (entity == null) continue;
+            out.append(text, start, i).append(entity);
+            start = i + 1;
+        }
+        out.append(text, start, text.length());
+    }
+}
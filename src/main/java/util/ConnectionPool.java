@@ -0,0 +1,361 @@
+package util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded JDBC connection pool used by DataStore
+ * Connections are validated on borrow, checked for leaks and returned to the pool on close()
+ */
+public class ConnectionPool {
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+    private static final long ALIVE_BYPASS_MILLIS = 500;
+    private static final long HOUSEKEEPING_INTERVAL_MILLIS = 30_000;
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int maxSize;
+    private final long maxWaitMillis;
+    private final long leakThresholdMillis;
+    private final int statementCacheSize;
+
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Set<PooledConnection> borrowed = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed;
+
+    // Metrics
+    private final LongAdder borrowCount = new LongAdder();
+    private final LongAdder createdCount = new LongAdder();
+    private final LongAdder timeoutCount = new LongAdder();
+    private final LongAdder validationFailures = new LongAdder();
+    private final LongAdder leakCount = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final LongAdder statementHits = new LongAdder();
+    private final LongAdder statementMisses = new LongAdder();
+    private final ConcurrentHashMap<String, LongAdder[]> statementStats = new ConcurrentHashMap<>();
+
+    /**
+     * @param statementCacheSize per-connection prepared statement cache size configured on the driver,
+     *                           used to estimate statement cache hits and misses (see recordPrepare)
+     */
+    public ConnectionPool(String url, String user, String password, int maxSize,
+                          long maxWaitMillis, long leakThresholdMillis, int statementCacheSize) {
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.maxSize = Math.max(1, maxSize);
+        this.maxWaitMillis = maxWaitMillis;
+        this.leakThresholdMillis = leakThresholdMillis;
+        this.statementCacheSize = statementCacheSize;
+        this.permits = new Semaphore(this.maxSize, true);
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        housekeeper.scheduleWithFixedDelay(this::housekeep,
+                HOUSEKEEPING_INTERVAL_MILLIS, HOUSEKEEPING_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrow a connection. Callers must close() it (try-with-resources) to return it to the pool.
+     */
+    public Connection getConnection() throws SQLException {
+        if (closed) throw new SQLException("Connection pool is closed");
+
+        long waitStart = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS)) {
+                timeoutCount.increment();
+                throw new SQLException("Timed out after " + maxWaitMillis + "ms waiting for a database connection ("
+                        + borrowed.size() + " in use)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+        recordWait(System.nanoTime() - waitStart);
+
+        try {
+            PooledConnection pc = takeValidIdle();
+            if (pc == null) {
+                pc = new PooledConnection(DriverManager.getConnection(url, user, password));
+                createdCount.increment();
+            }
+            pc.borrowedAt = System.currentTimeMillis();
+            pc.borrower = leakThresholdMillis > 0 ? new Throwable("Connection borrowed here") : null;
+            pc.leakReported = false;
+            borrowed.add(pc);
+            borrowCount.increment();
+            return pc.newHandle();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private PooledConnection takeValidIdle() {
+        PooledConnection pc;
+        while ((pc = idle.pollFirst()) != null) {
+            if (System.currentTimeMillis() - pc.lastReturnedAt < ALIVE_BYPASS_MILLIS || isAlive(pc)) {
+                return pc;
+            }
+            validationFailures.increment();
+            closeQuietly(pc);
+        }
+        return null;
+    }
+
+    private boolean isAlive(PooledConnection pc) {
+        try {
+            return !pc.physical.isClosed() && pc.physical.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void release(PooledConnection pc) {
+        if (!borrowed.remove(pc)) return;
+        try {
+            if (closed || pc.physical.isClosed()) {
+                closeQuietly(pc);
+                return;
+            }
+            if (!pc.physical.getAutoCommit()) {
+                pc.physical.rollback();
+                pc.physical.setAutoCommit(true);
+            }
+            pc.lastReturnedAt = System.currentTimeMillis();
+            pc.borrower = null;
+            idle.offerFirst(pc);
+        } catch (SQLException e) {
+            closeQuietly(pc);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * An estimate, not the driver's own count: the driver keeps prepared statements per physical
+     * connection in an LRU cache of statementCacheSize, so this mirrors that cache and counts a
+     * prepare as a hit when the SQL is still in it. Statements the driver declines to cache
+     * (e.g. longer than prepStmtCacheSqlLimit) are still counted as hits after the first.
+     */
+    private void recordPrepare(PooledConnection pc, String sql) {
+        boolean hit = pc.preparedSql.get(sql) != null;
+        if (!hit) pc.preparedSql.put(sql, Boolean.TRUE);
+        (hit ? statementHits : statementMisses).increment();
+        LongAdder[] counters = statementStats.computeIfAbsent(sql, k -> new LongAdder[]{new LongAdder(), new LongAdder()});
+        counters[hit ? 0 : 1].increment();
+    }
+
+    private void recordWait(long nanos) {
+        totalWaitNanos.add(nanos);
+        maxWaitNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    // -------------------- HEALTH CHECK & LEAK DETECTION --------------------
+    private void housekeep() {
+        // Health check idle connections; drop any the server has closed
+        List<PooledConnection> snapshot = new ArrayList<>(idle);
+        for (PooledConnection pc : snapshot) {
+            if (idle.remove(pc)) {
+                if (isAlive(pc)) {
+                    idle.offerLast(pc);
+                } else {
+                    validationFailures.increment();
+                    closeQuietly(pc);
+                }
+            }
+        }
+
+        if (leakThresholdMillis <= 0) return;
+        long now = System.currentTimeMillis();
+        for (PooledConnection pc : borrowed) {
+            if (!pc.leakReported && now - pc.borrowedAt > leakThresholdMillis) {
+                pc.leakReported = true;
+                leakCount.increment();
+                System.err.println("[DATABASE WARNING] Possible connection leak: held for "
+                        + (now - pc.borrowedAt) + "ms");
+                if (pc.borrower != null) pc.borrower.printStackTrace();
+            }
+        }
+    }
+
+    public void shutdown() {
+        closed = true;
+        housekeeper.shutdownNow();
+        PooledConnection pc;
+        while ((pc = idle.pollFirst()) != null) {
+            closeQuietly(pc);
+        }
+        // Borrowed connections are closed as they are returned
+    }
+
+    private void closeQuietly(PooledConnection pc) {
+        try {
+            pc.physical.close();
+        } catch (SQLException ignored) {
+        }
+    }
+
+    // -------------------- METRICS --------------------
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int getActiveCount() {
+        return borrowed.size();
+    }
+
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    public int getWaitingCount() {
+        return permits.getQueueLength();
+    }
+
+    public long getBorrowCount() {
+        return borrowCount.sum();
+    }
+
+    public long getCreatedCount() {
+        return createdCount.sum();
+    }
+
+    public long getTimeoutCount() {
+        return timeoutCount.sum();
+    }
+
+    public long getValidationFailureCount() {
+        return validationFailures.sum();
+    }
+
+    public long getLeakCount() {
+        return leakCount.sum();
+    }
+
+    public double getAverageWaitMillis() {
+        long borrows = borrowCount.sum();
+        return borrows == 0 ? 0 : totalWaitNanos.sum() / 1_000_000.0 / borrows;
+    }
+
+    public double getMaxWaitMillis() {
+        return maxWaitNanos.get() / 1_000_000.0;
+    }
+
+    // Estimated, see recordPrepare
+    public long getStatementCacheHits() {
+        return statementHits.sum();
+    }
+
+    public long getStatementCacheMisses() {
+        return statementMisses.sum();
+    }
+
+    /**
+     * @return estimated {hits, misses} for one SQL string
+     */
+    public long[] getStatementStats(String sql) {
+        LongAdder[] counters = statementStats.get(sql);
+        return counters == null ? new long[]{0, 0} : new long[]{counters[0].sum(), counters[1].sum()};
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ConnectionPool{active=%d, idle=%d, max=%d, waiting=%d, borrows=%d, created=%d, " +
+                        "avgWait=%.2fms, maxWait=%.2fms, timeouts=%d, validationFailures=%d, leaks=%d, " +
+                        "estStmtCacheHits=%d, estStmtCacheMisses=%d}",
+                getActiveCount(), getIdleCount(), maxSize, getWaitingCount(), getBorrowCount(), getCreatedCount(),
+                getAverageWaitMillis(), getMaxWaitMillis(), getTimeoutCount(), getValidationFailureCount(),
+                getLeakCount(), getStatementCacheHits(), getStatementCacheMisses());
+    }
+
+    // -------------------- POOLED CONNECTION --------------------
+    private class PooledConnection {
+        final Connection physical;
+        // Only used by the borrowing thread; access order, like the driver's LRU
+        final Map<String, Boolean> preparedSql = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > statementCacheSize;
+            }
+        };
+        volatile long borrowedAt;
+        volatile long lastReturnedAt;
+        volatile Throwable borrower;
+        volatile boolean leakReported;
+
+        PooledConnection(Connection physical) {
+            this.physical = physical;
+        }
+
+        /**
+         * A fresh proxy per borrow, so a stale handle can't touch the connection after it was returned
+         */
+        Connection newHandle() {
+            InvocationHandler handler = new InvocationHandler() {
+                private boolean handleClosed;
+
+                @Override
+                public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                    switch (method.getName()) {
+                        case "close":
+                            if (!handleClosed) {
+                                handleClosed = true;
+                                release(PooledConnection.this);
+                            }
+                            return null;
+                        case "isClosed":
+                            return handleClosed || physical.isClosed();
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "toString":
+                            return "Pooled" + physical;
+                        default:
+                            if (handleClosed) throw new SQLException("Connection has been returned to the pool");
+                            // Every prepareStatement/prepareCall overload takes the SQL first
+                            if (("prepareStatement".equals(method.getName()) || "prepareCall".equals(method.getName()))
+                                    && args != null && args.length > 0 && args[0] instanceof String sql) {
+                                recordPrepare(PooledConnection.this, sql);
+                            }
+                            try {
+                                return method.invoke(physical, args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getCause();
+                            }
+                    }
+                }
+            };
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, handler);
+        }
+    }
+}
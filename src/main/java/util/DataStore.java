@@ -1,17 +1,29 @@
 package util;
 
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import model.RecurrenceRule;
 import model.Reservation;
+import model.ReservationStatus;
+import model.ReservationSeries;
 import model.Room;
 import model.User;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
 import java.time.LocalDate;
 import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
 
 /**
  * MySQL Database Manager for Conference Room System
@@ -30,31 +42,106 @@ public class DataStore {
     private static final String DB_PASSWORD = System.getenv("DB_PASSWORD") != null ?
             System.getenv("DB_PASSWORD") : "";
 
+    private static final int STATEMENT_CACHE_SIZE = 250;
+
     private static final String DB_URL = String.format(
-            "jdbc:mysql://%s:%s/%s?createDatabaseIfNotExist=true&useSSL=false&serverTimezone=UTC&allowPublicKeyRetrieval=true",
-            DB_HOST, DB_PORT, DB_NAME
+            "jdbc:mysql://%s:%s/%s?createDatabaseIfNotExist=true&useSSL=false&serverTimezone=UTC&allowPublicKeyRetrieval=true"
+                    // Server-side prepared statements, cached per pooled connection
+                    + "&useServerPrepStmts=true&cachePrepStmts=true&prepStmtCacheSize=%d&prepStmtCacheSqlLimit=2048"
+                    // Send executeBatch() as multi-row INSERTs instead of one round trip per row
+                    + "&rewriteBatchedStatements=true",
+            DB_HOST, DB_PORT, DB_NAME, STATEMENT_CACHE_SIZE
     );
 
-    private static Connection connection;
+    // Connection pool settings
+    private static final int POOL_SIZE = Integer.parseInt(System.getenv("DB_POOL_SIZE") != null ?
+            System.getenv("DB_POOL_SIZE") : "10");
+    private static final long POOL_MAX_WAIT_MS = Long.parseLong(System.getenv("DB_POOL_MAX_WAIT_MS") != null ?
+            System.getenv("DB_POOL_MAX_WAIT_MS") : "5000");
+    private static final long POOL_LEAK_THRESHOLD_MS = Long.parseLong(System.getenv("DB_POOL_LEAK_MS") != null ?
+            System.getenv("DB_POOL_LEAK_MS") : "30000");
+
+    private static volatile ConnectionPool pool;
+    // Guards connecting and closing the pool
+    private static final ReentrantLock lifecycleLock = new ReentrantLock();
+
+    // User lookups for notification emails, invalidated by local user writes and by USERS
+    // changes from the change feed
+    private static final int USER_CACHE_SIZE = Integer.parseInt(System.getenv("USER_CACHE_SIZE") != null ?
+            System.getenv("USER_CACHE_SIZE") : "500");
+    private static final long USER_CACHE_TTL_SECONDS = Long.parseLong(System.getenv("USER_CACHE_TTL_SECONDS") != null ?
+            System.getenv("USER_CACHE_TTL_SECONDS") : "300");
+    private static final UserCache userCache = new UserCache(USER_CACHE_SIZE, USER_CACHE_TTL_SECONDS * 1000);
 
     private static final ObservableList<User> userList = FXCollections.observableArrayList();
     private static final ObservableList<Room> rooms = FXCollections.observableArrayList();
     private static final ObservableList<Reservation> reservations = FXCollections.observableArrayList();
 
+    // Delta sync state: the reservation list is patched in place from updated_at and a tombstone log.
+    // updated_at and tombstone ids are stamped when a row is written, not when its transaction
+    // commits, so each delta re-reads a window wider than any transaction can stay open (the
+    // default lock wait timeout is 50 s), and a periodic reconcile against the full table catches
+    // whatever still slips past it. Syncs take a ReentrantLock, not a monitor, because they run
+    // JDBC on virtual threads and a monitor would pin the carrier while they wait.
+    private static final ReentrantLock reservationSyncLock = new ReentrantLock();
+    private static final Map<Integer, Reservation> reservationsById = new HashMap<>();
+    private static final int DELTA_OVERLAP_SECONDS = 120;
+    private static final long RECONCILE_INTERVAL_MS = Long.parseLong(System.getenv("RESERVATION_RECONCILE_MS") != null ?
+            System.getenv("RESERVATION_RECONCILE_MS") : "600000");
+    private static final int TOMBSTONE_RETENTION_DAYS = 7;
+    private static volatile boolean deltaSyncEnabled = true;
+    private static volatile Timestamp reservationHighWater; // database time at the start of the last sync
+    private static long lastReservationSyncMillis;
+    private static long lastReconcileMillis;
+
+    // Slot granularity for reservation_slots claims; matches the form's 15-minute choices
+    private static final int SLOT_MINUTES = 15;
+    private static final int MYSQL_DUPLICATE_KEY = 1062;
+
+    // Approved/pending bookings per room-day, kept in step with the reservation list
+    private static final ReservationIndex reservationIndex = new ReservationIndex();
+    // Active recurring series, reloaded with every reservation sync; there are few of them
+    private static volatile List<ReservationSeries> activeSeries = List.of();
+    private static final LocalDate OPEN_START = LocalDate.of(1970, 1, 1);
+    private static final LocalDate OPEN_END = LocalDate.of(9999, 12, 31);
+
+    // Same order as the SQL: date DESC, startTime DESC, id DESC
+    private static final Comparator<Reservation> RESERVATION_ORDER = (a, b) -> {
+        int c = Integer.compare(b.getEpochDay(), a.getEpochDay());
+        if (c != 0) return c;
+        c = Integer.compare(b.getStartMinute(), a.getStartMinute());
+        if (c != 0) return c;
+        return Integer.compare(b.getId(), a.getId());
+    };
+
     // -------------------- INITIALIZATION --------------------
     public static void initialize() {
+        if (pool != null) return; // already connected; controllers call this on every view load
+        // A lock rather than synchronized: this is reached from virtual threads and does JDBC work
+        lifecycleLock.lock();
         try {
+            if (pool != null) return;
+
             // Load MySQL JDBC Driver
             Class.forName("com.mysql.cj.jdbc.Driver");
 
-            // Establish connection
-            connection = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
-            System.out.println("[DATABASE] Connected to MySQL database");
-            System.out.println("[DATABASE] Host: " + DB_HOST + ":" + DB_PORT);
-            System.out.println("[DATABASE] Database: " + DB_NAME);
+            // Establish connection pool and verify we can reach the server
+            ConnectionPool newPool = new ConnectionPool(DB_URL, DB_USER, DB_PASSWORD,
+                    POOL_SIZE, POOL_MAX_WAIT_MS, POOL_LEAK_THRESHOLD_MS, STATEMENT_CACHE_SIZE);
+            try (Connection conn = newPool.getConnection()) {
+                System.out.println("[DATABASE] Connected to MySQL database");
+                System.out.println("[DATABASE] Host: " + DB_HOST + ":" + DB_PORT);
+                System.out.println("[DATABASE] Database: " + DB_NAME);
+                System.out.println("[DATABASE] Connection pool size: " + POOL_SIZE);
 
-            createTables();
+                createTables(conn);
+            } catch (SQLException e) {
+                newPool.shutdown();
+                throw e;
+            }
+            pool = newPool;
             initializeSampleData();
+            EmailOutbox.start();
         } catch (ClassNotFoundException e) {
             System.err.println("[DATABASE ERROR] MySQL JDBC driver not found!");
             System.err.println("[DATABASE ERROR] Add MySQL Connector/J to your classpath");
@@ -64,11 +151,13 @@ public class DataStore {
             System.err.println("[DATABASE ERROR] Check your MySQL server is running and credentials are correct");
             System.err.println("[DATABASE ERROR] Connection URL: " + DB_URL);
             e.printStackTrace();
+        } finally {
+            lifecycleLock.unlock();
         }
     }
 
-    private static void createTables() throws SQLException {
-        Statement stmt = connection.createStatement();
+    private static void createTables(Connection conn) throws SQLException {
+        Statement stmt = conn.createStatement();
 
         // Create Users table
         String createUsersTable = """
@@ -117,13 +206,131 @@ public class DataStore {
                 INDEX idx_date (date),
                 INDEX idx_status (status),
                 INDEX idx_room_date (room_name, date),
+                INDEX idx_updated_at (updated_at),
+                INDEX idx_date_start_id (date, startTime, id),
                 FOREIGN KEY (room_name) REFERENCES rooms(name) ON DELETE CASCADE
             ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
             """;
         stmt.execute(createReservationsTable);
+        ensureIndex(conn, "reservations", "idx_updated_at", "updated_at");
+        // Keyset paging of the admin reservation table
+        ensureIndex(conn, "reservations", "idx_date_start_id", "date, startTime, id");
+
+        // Deleted reservation ids, so other clients can drop them during a delta sync
+        String createTombstonesTable = """
+            CREATE TABLE IF NOT EXISTS reservation_tombstones (
+                id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                reservation_id INT NOT NULL,
+                deleted_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                INDEX idx_deleted_at (deleted_at)
+            ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+            """;
+        stmt.execute(createTombstonesTable);
+
+        // One row per (room, date, 15-minute slot) held by a pending or approved booking.
+        // The primary key makes the database itself reject overlapping bookings.
+        String createSlotsTable = """
+            CREATE TABLE IF NOT EXISTS reservation_slots (
+                room_name VARCHAR(255) NOT NULL,
+                date DATE NOT NULL,
+                slot TINYINT UNSIGNED NOT NULL,
+                reservation_id INT NOT NULL,
+                PRIMARY KEY (room_name, date, slot),
+                INDEX idx_reservation (reservation_id),
+                FOREIGN KEY (reservation_id) REFERENCES reservations(id) ON DELETE CASCADE
+            ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+            """;
+        stmt.execute(createSlotsTable);
+
+        // Recurring bookings, one row per series; occurrences are worked out from the rule
+        String createSeriesTable = """
+            CREATE TABLE IF NOT EXISTS reservation_series (
+                id INT AUTO_INCREMENT PRIMARY KEY,
+                username VARCHAR(100) NOT NULL,
+                room_name VARCHAR(255) NOT NULL,
+                startTime TIME NOT NULL,
+                endTime TIME NOT NULL,
+                status VARCHAR(50) NOT NULL DEFAULT 'pending',
+                rule VARCHAR(255) NOT NULL,
+                start_date DATE NOT NULL,
+                until_date DATE NULL,
+                exceptions TEXT,
+                created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+                INDEX idx_series_room (room_name, start_date),
+                INDEX idx_series_user (username),
+                FOREIGN KEY (room_name) REFERENCES rooms(name) ON DELETE CASCADE
+            ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+            """;
+        stmt.execute(createSeriesTable);
+
+        // Change feed: clients poll these counters and only re-read the tables that moved
+        String createVersionsTable = """
+            CREATE TABLE IF NOT EXISTS table_versions (
+                table_name VARCHAR(64) PRIMARY KEY,
+                version BIGINT NOT NULL DEFAULT 0
+            ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+            """;
+        stmt.execute(createVersionsTable);
+
+        // Notifications to send, one row per email; see EmailOutbox
+        String createOutboxTable = """
+            CREATE TABLE IF NOT EXISTS email_outbox (
+                id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                idempotency_key VARCHAR(191) NOT NULL,
+                kind VARCHAR(32) NOT NULL,
+                username VARCHAR(100),
+                email VARCHAR(255),
+                reservation_id INT,
+                room_name VARCHAR(255),
+                date DATE,
+                startTime TIME,
+                endTime TIME,
+                res_status VARCHAR(50),
+                state VARCHAR(16) NOT NULL DEFAULT 'pending',
+                attempts INT NOT NULL DEFAULT 0,
+                next_attempt_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                last_error VARCHAR(1000),
+                created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                sent_at TIMESTAMP NULL,
+                UNIQUE KEY uk_outbox_key (idempotency_key),
+                INDEX idx_outbox_due (state, next_attempt_at),
+                INDEX idx_outbox_user (username, state)
+            ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+            """;
+        stmt.execute(createOutboxTable);
+        try (PreparedStatement seed = conn.prepareStatement(SqlQuery.SEED_TABLE_VERSION.sql())) {
+            for (String table : ChangeFeed.TABLES) {
+                seed.setString(1, table);
+                seed.addBatch();
+            }
+            seed.executeBatch();
+        }
+        stmt.executeUpdate("DELETE FROM reservation_tombstones WHERE deleted_at < NOW() - INTERVAL "
+                + TOMBSTONE_RETENTION_DAYS + " DAY");
 
         stmt.close();
         System.out.println("[DATABASE] Tables created successfully with indexes");
+
+        backfillSlotClaims(conn);
+    }
+
+    // Reservations made before reservation_slots existed get their claims on first start
+    private static void backfillSlotClaims(Connection conn) throws SQLException {
+        List<Reservation> unclaimed = new ArrayList<>();
+        try (PreparedStatement pstmt = conn.prepareStatement(SqlQuery.UNCLAIMED_ACTIVE_RESERVATIONS.sql());
+             ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                unclaimed.add(readReservation(rs));
+            }
+        }
+        for (Reservation r : unclaimed) {
+            // INSERT IGNORE: legacy rows may already overlap each other
+            claimSlots(conn, r, true);
+        }
+        if (!unclaimed.isEmpty()) {
+            System.out.println("[DATABASE] Backfilled slot claims for " + unclaimed.size() + " reservation(s)");
+        }
     }
 
     private static void initializeSampleData() throws SQLException {
@@ -137,42 +344,59 @@ public class DataStore {
         }
 
         if (countUsers() == 0) {
-            addUser("admin", "admin@example.com", "admin123", "admin");
-            addUser("john_doe", "john@example.com", "password123", "user");
-            addUser("jane_smith", "jane@example.com", "password123", "user");
+            addUser("admin", "admin@example.com", PasswordHasher.hash("admin123"), "admin");
+            addUser("john_doe", "john@example.com", PasswordHasher.hash("password123"), "user");
+            addUser("jane_smith", "jane@example.com", PasswordHasher.hash("password123"), "user");
             System.out.println("[DATABASE] Sample users initialized");
         }
     }
 
+    private static void ensureIndex(Connection conn, String table, String index, String columns) throws SQLException {
+        String sql = SqlQuery.INDEX_EXISTS.sql();
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, table);
+            pstmt.setString(2, index);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) return;
+            }
+        }
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("ALTER TABLE " + table + " ADD INDEX " + index + " (" + columns + ")");
+            System.out.println("[DATABASE] Added index " + index + " on " + table);
+        }
+    }
+
     private static int countUsers() throws SQLException {
-        String sql = "SELECT COUNT(*) FROM users";
-        try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+        String sql = SqlQuery.COUNT_USERS.sql();
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
             return rs.next() ? rs.getInt(1) : 0;
         }
     }
 
     private static int countRooms() throws SQLException {
-        String sql = "SELECT COUNT(*) FROM rooms";
-        try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+        String sql = SqlQuery.COUNT_ROOMS.sql();
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
             return rs.next() ? rs.getInt(1) : 0;
         }
     }
 
     // -------------------- USER METHODS --------------------
     public static void loadUsers(String filePath) {
-        if (connection == null) initialize();
         syncUsersFromDB();
     }
 
     private static void syncUsersFromDB() {
-        userList.clear();
-        String sql = "SELECT * FROM users ORDER BY id";
-        try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+        List<User> loaded = new ArrayList<>();
+        String sql = SqlQuery.ALL_USERS.sql();
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
             while (rs.next()) {
-                userList.add(new User(
+                loaded.add(new User(
                         rs.getString("username"),
                         rs.getString("email"),
                         rs.getString("password"),
@@ -182,34 +406,54 @@ public class DataStore {
         } catch (SQLException e) {
             System.err.println("[DATABASE ERROR] Failed to sync users: " + e.getMessage());
             e.printStackTrace();
+            return;
         }
+        applyToLists(() -> userList.setAll(loaded));
     }
 
     public static ObservableList<User> getUsers() {
-        if (connection == null) initialize();
         syncUsersFromDB();
         return userList;
     }
 
+    /**
+     * Check a password against the stored hash; slow on purpose, see PasswordHasher
+     */
     public static boolean validateUser(String email, String password) {
-        if (connection == null) initialize();
-        String sql = "SELECT * FROM users WHERE email = ? AND password = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, email);
-            pstmt.setString(2, password);
-            return pstmt.executeQuery().next();
+        User user = loadUserByEmail(email);
+        return PasswordHasher.verify(password, user != null ? user.getPassword() : null);
+    }
+
+    /**
+     * Swap the stored password for a new one (e.g. a hash for a plaintext password), unless it
+     * was changed in the meantime
+     * @return whether the password was replaced
+     */
+    public static boolean replacePassword(String email, String current, String replacement) {
+        String sql = SqlQuery.UPDATE_PASSWORD.sql();
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, replacement);
+            pstmt.setString(2, email);
+            pstmt.setString(3, current);
+            if (pstmt.executeUpdate() == 0) return false;
+            userCache.invalidate(email);
         } catch (SQLException e) {
-            System.err.println("[DATABASE ERROR] Failed to validate user: " + e.getMessage());
+            System.err.println("[DATABASE ERROR] Failed to replace password: " + e.getMessage());
             return false;
         }
+        bumpVersions(ChangeFeed.USERS);
+        return true;
     }
 
     public static boolean userExists(String email) {
-        if (connection == null) initialize();
-        String sql = "SELECT * FROM users WHERE email = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        String sql = SqlQuery.USER_EXISTS.sql();
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, email);
-            return pstmt.executeQuery().next();
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next();
+            }
         } catch (SQLException e) {
             return false;
         }
@@ -217,36 +461,45 @@ public class DataStore {
 
     public static void addUser(String username, String email, String password, String role) {
         if (userExists(email)) return;
-        String sql = "INSERT INTO users (username, email, password, role) VALUES (?, ?, ?, ?)";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, username);
-            pstmt.setString(2, email);
-            pstmt.setString(3, password);
-            pstmt.setString(4, role);
-            pstmt.executeUpdate();
-            syncUsersFromDB();
-
-            // Send welcome email for new users
-            if ("user".equalsIgnoreCase(role)) {
-                User newUser = getUserByEmail(email);
-                if (newUser != null) {
-                    EmailService.getInstance().sendWelcomeEmail(newUser);
+        String sql = SqlQuery.INSERT_USER.sql();
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setString(1, username);
+                pstmt.setString(2, email);
+                pstmt.setString(3, password);
+                pstmt.setString(4, role);
+                pstmt.executeUpdate();
+                // Welcome email for new users
+                if ("user".equalsIgnoreCase(role)) {
+                    EmailOutbox.enqueue(conn, "welcome:" + email, EmailService.Kind.WELCOME, username, email, null);
                 }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
             }
+            userCache.invalidate(email); // a username could have been cached for an older row
         } catch (SQLException e) {
             System.err.println("[DATABASE ERROR] Failed to add user: " + e.getMessage());
             e.printStackTrace();
+            return;
         }
+        bumpVersions(ChangeFeed.USERS);
+        EmailOutbox.wake();
+        // Connection is back in the pool before the follow-up reads
+        syncUsersFromDB();
     }
 
     public static boolean isAdmin(String email) {
-        if (connection == null) initialize();
-        String sql = "SELECT role FROM users WHERE email = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        String sql = SqlQuery.USER_ROLE_BY_EMAIL.sql();
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, email);
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                return "admin".equalsIgnoreCase(rs.getString("role"));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return "admin".equalsIgnoreCase(rs.getString("role"));
+                }
             }
         } catch (SQLException e) {
             System.err.println("[DATABASE ERROR] Failed to check admin status: " + e.getMessage());
@@ -254,19 +507,37 @@ public class DataStore {
         return false;
     }
 
+    /**
+     * Cached lookup for display and notifications; sign-in goes through loadUserByEmail
+     */
     public static User getUserByEmail(String email) {
-        if (connection == null) initialize();
-        String sql = "SELECT * FROM users WHERE email = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        User cached = userCache.getByEmail(email);
+        if (cached != null) return cached;
+
+        long cacheVersion = userCache.version();
+        User user = loadUserByEmail(email);
+        if (user != null) userCache.put(user, cacheVersion);
+        return user;
+    }
+
+    /**
+     * Read the user row straight from the database, bypassing the cache, so a password, role or
+     * deletion changed by another client counts at once
+     */
+    public static User loadUserByEmail(String email) {
+        String sql = SqlQuery.USER_BY_EMAIL.sql();
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, email);
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                return new User(
-                        rs.getString("username"),
-                        rs.getString("email"),
-                        rs.getString("password"),
-                        rs.getString("role")
-                );
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return new User(
+                            rs.getString("username"),
+                            rs.getString("email"),
+                            rs.getString("password"),
+                            rs.getString("role")
+                    );
+                }
             }
         } catch (SQLException e) {
             System.err.println("[DATABASE ERROR] Failed to get user: " + e.getMessage());
@@ -279,28 +550,34 @@ public class DataStore {
     }
 
     public static void updateUser(User user) {
-        String sql = "UPDATE users SET username = ?, password = ?, role = ? WHERE email = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        String sql = SqlQuery.UPDATE_USER.sql();
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, user.getUsername());
             pstmt.setString(2, user.getPassword());
             pstmt.setString(3, user.getRole());
             pstmt.setString(4, user.getEmail());
             pstmt.executeUpdate();
-            syncUsersFromDB();
+            userCache.invalidate(user.getEmail());
         } catch (SQLException e) {
             System.err.println("[DATABASE ERROR] Failed to update user: " + e.getMessage());
+            return;
         }
+        bumpVersions(ChangeFeed.USERS);
+        syncUsersFromDB();
     }
 
     public static void deleteUser(User user) {
-        if (connection == null) initialize();
-        String sql = "DELETE FROM users WHERE email = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        String sql = SqlQuery.DELETE_USER.sql();
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, user.getEmail());
             int rows = stmt.executeUpdate();
+            userCache.invalidate(user.getEmail());
 
             if (rows > 0) {
-                userList.remove(user); // keep local list in sync
+                bumpVersions(conn, ChangeFeed.USERS);
+                applyToLists(() -> userList.remove(user)); // keep local list in sync
                 System.out.println("[DATABASE] User deleted from MySQL: " + user.getEmail());
             } else {
                 System.out.println("[DATABASE] No user found to delete: " + user.getEmail());
@@ -318,17 +595,17 @@ public class DataStore {
 
     // -------------------- ROOM METHODS --------------------
     public static void loadRooms() {
-        if (connection == null) initialize();
         syncRoomsFromDB();
     }
 
     private static void syncRoomsFromDB() {
-        rooms.clear();
-        String sql = "SELECT * FROM rooms ORDER BY id";
-        try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+        List<Room> loaded = new ArrayList<>();
+        String sql = SqlQuery.ALL_ROOMS.sql();
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
             while (rs.next()) {
-                rooms.add(new Room(
+                loaded.add(new Room(
                         rs.getString("name"),
                         rs.getString("status"),
                         rs.getString("imagePath")
@@ -336,102 +613,153 @@ public class DataStore {
             }
         } catch (SQLException e) {
             System.err.println("[DATABASE ERROR] Failed to sync rooms: " + e.getMessage());
+            return;
         }
+        applyToLists(() -> rooms.setAll(loaded));
     }
 
     public static ObservableList<Room> getRooms() {
-        if (connection == null) initialize();
         syncRoomsFromDB();
         return rooms;
     }
 
+    /**
+     * Answered from the occupancy index, which every DataStore write and sync keeps current.
+     */
     public static String computeRoomStatusNow(String roomName) {
-        String sql = "SELECT status, date, startTime, endTime FROM reservations WHERE room_name = ?";
-        boolean hasPending = false;
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
-            ps.setString(1, roomName);
-            try (ResultSet rs = ps.executeQuery()) {
-                LocalDate today = LocalDate.now();
-                LocalTime now = LocalTime.now();
-                DateTimeFormatter tf = DateTimeFormatter.ofPattern("H:mm[:ss]")
-                        .withResolverStyle(java.time.format.ResolverStyle.LENIENT);
+        ensureReservationsLoaded();
+        LocalTime now = LocalTime.now();
+        int status = reservationIndex.statusFor(roomName, (int) LocalDate.now().toEpochDay(),
+                now.getHour() * 60 + now.getMinute(), now.getHour() * 60 + now.getMinute() + 1);
+        String seriesStatus = computeSeriesStatusesNow().get(roomName);
+        if (status == ReservationIndex.APPROVED) return "Occupied";
+        if (seriesStatus != null) return seriesStatus;
+        return status == ReservationIndex.PENDING ? "Pending" : "Available";
+    }
 
-                while (rs.next()) {
-                    Date dateObj = rs.getDate("date");
-                    String stStr = rs.getString("startTime");
-                    String enStr = rs.getString("endTime");
-                    String status = rs.getString("status");
-
-                    if (dateObj == null || stStr == null || enStr == null) continue;
-                    LocalDate resDate = dateObj.toLocalDate();
-                    if (!today.equals(resDate)) continue;
-
-                    LocalTime st = LocalTime.parse(stStr, tf);
-                    LocalTime en = LocalTime.parse(enStr, tf);
-                    boolean overlapsNow = !now.isBefore(st) && now.isBefore(en);
-
-                    if (overlapsNow) {
-                        if ("approved".equalsIgnoreCase(status)) return "Occupied";
-                        if ("pending".equalsIgnoreCase(status)) hasPending = true;
-                    }
-                }
+    /**
+     * Current status of every room with a booking right now, one bitmap test per room.
+     * Rooms missing from the map are "Available".
+     */
+    public static Map<String, String> computeRoomStatusesNow() {
+        ensureReservationsLoaded();
+        LocalTime now = LocalTime.now();
+        Map<String, String> statuses = new HashMap<>();
+        reservationIndex.statusesAt((int) LocalDate.now().toEpochDay(), now.getHour() * 60 + now.getMinute())
+                .forEach((room, status) -> statuses.put(room, status == ReservationIndex.APPROVED ? "Occupied" : "Pending"));
+        computeSeriesStatusesNow().forEach((room, status) -> {
+            if ("Occupied".equals(status)) {
+                statuses.put(room, status);
+            } else {
+                statuses.putIfAbsent(room, status);
+            }
+        });
+        return statuses;
+    }
+
+    // Rooms with a series occurrence running right now
+    private static Map<String, String> computeSeriesStatusesNow() {
+        ensureReservationsLoaded();
+        Map<String, String> statuses = new HashMap<>();
+        LocalDate today = LocalDate.now();
+        LocalTime now = LocalTime.now();
+        for (ReservationSeries s : activeSeries) {
+            if (!s.isRunningAt(today, now)) continue;
+            if (ReservationStatus.of(s.getStatus()).isApproved()) {
+                statuses.put(s.getRoomName(), "Occupied");
+            } else {
+                statuses.putIfAbsent(s.getRoomName(), "Pending");
             }
-        } catch (SQLException e) {
-            System.err.println("[DATABASE ERROR] computeRoomStatusNow: " + e.getMessage());
         }
-        return hasPending ? "Pending" : "Available";
+        return statuses;
     }
 
     public static void addRoom(Room room) {
-        String sql = "INSERT INTO rooms (name, status, imagePath) VALUES (?, ?, ?)";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        String sql = SqlQuery.INSERT_ROOM.sql();
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, room.getName());
             pstmt.setString(2, room.getStatus());
             pstmt.setString(3, room.getImagePath());
             pstmt.executeUpdate();
-            syncRoomsFromDB();
         } catch (SQLException e) {
             System.err.println("[DATABASE ERROR] Failed to add room: " + e.getMessage());
+            return;
         }
+        bumpVersions(ChangeFeed.ROOMS);
+        syncRoomsFromDB();
     }
 
     public static void removeRoom(Room room) {
-        String sql = "DELETE FROM rooms WHERE name = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, room.getName());
-            pstmt.executeUpdate();
-            syncRoomsFromDB();
+        // Cascaded deletes don't fire anything we can observe, so record the tombstones first
+        String tombstoneSql = SqlQuery.TOMBSTONE_ROOM_RESERVATIONS.sql();
+        String sql = SqlQuery.DELETE_ROOM.sql();
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement tomb = conn.prepareStatement(tombstoneSql);
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                tomb.setString(1, room.getName());
+                tomb.executeUpdate();
+                pstmt.setString(1, room.getName());
+                pstmt.executeUpdate();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
         } catch (SQLException e) {
             System.err.println("[DATABASE ERROR] Failed to remove room: " + e.getMessage());
+            return;
         }
+        // The room's bookings and series went with it (ON DELETE CASCADE)
+        bumpVersions(ChangeFeed.ROOMS, ChangeFeed.RESERVATIONS, ChangeFeed.SERIES);
+        syncRoomsFromDB();
+        syncReservationsFromDB();
     }
 
+    /**
+     * Write back the rooms in the shared list. Only rooms that differ from their row are written,
+     * and other clients are only told about rooms when one did, so the periodic auto-backup of an
+     * unchanged list costs them nothing.
+     */
     public static void saveRooms() {
-        for (Room room : rooms) {
-            String sql = "UPDATE rooms SET status = ?, imagePath = ? WHERE name = ?";
-            try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-                pstmt.setString(1, room.getStatus());
-                pstmt.setString(2, room.getImagePath());
-                pstmt.setString(3, room.getName());
-                pstmt.executeUpdate();
-            } catch (SQLException e) {
-                System.err.println("[DATABASE ERROR] Failed to save room: " + e.getMessage());
+        String sql = SqlQuery.UPDATE_ROOM_IF_CHANGED.sql();
+        int changed = 0;
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (Room room : rooms) {
+                try {
+                    pstmt.setString(1, room.getStatus());
+                    pstmt.setString(2, room.getImagePath());
+                    pstmt.setString(3, room.getName());
+                    pstmt.setString(4, room.getStatus());
+                    pstmt.setString(5, room.getImagePath());
+                    changed += pstmt.executeUpdate();
+                } catch (SQLException e) {
+                    System.err.println("[DATABASE ERROR] Failed to save room: " + e.getMessage());
+                }
             }
+        } catch (SQLException e) {
+            System.err.println("[DATABASE ERROR] Failed to save rooms: " + e.getMessage());
+            return;
         }
-        System.out.println("[DATABASE] Rooms saved to MySQL database");
+        if (changed > 0) bumpVersions(ChangeFeed.ROOMS);
+        System.out.println("[DATABASE] Rooms saved to MySQL database (" + changed + " changed)");
     }
 
     public static Room getRoomByName(String name) {
-        String sql = "SELECT * FROM rooms WHERE name = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        String sql = SqlQuery.ROOM_BY_NAME.sql();
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, name);
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                return new Room(
-                        rs.getString("name"),
-                        rs.getString("status"),
-                        rs.getString("imagePath")
-                );
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return new Room(
+                            rs.getString("name"),
+                            rs.getString("status"),
+                            rs.getString("imagePath")
+                    );
+                }
             }
         } catch (SQLException e) {
             System.err.println("[DATABASE ERROR] Failed to get room: " + e.getMessage());
@@ -440,80 +768,271 @@ public class DataStore {
     }
 
     public static void updateRoom(Room room) {
-        String sql = "UPDATE rooms SET status = ?, imagePath = ? WHERE name = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        String sql = SqlQuery.UPDATE_ROOM.sql();
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, room.getStatus());
             pstmt.setString(2, room.getImagePath());
             pstmt.setString(3, room.getName());
             pstmt.executeUpdate();
-            syncRoomsFromDB();
         } catch (SQLException e) {
             System.err.println("[DATABASE ERROR] Failed to update room: " + e.getMessage());
+            return;
         }
+        bumpVersions(ChangeFeed.ROOMS);
+        syncRoomsFromDB();
     }
 
     // -------------------- RESERVATION METHODS --------------------
     public static void loadReservations() {
-        if (connection == null) initialize();
         syncReservationsFromDB();
     }
 
+    /**
+     * Bring the reservation list up to date. After the first full load only rows changed since the
+     * last sync (plus tombstones for deleted rows) are read and patched into the list in place;
+     * every RESERVATION_RECONCILE_MS the list is checked against the whole table instead.
+     */
     private static void syncReservationsFromDB() {
-        reservations.clear();
-        String sql = "SELECT * FROM reservations ORDER BY date DESC, startTime DESC";
-        try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+        reservationSyncLock.lock();
+        try {
+            long now = System.currentTimeMillis();
+            boolean tombstonesRetained = now - lastReservationSyncMillis
+                    < (TOMBSTONE_RETENTION_DAYS - 1) * 24L * 60 * 60 * 1000;
+            try (Connection conn = getConnection()) {
+                if (!deltaSyncEnabled || reservationHighWater == null || !tombstonesRetained) {
+                    fullSyncReservations(conn);
+                    lastReconcileMillis = now;
+                } else if (now - lastReconcileMillis >= RECONCILE_INTERVAL_MS) {
+                    reconcileReservations(conn);
+                    lastReconcileMillis = now;
+                } else {
+                    deltaSyncReservations(conn);
+                }
+                activeSeries = readSeries(conn, SqlQuery.ACTIVE_SERIES);
+                lastReservationSyncMillis = now;
+            } catch (SQLException e) {
+                System.err.println("[DATABASE ERROR] Failed to sync reservations: " + e.getMessage());
+            }
+        } finally {
+            reservationSyncLock.unlock();
+        }
+    }
+
+    private static void fullSyncReservations(Connection conn) throws SQLException {
+        Timestamp syncStart = currentDatabaseTime(conn);
+        List<Reservation> loaded = readAllReservations(conn);
+
+        reservationsById.clear();
+        for (Reservation r : loaded) {
+            reservationsById.put(r.getId(), r);
+        }
+        applyToLists(() -> reservations.setAll(loaded));
+        reservationIndex.rebuild(loaded);
+        reservationHighWater = syncStart;
+    }
+
+    private static void deltaSyncReservations(Connection conn) throws SQLException {
+        Timestamp syncStart = currentDatabaseTime(conn);
+        Timestamp since = new Timestamp(reservationHighWater.getTime() - DELTA_OVERLAP_SECONDS * 1000L);
+        int changed = 0;
+
+        try (PreparedStatement pstmt = conn.prepareStatement(SqlQuery.RESERVATIONS_CHANGED_SINCE.sql())) {
+            pstmt.setTimestamp(1, since);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    if (upsertReservation(readReservation(rs))) changed++;
+                }
+            }
+        }
+
+        // Ids are never reused, so applying a tombstone twice is harmless
+        try (PreparedStatement pstmt = conn.prepareStatement(SqlQuery.TOMBSTONES_SINCE.sql())) {
+            pstmt.setTimestamp(1, since);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    if (removeReservationById(rs.getInt("reservation_id"))) changed++;
+                }
+            }
+        }
+
+        reservationHighWater = syncStart;
+        if (changed > 0) {
+            System.out.println("[DATABASE] Delta sync applied " + changed + " reservation change(s)");
+        }
+    }
+
+    /**
+     * Compare the list with the whole table and patch in whatever the delta syncs missed,
+     * in place, so the list doesn't flicker the way a full reload would
+     */
+    private static void reconcileReservations(Connection conn) throws SQLException {
+        Timestamp syncStart = currentDatabaseTime(conn);
+        List<Reservation> loaded = readAllReservations(conn);
+
+        int changed = 0;
+        Set<Integer> ids = new HashSet<>();
+        for (Reservation r : loaded) {
+            ids.add(r.getId());
+            if (upsertReservation(r)) changed++;
+        }
+        for (Integer id : new ArrayList<>(reservationsById.keySet())) {
+            if (!ids.contains(id) && removeReservationById(id)) changed++;
+        }
+
+        reservationHighWater = syncStart;
+        if (changed > 0) {
+            System.out.println("[DATABASE] Reconcile applied " + changed + " reservation change(s) the delta syncs missed");
+        }
+    }
+
+    private static List<Reservation> readAllReservations(Connection conn) throws SQLException {
+        List<Reservation> loaded = new ArrayList<>();
+        try (PreparedStatement pstmt = conn.prepareStatement(SqlQuery.ALL_RESERVATIONS.sql());
+             ResultSet rs = pstmt.executeQuery()) {
             while (rs.next()) {
-                reservations.add(new Reservation(
-                        rs.getString("username"),
-                        rs.getString("room_name"),
-                        rs.getDate("date").toString(),
-                        rs.getString("startTime"),
-                        rs.getString("endTime"),
-                        rs.getString("status")
-                ));
+                loaded.add(readReservation(rs));
             }
-        } catch (SQLException e) {
-            System.err.println("[DATABASE ERROR] Failed to sync reservations: " + e.getMessage());
+        }
+        return loaded;
+    }
+
+    private static boolean upsertReservation(Reservation fresh) {
+        Reservation existing = reservationsById.get(fresh.getId());
+        if (existing != null && sameReservation(existing, fresh)) return false;
+
+        reservationsById.put(fresh.getId(), fresh);
+        reservationIndex.put(fresh);
+
+        // The list patches may run later on the FX thread, so each one re-locates its row
+        applyToLists(() -> {
+            if (existing != null) {
+                int idx = Collections.binarySearch(reservations, existing, RESERVATION_ORDER);
+                if (idx >= 0 && RESERVATION_ORDER.compare(existing, fresh) == 0) {
+                    reservations.set(idx, fresh); // same position, e.g. a status change
+                    return;
+                }
+                if (idx >= 0) reservations.remove(idx);
+            }
+            insertSorted(fresh);
+        });
+        return true;
+    }
+
+    private static boolean removeReservationById(int id) {
+        Reservation existing = reservationsById.remove(id);
+        if (existing == null) return false;
+        reservationIndex.remove(id);
+        applyToLists(() -> {
+            int idx = Collections.binarySearch(reservations, existing, RESERVATION_ORDER);
+            if (idx >= 0) reservations.remove(idx);
+        });
+        return true;
+    }
+
+    private static void insertSorted(Reservation r) {
+        int idx = Collections.binarySearch(reservations, r, RESERVATION_ORDER);
+        if (idx >= 0) {
+            reservations.set(idx, r); // already there (a full sync got in first)
+        } else {
+            reservations.add(-idx - 1, r);
+        }
+    }
+
+    private static boolean sameReservation(Reservation a, Reservation b) {
+        return Objects.equals(a.getUsername(), b.getUsername())
+                && Objects.equals(a.getRoomName(), b.getRoomName())
+                && a.getEpochDay() == b.getEpochDay()
+                && a.getStartMinute() == b.getStartMinute()
+                && a.getEndMinute() == b.getEndMinute()
+                && a.getReservationStatus() == b.getReservationStatus();
+    }
+
+    private static Reservation readReservation(ResultSet rs) throws SQLException {
+        Reservation r = new Reservation(
+                rs.getString("username"),
+                rs.getString("room_name"),
+                (int) rs.getDate("date").toLocalDate().toEpochDay(),
+                Reservation.parseMinutes(rs.getString("startTime")),
+                Reservation.parseMinutes(rs.getString("endTime")),
+                ReservationStatus.of(rs.getString("status"))
+        );
+        r.setId(rs.getInt("id"));
+        return r;
+    }
+
+    private static Timestamp currentDatabaseTime(Connection conn) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(SqlQuery.CURRENT_TIMESTAMP.sql());
+             ResultSet rs = pstmt.executeQuery()) {
+            rs.next();
+            return rs.getTimestamp(1);
         }
     }
 
+    /**
+     * Toggle delta sync. When disabled every sync falls back to a full clear-and-reload.
+     */
+    public static void setDeltaSyncEnabled(boolean enabled) {
+        deltaSyncEnabled = enabled;
+    }
+
+    public static boolean isDeltaSyncEnabled() {
+        return deltaSyncEnabled;
+    }
+
     public static ObservableList<Reservation> getReservations() {
-        if (connection == null) initialize();
         syncReservationsFromDB();
         return reservations;
     }
 
-    public static void addReservation(String username, String roomName, String date) {
-        addReservation(username, roomName, date, "00:00", "23:59", "pending");
+    public static boolean addReservation(String username, String roomName, String date) {
+        return addReservation(username, roomName, date, "00:00", "23:59", "pending");
     }
 
-    public static void addReservation(String username, String roomName, String date,
-                                      String startTime, String endTime, String status) {
-        String sql = "INSERT INTO reservations (username, room_name, date, startTime, endTime, status) VALUES (?, ?, ?, ?, ?, ?)";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, username);
-            pstmt.setString(2, roomName);
-            pstmt.setDate(3, Date.valueOf(date));
-            pstmt.setTime(4, Time.valueOf(startTime + ":00"));
-            pstmt.setTime(5, Time.valueOf(endTime + ":00"));
-            pstmt.setString(6, status);
-            pstmt.executeUpdate();
-            syncReservationsFromDB();
+    /**
+     * Insert the reservation and claim its time slots in one transaction.
+     * @return false if another pending or approved booking already holds any of the slots, or on error
+     */
+    public static boolean addReservation(String username, String roomName, String date,
+                                         String startTime, String endTime, String status) {
+        Reservation newRes = new Reservation(username, roomName, date, startTime, endTime, status);
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    SqlQuery.INSERT_RESERVATION.sql(), Statement.RETURN_GENERATED_KEYS)) {
+                bindReservationKey(pstmt, newRes, 1);
+                pstmt.setString(6, newRes.getStatus());
+                pstmt.executeUpdate();
+                try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                    if (keys.next()) newRes.setId(keys.getInt(1));
+                }
 
-            // Send confirmation email
-            User user = getUserByUsername(username);
-            if (user != null) {
-                Reservation newRes = new Reservation(username, roomName, date, startTime, endTime, status);
-                EmailService.getInstance().sendReservationConfirmation(user, newRes);
+                if (newRes.getReservationStatus().holdsSlot()
+                        && (clashesWithSeries(conn, newRes) || !claimSlots(conn, newRes, false))) {
+                    conn.rollback();
+                    System.out.println("[DATABASE] Slot already taken: " + roomName + " " + date
+                            + " " + startTime + "-" + endTime);
+                    return false;
+                }
+                EmailOutbox.enqueue(conn, "reservation:created:" + newRes.getId(),
+                        EmailService.Kind.CONFIRMATION, newRes);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
             }
         } catch (SQLException e) {
             System.err.println("[DATABASE ERROR] Failed to add reservation: " + e.getMessage());
+            return false;
         }
+        bumpVersions(ChangeFeed.RESERVATIONS);
+        EmailOutbox.wake();
+        syncReservationsFromDB();
+        return true;
     }
 
-    public static void addReservation(Reservation reservation) {
-        addReservation(
+    public static boolean addReservation(Reservation reservation) {
+        return addReservation(
                 reservation.getUsername(),
                 reservation.getRoomName(),
                 reservation.getDate(),
@@ -523,19 +1042,542 @@ public class DataStore {
         );
     }
 
+    /**
+     * Bulk insert for imports. The rows and their slot claims go in as two JDBC batches in one
+     * transaction, and the reservation list is not resynced; call getReservations() once the whole
+     * import is done. If a slot turns out to be taken (e.g. booked meanwhile by another client) the
+     * batch is retried row by row and only the clashing rows are skipped.
+     * @return the rows that were stored, with their ids set
+     */
+    public static List<Reservation> addReservations(List<Reservation> batch, boolean notify) {
+        if (batch.isEmpty()) return List.of();
+        List<Reservation> stored;
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                List<Reservation> admitted = withoutSeriesClashes(conn, batch);
+                insertReservationBatch(conn, admitted);
+                if (claimSlotBatch(conn, admitted)) {
+                    stored = admitted;
+                } else {
+                    conn.rollback();
+                    stored = insertRowByRow(conn, withoutSeriesClashes(conn, batch));
+                }
+                if (notify) {
+                    EmailOutbox.enqueueAll(conn, "reservation:created", EmailService.Kind.CONFIRMATION, stored);
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            System.err.println("[DATABASE ERROR] Failed to add reservation batch: " + e.getMessage());
+            return List.of();
+        }
+        if (!stored.isEmpty()) bumpVersions(ChangeFeed.RESERVATIONS);
+        if (notify) EmailOutbox.wake();
+        return stored;
+    }
+
+    private static void insertReservationBatch(Connection conn, List<Reservation> batch) throws SQLException {
+        if (batch.isEmpty()) return;
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                SqlQuery.INSERT_RESERVATION.sql(), Statement.RETURN_GENERATED_KEYS)) {
+            for (Reservation r : batch) {
+                bindReservationKey(pstmt, r, 1);
+                pstmt.setString(6, r.getStatus());
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+            try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                for (Reservation r : batch) {
+                    if (keys.next()) r.setId(keys.getInt(1));
+                }
+            }
+        }
+    }
+
+    /**
+     * @return false if any slot in the batch is already held
+     */
+    private static boolean claimSlotBatch(Connection conn, List<Reservation> batch) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(SqlQuery.CLAIM_SLOT.sql())) {
+            int rows = 0;
+            for (Reservation r : batch) {
+                if (!r.getReservationStatus().holdsSlot()) continue;
+                Date date = Date.valueOf(r.getLocalDate());
+                int first = r.getStartMinute() / SLOT_MINUTES;
+                int last = (r.getEndMinute() + SLOT_MINUTES - 1) / SLOT_MINUTES;
+                for (int slot = first; slot < last; slot++) {
+                    pstmt.setString(1, r.getRoomName());
+                    pstmt.setDate(2, date);
+                    pstmt.setInt(3, slot);
+                    pstmt.setInt(4, r.getId());
+                    pstmt.addBatch();
+                    rows++;
+                }
+            }
+            if (rows > 0) pstmt.executeBatch();
+            return true;
+        } catch (BatchUpdateException e) {
+            if (e.getErrorCode() == MYSQL_DUPLICATE_KEY) return false;
+            throw e;
+        } catch (SQLIntegrityConstraintViolationException e) {
+            if (e.getErrorCode() == MYSQL_DUPLICATE_KEY) return false;
+            throw e;
+        }
+    }
+
+    // Slow path for a batch with a clash: a savepoint per row so a taken slot only undoes that row
+    private static List<Reservation> insertRowByRow(Connection conn, List<Reservation> batch) throws SQLException {
+        List<Reservation> stored = new ArrayList<>();
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                SqlQuery.INSERT_RESERVATION.sql(), Statement.RETURN_GENERATED_KEYS)) {
+            for (Reservation r : batch) {
+                Savepoint savepoint = conn.setSavepoint();
+                bindReservationKey(pstmt, r, 1);
+                pstmt.setString(6, r.getStatus());
+                pstmt.executeUpdate();
+                try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                    if (keys.next()) r.setId(keys.getInt(1));
+                }
+                if (r.getReservationStatus().holdsSlot() && !claimSlots(conn, r, false)) {
+                    conn.rollback(savepoint);
+                    System.out.println("[DATABASE] Slot already taken: " + r.getRoomName() + " " + r.getDate()
+                            + " " + r.getStartTime() + "-" + r.getEndTime());
+                    continue;
+                }
+                conn.releaseSavepoint(savepoint);
+                stored.add(r);
+            }
+        }
+        return stored;
+    }
+
+    // -------------------- RECURRING SERIES --------------------
+    /**
+     * Store a recurring booking as one row. It is refused if any occurrence would share a slot
+     * with another active series or with a single booking; both checks run on the rule, so a
+     * long-running series costs the same as a short one.
+     * @return false if the time is taken, or on error
+     */
+    public static boolean addSeries(ReservationSeries series) {
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                if (!lockRoom(conn, series.getRoomName(), SqlQuery.LOCK_ROOM)) {
+                    conn.rollback();
+                    System.err.println("[DATABASE ERROR] Failed to add series: no room '" + series.getRoomName() + "'");
+                    return false;
+                }
+                if (holdsSlots(series.getStatus()) && seriesConflict(conn, series) != null) {
+                    conn.rollback();
+                    return false;
+                }
+                RecurrenceRule rule = series.getRule();
+                try (PreparedStatement pstmt = conn.prepareStatement(
+                        SqlQuery.INSERT_SERIES.sql(), Statement.RETURN_GENERATED_KEYS)) {
+                    pstmt.setString(1, series.getUsername());
+                    pstmt.setString(2, series.getRoomName());
+                    pstmt.setTime(3, safeParseTime(series.getStartTime()));
+                    pstmt.setTime(4, safeParseTime(series.getEndTime()));
+                    pstmt.setString(5, series.getStatus());
+                    pstmt.setString(6, rule.toRuleString());
+                    pstmt.setDate(7, Date.valueOf(rule.getStartDate()));
+                    pstmt.setDate(8, rule.getUntilDate() != null ? Date.valueOf(rule.getUntilDate()) : null);
+                    pstmt.setString(9, rule.exceptionsString());
+                    pstmt.executeUpdate();
+                    try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                        if (keys.next()) series.setId(keys.getInt(1));
+                    }
+                }
+                // Confirm with the first occurrence, like a single booking
+                Reservation first = series.nextOccurrence(rule.getStartDate());
+                if (first != null) {
+                    EmailOutbox.enqueue(conn, "series:created:" + series.getId(),
+                            EmailService.Kind.CONFIRMATION, first);
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            System.err.println("[DATABASE ERROR] Failed to add series: " + e.getMessage());
+            return false;
+        }
+        System.out.println("[DATABASE] Series added: " + series.getRoomName() + " " + series.getDescription());
+        bumpVersions(ChangeFeed.SERIES);
+        EmailOutbox.wake();
+        reloadActiveSeries();
+        return true;
+    }
+
+    /**
+     * Describes the first clash of the series with other active bookings, or null if there is none.
+     * Caller holds the room lock.
+     */
+    private static String seriesConflict(Connection conn, ReservationSeries series) throws SQLException {
+        RecurrenceRule rule = series.getRule();
+        LocalDate from = rule.getStartDate();
+        LocalDate to = rule.getUntilDate() != null ? rule.getUntilDate() : OPEN_END;
+
+        try (PreparedStatement pstmt = conn.prepareStatement(SqlQuery.ACTIVE_SERIES_FOR_ROOM.sql())) {
+            pstmt.setString(1, series.getRoomName());
+            pstmt.setDate(2, Date.valueOf(to));
+            pstmt.setDate(3, Date.valueOf(from));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    ReservationSeries other = readSeries(rs);
+                    if (other.getId() == series.getId()) continue;
+                    LocalDate clash = series.firstConflictWith(other);
+                    if (clash != null) {
+                        String message = "clashes with series #" + other.getId() + " on " + clash;
+                        System.out.println("[DATABASE] Series " + message);
+                        return message;
+                    }
+                }
+            }
+        }
+
+        // Only bookings on the series' weekdays and times can clash; each is one O(1) rule check
+        try (PreparedStatement pstmt = conn.prepareStatement(SqlQuery.ACTIVE_RESERVATIONS_IN_RANGE.sql())) {
+            pstmt.setString(1, series.getRoomName());
+            pstmt.setDate(2, Date.valueOf(from));
+            pstmt.setDate(3, Date.valueOf(to));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    Reservation r = readReservation(rs);
+                    if (series.conflictsWith(r)) {
+                        String message = "clashes with reservation #" + r.getId() + " on " + r.getDate();
+                        System.out.println("[DATABASE] Series " + message);
+                        return message;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * True if an occurrence of an active series holds part of the reservation's time.
+     * Takes the room lock shared, so a series can't be admitted until this transaction ends.
+     */
+    private static boolean clashesWithSeries(Connection conn, Reservation r) throws SQLException {
+        lockRoom(conn, r.getRoomName(), SqlQuery.LOCK_ROOM_SHARED);
+        Date date = Date.valueOf(r.getLocalDate());
+        try (PreparedStatement pstmt = conn.prepareStatement(SqlQuery.ACTIVE_SERIES_FOR_ROOM.sql())) {
+            pstmt.setString(1, r.getRoomName());
+            pstmt.setDate(2, date);
+            pstmt.setDate(3, date);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    ReservationSeries s = readSeries(rs);
+                    if (s.conflictsWith(r)) {
+                        System.out.println("[DATABASE] " + r.getRoomName() + " " + r.getDate() + " "
+                                + r.getTimeRange() + " is held by series #" + s.getId());
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    // Batch form of clashesWithSeries: each room is locked and its series read once
+    private static List<Reservation> withoutSeriesClashes(Connection conn, List<Reservation> batch) throws SQLException {
+        Map<String, List<ReservationSeries>> seriesByRoom = new HashMap<>();
+        List<Reservation> admitted = new ArrayList<>(batch.size());
+        for (Reservation r : batch) {
+            List<ReservationSeries> roomSeries = seriesByRoom.get(r.getRoomName());
+            if (roomSeries == null) {
+                lockRoom(conn, r.getRoomName(), SqlQuery.LOCK_ROOM_SHARED);
+                roomSeries = new ArrayList<>();
+                try (PreparedStatement pstmt = conn.prepareStatement(SqlQuery.ACTIVE_SERIES_FOR_ROOM.sql())) {
+                    pstmt.setString(1, r.getRoomName());
+                    pstmt.setDate(2, Date.valueOf(OPEN_END));
+                    pstmt.setDate(3, Date.valueOf(OPEN_START));
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            roomSeries.add(readSeries(rs));
+                        }
+                    }
+                }
+                seriesByRoom.put(r.getRoomName(), roomSeries);
+            }
+
+            boolean clash = false;
+            if (r.getReservationStatus().holdsSlot()) {
+                for (ReservationSeries s : roomSeries) {
+                    if (s.conflictsWith(r)) {
+                        clash = true;
+                        break;
+                    }
+                }
+            }
+            if (!clash) admitted.add(r);
+        }
+        return admitted;
+    }
+
+    // @return false if the room does not exist
+    private static boolean lockRoom(Connection conn, String roomName, SqlQuery lock) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(lock.sql())) {
+            pstmt.setString(1, roomName);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    public static List<ReservationSeries> getAllSeries() {
+        try (Connection conn = getConnection()) {
+            return readSeries(conn, SqlQuery.ALL_SERIES);
+        } catch (SQLException e) {
+            System.err.println("[DATABASE ERROR] Failed to load series: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    public static List<ReservationSeries> getSeriesByUser(String username) {
+        List<ReservationSeries> list = new ArrayList<>();
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(SqlQuery.SERIES_BY_USER.sql())) {
+            pstmt.setString(1, username);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    list.add(readSeries(rs));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("[DATABASE ERROR] Failed to load series for " + username + ": " + e.getMessage());
+        }
+        return list;
+    }
+
+    /**
+     * The user's series occurrences in [from, to], expanded only for that window
+     */
+    public static List<Reservation> getOccurrencesByUser(String username, LocalDate from, LocalDate to) {
+        List<Reservation> rows = new ArrayList<>();
+        for (ReservationSeries s : getSeriesByUser(username)) {
+            rows.addAll(s.occurrences(from, to));
+        }
+        return rows;
+    }
+
+    /**
+     * @return false if re-activating the series would clash with another booking, or on error
+     */
+    public static boolean updateSeriesStatus(ReservationSeries series, String newStatus) {
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                lockRoom(conn, series.getRoomName(), SqlQuery.LOCK_ROOM);
+                ReservationSeries current = lockSeries(conn, series.getId());
+                if (current == null) {
+                    conn.rollback();
+                    return false;
+                }
+                if (!holdsSlots(current.getStatus()) && holdsSlots(newStatus) && seriesConflict(conn, current) != null) {
+                    conn.rollback();
+                    return false;
+                }
+                try (PreparedStatement pstmt = conn.prepareStatement(SqlQuery.UPDATE_SERIES_STATUS.sql())) {
+                    pstmt.setString(1, newStatus);
+                    pstmt.setInt(2, series.getId());
+                    pstmt.executeUpdate();
+                }
+                // Notify with the next occurrence, like a single booking
+                current.setStatus(newStatus);
+                Reservation next = current.nextOccurrence(LocalDate.now());
+                EmailService.Kind kind = EmailService.Kind.forStatus(newStatus);
+                if (next != null && kind != null) {
+                    EmailOutbox.enqueue(conn, "series:" + newStatus + ":" + UUID.randomUUID() + ":" + series.getId(),
+                            kind, next);
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            System.err.println("[DATABASE ERROR] Failed to update series status: " + e.getMessage());
+            return false;
+        }
+        series.setStatus(newStatus);
+        bumpVersions(ChangeFeed.SERIES);
+        EmailOutbox.wake();
+        reloadActiveSeries();
+        return true;
+    }
+
+    /**
+     * Cancel a single occurrence by adding its date to the series' exceptions
+     */
+    public static void skipOccurrence(ReservationSeries series, LocalDate date) {
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                ReservationSeries current = lockSeries(conn, series.getId());
+                if (current != null) {
+                    current.getRule().addException(date);
+                    try (PreparedStatement pstmt = conn.prepareStatement(SqlQuery.UPDATE_SERIES_EXCEPTIONS.sql())) {
+                        pstmt.setString(1, current.getRule().exceptionsString());
+                        pstmt.setInt(2, series.getId());
+                        pstmt.executeUpdate();
+                    }
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            System.err.println("[DATABASE ERROR] Failed to skip occurrence: " + e.getMessage());
+            return;
+        }
+        series.getRule().addException(date);
+        System.out.println("[DATABASE] Series #" + series.getId() + " skips " + date);
+        bumpVersions(ChangeFeed.SERIES);
+        reloadActiveSeries();
+    }
+
+    public static void deleteSeries(ReservationSeries series) {
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(SqlQuery.DELETE_SERIES.sql())) {
+            pstmt.setInt(1, series.getId());
+            pstmt.executeUpdate();
+        } catch (SQLException e) {
+            System.err.println("[DATABASE ERROR] Failed to delete series: " + e.getMessage());
+            return;
+        }
+        System.out.println("[DATABASE] Series deleted: #" + series.getId());
+        bumpVersions(ChangeFeed.SERIES);
+        reloadActiveSeries();
+    }
+
+    private static ReservationSeries lockSeries(Connection conn, int id) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(SqlQuery.SERIES_FOR_UPDATE.sql())) {
+            pstmt.setInt(1, id);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? readSeries(rs) : null;
+            }
+        }
+    }
+
+    private static void reloadActiveSeries() {
+        try (Connection conn = getConnection()) {
+            activeSeries = readSeries(conn, SqlQuery.ACTIVE_SERIES);
+        } catch (SQLException e) {
+            System.err.println("[DATABASE ERROR] Failed to load series: " + e.getMessage());
+        }
+    }
+
+    private static List<ReservationSeries> readSeries(Connection conn, SqlQuery query) throws SQLException {
+        List<ReservationSeries> list = new ArrayList<>();
+        try (PreparedStatement pstmt = conn.prepareStatement(query.sql());
+             ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                list.add(readSeries(rs));
+            }
+        }
+        return list;
+    }
+
+    private static ReservationSeries readSeries(ResultSet rs) throws SQLException {
+        Date until = rs.getDate("until_date");
+        RecurrenceRule rule = RecurrenceRule.parse(
+                rs.getString("rule"),
+                rs.getDate("start_date").toLocalDate(),
+                until != null ? until.toLocalDate() : null,
+                rs.getString("exceptions"));
+        ReservationSeries series = new ReservationSeries(
+                rs.getString("username"),
+                rs.getString("room_name"),
+                rs.getString("startTime"),
+                rs.getString("endTime"),
+                rs.getString("status"),
+                rule);
+        series.setId(rs.getInt("id"));
+        return series;
+    }
+
+    // -------------------- SLOT CLAIMS --------------------
+    // Bookings in these statuses hold their slots; rejected ones release them
+    private static boolean holdsSlots(String status) {
+        return ReservationStatus.of(status).holdsSlot();
+    }
+
+    /**
+     * Claim every slot covered by the reservation in one JDBC batch, which the driver sends as a
+     * single multi-row INSERT. The statement text is the same however many slots there are, so
+     * it stays in the statement cache.
+     * @return false if the primary key rejected the insert because a slot is already held
+     */
+    private static boolean claimSlots(Connection conn, Reservation r, boolean ignoreTaken) throws SQLException {
+        int first = r.getStartMinute() / SLOT_MINUTES;
+        int last = (r.getEndMinute() + SLOT_MINUTES - 1) / SLOT_MINUTES; // exclusive
+        if (last <= first) return true;
+
+        Date date = Date.valueOf(r.getLocalDate());
+        SqlQuery query = ignoreTaken ? SqlQuery.CLAIM_SLOT_IF_FREE : SqlQuery.CLAIM_SLOT;
+        try (PreparedStatement pstmt = conn.prepareStatement(query.sql())) {
+            for (int slot = first; slot < last; slot++) {
+                pstmt.setString(1, r.getRoomName());
+                pstmt.setDate(2, date);
+                pstmt.setInt(3, slot);
+                pstmt.setInt(4, r.getId());
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+            return true;
+        } catch (BatchUpdateException e) {
+            if (e.getErrorCode() == MYSQL_DUPLICATE_KEY) return false;
+            throw e;
+        } catch (SQLIntegrityConstraintViolationException e) {
+            if (e.getErrorCode() == MYSQL_DUPLICATE_KEY) return false;
+            throw e;
+        }
+    }
+
+    private static void releaseSlots(Connection conn, int reservationId) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(SqlQuery.RELEASE_SLOTS.sql())) {
+            pstmt.setInt(1, reservationId);
+            pstmt.executeUpdate();
+        }
+    }
+
+    // Binds username, room_name, date, startTime, endTime starting at the given parameter index
+    private static void bindReservationKey(PreparedStatement pstmt, Reservation r, int index) throws SQLException {
+        pstmt.setString(index, r.getUsername());
+        pstmt.setString(index + 1, r.getRoomName());
+        pstmt.setDate(index + 2, Date.valueOf(r.getLocalDate()));
+        pstmt.setTime(index + 3, sqlTime(r.getStartMinute()));
+        pstmt.setTime(index + 4, sqlTime(r.getEndMinute()));
+    }
+
     public static User getUserByUsername(String username) {
-        if (connection == null) initialize();
-        String sql = "SELECT * FROM users WHERE username = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        User cached = userCache.getByUsername(username);
+        if (cached != null) return cached;
+
+        long cacheVersion = userCache.version();
+        String sql = SqlQuery.USER_BY_USERNAME.sql();
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, username);
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                return new User(
-                        rs.getString("username"),
-                        rs.getString("email"),
-                        rs.getString("password"),
-                        rs.getString("role")
-                );
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    User user = new User(
+                            rs.getString("username"),
+                            rs.getString("email"),
+                            rs.getString("password"),
+                            rs.getString("role")
+                    );
+                    userCache.put(user, cacheVersion);
+                    return user;
+                }
             }
         } catch (SQLException e) {
             System.err.println("[DATABASE ERROR] Failed to get user by username: " + e.getMessage());
@@ -545,19 +1587,14 @@ public class DataStore {
 
     public static List<Reservation> getReservationsByUser(String username) {
         List<Reservation> userReservations = new ArrayList<>();
-        String sql = "SELECT * FROM reservations WHERE username = ? ORDER BY date DESC, startTime DESC";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        String sql = SqlQuery.RESERVATIONS_BY_USER.sql();
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, username);
-            ResultSet rs = pstmt.executeQuery();
-            while (rs.next()) {
-                userReservations.add(new Reservation(
-                        rs.getString("username"),
-                        rs.getString("room_name"),
-                        rs.getDate("date").toString(),
-                        rs.getString("startTime"),
-                        rs.getString("endTime"),
-                        rs.getString("status")
-                ));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    userReservations.add(readReservation(rs));
+                }
             }
         } catch (SQLException e) {
             System.err.println("[DATABASE ERROR] Failed to get user reservations: " + e.getMessage());
@@ -565,120 +1602,306 @@ public class DataStore {
         return userReservations;
     }
 
-    public static boolean hasConflict(String roomName, String date, String startTime, String endTime) {
-        String sql = "SELECT * FROM reservations WHERE room_name = ? AND date = ? AND status = 'approved'";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, roomName);
-            pstmt.setDate(2, Date.valueOf(date));
-            ResultSet rs = pstmt.executeQuery();
+    // -------------------- KEYSET PAGING --------------------
+    /**
+     * The page of reservations that follows the given row in table order (newest first).
+     * Seeks on (date, startTime, id) instead of using OFFSET, so every page costs the same.
+     * The page readers return null if the query failed, so a pager can't mistake an error for
+     * the end of the table.
+     * @param after last row of the previous page, or null for the first page
+     */
+    public static List<Reservation> getReservationPageAfter(Reservation after, int limit) {
+        return after == null
+                ? readReservationPage(SqlQuery.RESERVATIONS_FIRST_PAGE, null, limit, false)
+                : readReservationPage(SqlQuery.RESERVATIONS_PAGE_AFTER, after, limit, false);
+    }
 
-            while (rs.next()) {
-                Reservation existing = new Reservation(
-                        rs.getString("username"),
-                        rs.getString("room_name"),
-                        rs.getDate("date").toString(),
-                        rs.getString("startTime"),
-                        rs.getString("endTime"),
-                        rs.getString("status")
-                );
+    /**
+     * Like getReservationPageAfter but including the given row, for re-reading a page in place
+     */
+    public static List<Reservation> getReservationPageFrom(Reservation first, int limit) {
+        return first == null
+                ? readReservationPage(SqlQuery.RESERVATIONS_FIRST_PAGE, null, limit, false)
+                : readReservationPage(SqlQuery.RESERVATIONS_PAGE_FROM, first, limit, false);
+    }
 
-                if (existing.conflictsWith(date, startTime, endTime)) {
-                    return true;
+    /**
+     * The page of (newer) reservations directly above the given row, returned in table order
+     */
+    public static List<Reservation> getReservationPageBefore(Reservation before, int limit) {
+        return readReservationPage(SqlQuery.RESERVATIONS_PAGE_BEFORE, before, limit, true);
+    }
+
+    private static List<Reservation> readReservationPage(SqlQuery query, Reservation key, int limit, boolean reverse) {
+        List<Reservation> page = new ArrayList<>(limit);
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(query.sql())) {
+            int index = 1;
+            if (key != null) {
+                pstmt.setDate(index++, Date.valueOf(key.getLocalDate()));
+                pstmt.setTime(index++, sqlTime(key.getStartMinute()));
+                pstmt.setInt(index++, key.getId());
+            }
+            pstmt.setInt(index, limit);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    page.add(readReservation(rs));
                 }
             }
         } catch (SQLException e) {
-            System.err.println("[DATABASE ERROR] Failed to check conflicts: " + e.getMessage());
+            System.err.println("[DATABASE ERROR] Failed to load reservation page: " + e.getMessage());
+            return null;
+        }
+        if (reverse) Collections.reverse(page);
+        return page;
+    }
+
+    /**
+     * Answered from the in-memory index; the reservation list is loaded on first use
+     * and kept current by every DataStore write and refresh.
+     */
+    public static boolean hasConflict(String roomName, String date, String startTime, String endTime) {
+        if (indexedStatus(roomName, date, startTime, endTime) == ReservationIndex.APPROVED) return true;
+        for (ReservationSeries s : activeSeries) {
+            if (ReservationStatus.of(s.getStatus()).isApproved()
+                    && s.conflictsWith(roomName, date, startTime, endTime)) return true;
         }
         return false;
     }
 
     public static String getRoomStatusForTime(String roomName, String date, String startTime, String endTime) {
-        String sql = "SELECT * FROM reservations WHERE room_name = ? AND date = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, roomName);
-            pstmt.setDate(2, Date.valueOf(date));
-            ResultSet rs = pstmt.executeQuery();
+        int status = indexedStatus(roomName, date, startTime, endTime);
+        for (ReservationSeries s : activeSeries) {
+            if (status == ReservationIndex.APPROVED) break;
+            if (s.conflictsWith(roomName, date, startTime, endTime)) {
+                status = ReservationStatus.of(s.getStatus()).isApproved() ? ReservationIndex.APPROVED : ReservationIndex.PENDING;
+            }
+        }
+        return switch (status) {
+            case ReservationIndex.APPROVED -> "Approved";
+            case ReservationIndex.PENDING -> "Pending";
+            default -> "Available";
+        };
+    }
 
-            boolean hasPending = false;
-            boolean hasApproved = false;
+    /**
+     * First start time ("HH:mm") in [from, to) where the room is free for `minutes`, on a grid of
+     * `step` minutes, or null if there is none. Recurring series count as busy.
+     */
+    public static String findFreeStart(String roomName, String date, String from, String to, int minutes, int step) {
+        ensureReservationsLoaded();
+        int day = (int) LocalDate.parse(date).toEpochDay();
+        int start = ReservationIndex.parseMinutes(from);
+        int end = ReservationIndex.parseMinutes(to);
+        while (true) {
+            int free = reservationIndex.firstFreeStart(roomName, day, start, end, minutes, step);
+            if (free < 0) return null; // none left, or a past day the index no longer holds
+            String freeStart = Reservation.formatMinutes(free);
+            String freeEnd = Reservation.formatMinutes(free + minutes);
+            if (!seriesBusy(roomName, date, freeStart, freeEnd)) return freeStart;
+            start = free + Math.max(step, 1);
+        }
+    }
 
-            while (rs.next()) {
-                Reservation existing = new Reservation(
-                        rs.getString("username"),
-                        rs.getString("room_name"),
-                        rs.getDate("date").toString(),
-                        rs.getString("startTime"),
-                        rs.getString("endTime"),
-                        rs.getString("status")
-                );
-
-                if (existing.conflictsWith(date, startTime, endTime)) {
-                    if ("approved".equalsIgnoreCase(existing.getStatus())) {
-                        hasApproved = true;
-                    } else if ("pending".equalsIgnoreCase(existing.getStatus())) {
-                        hasPending = true;
-                    }
-                }
-            }
+    private static boolean seriesBusy(String roomName, String date, String startTime, String endTime) {
+        for (ReservationSeries s : activeSeries) {
+            if (s.conflictsWith(roomName, date, startTime, endTime)) return true;
+        }
+        return false;
+    }
 
-            if (hasApproved) return "Approved";
-            if (hasPending) return "Pending";
-            return "Available";
+    // The index covers recent and future days; evicted (older) ones are read from the database
+    private static int indexedStatus(String roomName, String date, String startTime, String endTime) {
+        ensureReservationsLoaded();
+        int status = reservationIndex.statusFor(roomName, date, startTime, endTime);
+        return status != ReservationIndex.UNKNOWN ? status : statusFromDatabase(roomName, date, startTime, endTime);
+    }
 
+    private static int statusFromDatabase(String roomName, String date, String startTime, String endTime) {
+        int status = ReservationIndex.NONE;
+        try (Connection conn = getConnection();
+             PreparedStatement ps = conn.prepareStatement(SqlQuery.ROOM_STATUS_FOR_RANGE.sql())) {
+            ps.setString(1, roomName);
+            ps.setDate(2, Date.valueOf(date));
+            ps.setTime(3, safeParseTime(endTime));
+            ps.setTime(4, safeParseTime(startTime));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    if (ReservationStatus.of(rs.getString("status")).isApproved()) return ReservationIndex.APPROVED;
+                    status = ReservationIndex.PENDING;
+                }
+            }
         } catch (SQLException e) {
-            System.err.println("[DATABASE ERROR] Failed to get room status: " + e.getMessage());
+            System.err.println("[DATABASE ERROR] Failed to read room status: " + e.getMessage());
         }
-        return "Available";
+        return status;
+    }
+
+    private static void ensureReservationsLoaded() {
+        if (reservationHighWater == null) syncReservationsFromDB();
     }
 
     public static void deleteReservation(Reservation reservation) {
-        String sql = "DELETE FROM reservations WHERE username = ? AND room_name = ? AND date = ? AND startTime = ? AND endTime = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, reservation.getUsername());
-            pstmt.setString(2, reservation.getRoomName());
-            pstmt.setDate(3, Date.valueOf(reservation.getDate()));
-            pstmt.setTime(4, Time.valueOf(reservation.getStartTime() + ":00"));
-            pstmt.setTime(5, Time.valueOf(reservation.getEndTime() + ":00"));
-            pstmt.executeUpdate();
-            syncReservationsFromDB();
+        int id = resolveReservationId(reservation);
+        if (id == 0) {
+            System.out.println("[DATABASE] Reservation not found: " + reservation);
+            return;
+        }
+        deleteReservations(List.of(id));
+    }
 
-            // Send cancellation email
-            User user = getUserByUsername(reservation.getUsername());
-            if (user != null) {
-                EmailService.getInstance().sendReservationCancellation(user, reservation);
+    /**
+     * Delete the reservations with the given ids in one transaction; every row is found by its
+     * primary key. Ids that no longer exist are ignored.
+     * @return the rows that were deleted
+     */
+    public static List<Reservation> deleteReservations(List<Integer> ids) {
+        List<Reservation> deleted;
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                deleted = lockReservations(conn, ids);
+                try (PreparedStatement tomb = conn.prepareStatement(SqlQuery.TOMBSTONE_RESERVATION.sql());
+                     PreparedStatement pstmt = conn.prepareStatement(SqlQuery.DELETE_RESERVATION.sql())) {
+                    // Slot claims go with the row (ON DELETE CASCADE)
+                    for (Reservation row : deleted) {
+                        tomb.setInt(1, row.getId());
+                        tomb.addBatch();
+                        pstmt.setInt(1, row.getId());
+                        pstmt.addBatch();
+                    }
+                    if (!deleted.isEmpty()) {
+                        tomb.executeBatch();
+                        pstmt.executeBatch();
+                    }
+                }
+                EmailOutbox.enqueueAll(conn, "reservation:cancelled", EmailService.Kind.CANCELLATION, deleted);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
             }
         } catch (SQLException e) {
             System.err.println("[DATABASE ERROR] Failed to delete reservation: " + e.getMessage());
+            return List.of();
         }
+        if (deleted.isEmpty()) return deleted;
+        bumpVersions(ChangeFeed.RESERVATIONS);
+        EmailOutbox.wake();
+        syncReservationsFromDB();
+        return deleted;
     }
 
-    public static void updateReservationStatus(Reservation reservation, String newStatus) {
-        String sql = "UPDATE reservations SET status = ? WHERE username = ? AND room_name = ? AND date = ? AND startTime = ? AND endTime = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, newStatus);
-            pstmt.setString(2, reservation.getUsername());
-            pstmt.setString(3, reservation.getRoomName());
-            pstmt.setDate(4, Date.valueOf(reservation.getDate()));
-            pstmt.setTime(5, safeParseTime(reservation.getStartTime()));
-            pstmt.setTime(6, safeParseTime(reservation.getEndTime()));
-            pstmt.executeUpdate();
-            syncReservationsFromDB();
+    /**
+     * Change the status and move the slot claims with it in one transaction: rejecting releases
+     * the slots, re-activating claims them again.
+     * @return false if re-activating would overlap another booking, or on error
+     */
+    public static boolean updateReservationStatus(Reservation reservation, String newStatus) {
+        int id = resolveReservationId(reservation);
+        if (id == 0) {
+            System.out.println("[DATABASE] Reservation not found: " + reservation);
+            return false;
+        }
+        if (updateReservationStatuses(List.of(id), newStatus).isEmpty()) return false;
+        reservation.setStatus(newStatus);
+        return true;
+    }
+
+    /**
+     * Batch form of updateReservationStatus. Rows that can't be re-activated because their slot
+     * was taken meanwhile keep their old status; the rest are updated in one transaction.
+     * @return the rows whose status changed
+     */
+    public static List<Reservation> updateReservationStatuses(List<Integer> ids, String newStatus) {
+        List<Reservation> updated = new ArrayList<>();
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                for (Reservation row : lockReservations(conn, ids)) {
+                    boolean held = row.getReservationStatus().holdsSlot();
+                    if (held && !holdsSlots(newStatus)) {
+                        releaseSlots(conn, row.getId());
+                    } else if (!held && holdsSlots(newStatus)
+                            && (clashesWithSeries(conn, row) || !claimSlots(conn, row, false))) {
+                        System.out.println("[DATABASE] Cannot set status '" + newStatus + "' on reservation #"
+                                + row.getId() + ": time slot is already taken");
+                        continue;
+                    }
+                    updated.add(row);
+                }
 
-            // Send appropriate email based on new status
-            User user = getUserByUsername(reservation.getUsername());
-            if (user != null) {
-                reservation.setStatus(newStatus);
-                if ("approved".equalsIgnoreCase(newStatus) || "reserved".equalsIgnoreCase(newStatus)) {
-                    EmailService.getInstance().sendReservationApproval(user, reservation);
-                } else if ("rejected".equalsIgnoreCase(newStatus)) {
-                    EmailService.getInstance().sendReservationRejection(user, reservation);
+                try (PreparedStatement pstmt = conn.prepareStatement(SqlQuery.UPDATE_RESERVATION_STATUS.sql())) {
+                    for (Reservation row : updated) {
+                        pstmt.setString(1, newStatus);
+                        pstmt.setInt(2, row.getId());
+                        pstmt.addBatch();
+                    }
+                    if (!updated.isEmpty()) pstmt.executeBatch();
+                }
+
+                // Approval or rejection emails; the key is unique per change, since a row can flip back
+                for (Reservation row : updated) {
+                    row.setStatus(newStatus);
+                }
+                EmailService.Kind kind = EmailService.Kind.forStatus(newStatus);
+                if (kind != null) {
+                    EmailOutbox.enqueueAll(conn, "reservation:" + newStatus + ":" + UUID.randomUUID(), kind, updated);
                 }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
             }
         } catch (SQLException e) {
             System.err.println("[DATABASE ERROR] Failed to update reservation status: " + e.getMessage());
+            return List.of();
+        }
+        if (updated.isEmpty()) return updated;
+        bumpVersions(ChangeFeed.RESERVATIONS);
+        EmailOutbox.wake();
+        syncReservationsFromDB();
+        return updated;
+    }
+
+    /**
+     * Lock the rows by primary key, in id order so concurrent batches can't deadlock each other.
+     * Missing ids are skipped.
+     */
+    private static List<Reservation> lockReservations(Connection conn, List<Integer> ids) throws SQLException {
+        List<Reservation> rows = new ArrayList<>(ids.size());
+        int[] sorted = ids.stream().mapToInt(Integer::intValue).filter(id -> id > 0).sorted().distinct().toArray();
+        try (PreparedStatement sel = conn.prepareStatement(SqlQuery.RESERVATION_FOR_UPDATE.sql())) {
+            for (int id : sorted) {
+                sel.setInt(1, id);
+                try (ResultSet rs = sel.executeQuery()) {
+                    if (rs.next()) rows.add(readReservation(rs));
+                }
+            }
+        }
+        return rows;
+    }
+
+    // Rows read from the database carry their id; look it up only for ones built by hand
+    private static int resolveReservationId(Reservation r) {
+        if (r.getId() != 0) return r.getId();
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(SqlQuery.RESERVATION_ID_BY_KEY.sql())) {
+            bindReservationKey(pstmt, r, 1);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        } catch (SQLException e) {
+            System.err.println("[DATABASE ERROR] Failed to look up reservation: " + e.getMessage());
+            return 0;
         }
     }
 
+    // Minutes since midnight to a TIME parameter; 24:00 is stored as the last minute of the day
+    private static Time sqlTime(int minuteOfDay) {
+        return Time.valueOf(LocalTime.ofSecondOfDay(Math.min(minuteOfDay, 24 * 60 - 1) * 60L));
+    }
+
     private static Time safeParseTime(String timeStr) {
         if (timeStr == null || timeStr.isBlank()) return Time.valueOf("00:00:00");
         String t = timeStr.trim();
@@ -691,6 +1914,23 @@ public class DataStore {
     }
 
     // -------------------- UTILITY --------------------
+    /**
+     * The observable user, room and reservation lists back TableViews, so they may only change
+     * on the FX thread. Runs the mutation directly when already on it (or when JavaFX isn't
+     * running), otherwise queues it with Platform.runLater; queued mutations keep their order.
+     */
+    public static void applyToLists(Runnable mutation) {
+        if (Platform.isFxApplicationThread()) {
+            mutation.run();
+            return;
+        }
+        try {
+            Platform.runLater(mutation);
+        } catch (IllegalStateException e) {
+            mutation.run(); // toolkit not started
+        }
+    }
+
     public static void saveAll() {
         saveUsers();
         saveRooms();
@@ -699,24 +1939,123 @@ public class DataStore {
     }
 
     public static void reloadAll() {
+        userCache.invalidateAll();
         syncUsersFromDB();
         syncRoomsFromDB();
         syncReservationsFromDB();
         System.out.println("[DATABASE] All data reloaded from MySQL database");
     }
 
+    // -------------------- CHANGE FEED --------------------
+    /**
+     * Tell other clients these tables changed. Runs after the write has committed, in its own
+     * autocommit statement, so the counter row is never held locked for a whole transaction.
+     */
+    private static void bumpVersions(String... tables) {
+        try (Connection conn = getConnection()) {
+            bumpVersions(conn, tables);
+        } catch (SQLException e) {
+            System.err.println("[DATABASE ERROR] Failed to record change: " + e.getMessage());
+        }
+    }
+
+    private static void bumpVersions(Connection conn, String... tables) {
+        try (PreparedStatement pstmt = conn.prepareStatement(SqlQuery.BUMP_TABLE_VERSION.sql())) {
+            for (String table : tables) {
+                pstmt.setString(1, table);
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        } catch (SQLException e) {
+            // The write itself succeeded; other clients just pick it up on their next change
+            System.err.println("[DATABASE ERROR] Failed to record change: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Current change counter of every table, read in one small query
+     */
+    public static Map<String, Long> getTableVersions() {
+        Map<String, Long> versions = new HashMap<>();
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(SqlQuery.TABLE_VERSIONS.sql());
+             ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                versions.put(rs.getString(1), rs.getLong(2));
+            }
+        } catch (SQLException e) {
+            System.err.println("[DATABASE ERROR] Failed to read table versions: " + e.getMessage());
+        }
+        return versions;
+    }
+
+    /**
+     * Re-read only the given tables; reservations go through the delta sync
+     */
+    public static void refreshTables(Set<String> tables) {
+        if (tables.contains(ChangeFeed.USERS)) {
+            // Another client changed users; the cache doesn't know which, so drop it all
+            userCache.invalidateAll();
+            syncUsersFromDB();
+        }
+        if (tables.contains(ChangeFeed.ROOMS)) syncRoomsFromDB();
+        if (tables.contains(ChangeFeed.RESERVATIONS)) syncReservationsFromDB();
+        if (tables.contains(ChangeFeed.SERIES)) reloadActiveSeries();
+    }
+
     public static void closeConnection() {
+        lifecycleLock.lock();
         try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-                System.out.println("[DATABASE] MySQL connection closed");
+            if (pool != null) {
+                EmailOutbox.stop();
+                System.out.println("[DATABASE] " + pool);
+                System.out.print(getStatementCacheReport());
+                System.out.println("[DATABASE] " + userCache);
+                pool.shutdown();
+                pool = null;
+                System.out.println("[DATABASE] MySQL connection pool closed");
             }
-        } catch (SQLException e) {
-            System.err.println("[DATABASE ERROR] Failed to close connection: " + e.getMessage());
+        } finally {
+            lifecycleLock.unlock();
+        }
+    }
+
+    /**
+     * Borrow a pooled connection, connecting on first use.
+     * Always close the returned connection (try-with-resources) so it goes back to the pool.
+     */
+    public static Connection getConnection() throws SQLException {
+        ConnectionPool current = pool;
+        if (current == null) {
+            initialize();
+            current = pool;
+            if (current == null) throw new SQLException("Database is not available");
         }
+        return current.getConnection();
     }
 
-    public static Connection getConnection() {
-        return connection;
+    public static ConnectionPool getPool() {
+        return pool;
+    }
+
+    public static UserCache getUserCache() {
+        return userCache;
+    }
+
+    /**
+     * Estimated statement cache hits/misses per named query (see ConnectionPool), for queries
+     * that have run at least once
+     */
+    public static String getStatementCacheReport() {
+        ConnectionPool current = pool;
+        if (current == null) return "";
+        StringBuilder sb = new StringBuilder();
+        for (SqlQuery query : SqlQuery.values()) {
+            long[] stats = current.getStatementStats(query.sql());
+            if (stats[0] + stats[1] > 0) {
+                sb.append(String.format("[DATABASE] %-28s est. hits=%d misses=%d%n", query.name(), stats[0], stats[1]));
+            }
+        }
+        return sb.toString();
     }
 }
\ No newline at end of file
@@ -0,0 +1,162 @@
+package util;
+
+import model.Reservation;
+import model.ReservationStatus;
+import model.User;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Email throughput test against an embedded LocalSmtpServer, run from the command line:
+ *
+ *   java util.EmailLoadTest [messages] [threads] [connections] [latencyMillis] [failureRate] [dropRate]
+ *
+ * Pushes the given number of reservation emails through an EmailService with that many sender
+ * threads and SMTP connections, and reports messages/sec and the latency of each email from
+ * submission to the server's acknowledgement. Messages the server refuses or drops (see the
+ * LocalSmtpServer fault settings) are then resent, as the outbox would, until they get through
+ * or MAX_RETRY_ROUNDS is reached; the report shows how many were recovered and how long it took.
+ * Nothing touches the database or a real mail host.
+ */
+public class EmailLoadTest {
+
+    private static final int WARMUP_MESSAGES = 500;
+    private static final int MAX_RETRY_ROUNDS = 5;
+    private static final int QUEUE_SIZE = 500;
+    private static final int MAX_MESSAGES_PER_CONNECTION = 100;
+
+    public static void main(String[] args) throws IOException {
+        int messages = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        int connections = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+        int latencyMillis = args.length > 3 ? Integer.parseInt(args[3]) : 0;
+        double failureRate = args.length > 4 ? Double.parseDouble(args[4]) : 0;
+        double dropRate = args.length > 5 ? Double.parseDouble(args[5]) : 0;
+
+        System.out.println("[LOAD] " + messages + " messages, " + threads + " threads, " + connections
+                + " connections, server latency " + latencyMillis + " ms, failure rate " + failureRate
+                + ", drop rate " + dropRate);
+
+        try (LocalSmtpServer server = new LocalSmtpServer(0).start()) {
+            EmailService emailService = EmailService.forServer("localhost", server.getPort(), threads, QUEUE_SIZE,
+                    connections, MAX_MESSAGES_PER_CONNECTION);
+            List<Reservation> sample = sample(200);
+            User user = new User("loadtest", "loadtest@example.com", "password", "user");
+
+            // Warm up connections and the JIT without faults, then measure
+            send(emailService, user, sample, WARMUP_MESSAGES);
+            server.resetCounts();
+            server.setLatencyMillis(latencyMillis);
+            server.setFailureRate(failureRate);
+            server.setDropRate(dropRate);
+
+            long start = System.nanoTime();
+            Result first = send(emailService, user, sample, messages);
+            double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+            report("first attempt", first, seconds);
+
+            // Resend whatever didn't get through, like EmailOutbox does (without its backoff)
+            List<Integer> failed = first.failed();
+            int initiallyFailed = failed.size();
+            int rounds = 0;
+            long recoveryStart = System.nanoTime();
+            while (!failed.isEmpty() && rounds < MAX_RETRY_ROUNDS) {
+                rounds++;
+                List<Reservation> resend = failed.stream().map(i -> sample.get(i % sample.size())).toList();
+                Result retry = send(emailService, user, resend, resend.size());
+                List<Integer> stillFailed = new ArrayList<>();
+                for (int i : retry.failed()) {
+                    stillFailed.add(failed.get(i));
+                }
+                failed = stillFailed;
+            }
+            double recoverySeconds = (System.nanoTime() - recoveryStart) / 1_000_000_000.0;
+            if (initiallyFailed > 0) {
+                System.out.printf("[LOAD] recovery: %d failed, %d recovered in %d round(s), %.2f s, %d lost%n",
+                        initiallyFailed, initiallyFailed - failed.size(), rounds, recoverySeconds, failed.size());
+            }
+
+            emailService.shutdown(10_000);
+            System.out.println("[LOAD] " + server);
+            long delivered = messages - failed.size();
+            if (server.getReceivedCount() != delivered) {
+                System.err.println("[LOAD] Server received " + server.getReceivedCount() + " messages but "
+                        + delivered + " were reported delivered");
+            }
+        }
+    }
+
+    /**
+     * Submit `count` emails as fast as the service takes them and wait for all of them
+     * @return per-message latencies of the successful sends and the indexes of the failed ones,
+     *         where message i is about reservations.get(i % reservations.size())
+     */
+    private static Result send(EmailService emailService, User user, List<Reservation> reservations, int count) {
+        long[] latencies = new long[count];
+        boolean[] ok = new boolean[count];
+        List<CompletableFuture<Void>> sends = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int index = i;
+            long submitted = System.nanoTime();
+            sends.add(emailService.deliver(EmailService.Kind.CONFIRMATION, user,
+                    reservations.get(i % reservations.size()), null).whenComplete((v, e) -> {
+                latencies[index] = System.nanoTime() - submitted;
+                ok[index] = e == null;
+            }));
+        }
+        // Completed futures have written their slots before join() returns
+        List<Integer> failed = new ArrayList<>();
+        long[] succeeded = new long[count];
+        int successes = 0;
+        for (int i = 0; i < count; i++) {
+            try {
+                sends.get(i).join();
+            } catch (RuntimeException ignored) {
+                // counted below
+            }
+            if (ok[i]) {
+                succeeded[successes++] = latencies[i];
+            } else {
+                failed.add(i);
+            }
+        }
+        long[] sorted = Arrays.copyOf(succeeded, successes);
+        Arrays.sort(sorted);
+        return new Result(sorted, failed);
+    }
+
+    private static void report(String phase, Result result, double seconds) {
+        long[] latencies = result.latencies();
+        System.out.printf("[LOAD] %s: %d sent, %d failed in %.2f s = %.1f msg/s%n", phase, latencies.length,
+                result.failed().size(), seconds, latencies.length / seconds);
+        if (latencies.length == 0) return;
+        System.out.printf("[LOAD] latency ms: p50 %.1f, p95 %.1f, p99 %.1f, max %.1f%n",
+                percentile(latencies, 50), percentile(latencies, 95), percentile(latencies, 99),
+                latencies[latencies.length - 1] / 1_000_000.0);
+    }
+
+    // Nearest-rank percentile of sorted nanosecond values, in milliseconds
+    private static double percentile(long[] sorted, double p) {
+        int rank = (int) Math.ceil(p / 100.0 * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))] / 1_000_000.0;
+    }
+
+    private static List<Reservation> sample(int count) {
+        List<Reservation> sample = new ArrayList<>(count);
+        int today = (int) LocalDate.now().toEpochDay();
+        for (int i = 0; i < count; i++) {
+            int start = 8 * 60 + (i % 18) * 30;
+            sample.add(new Reservation("loadtest", "Load Room " + (i % 20), today + i % 30, start, start + 60,
+                    ReservationStatus.PENDING));
+        }
+        return sample;
+    }
+
+    private record Result(long[] latencies, List<Integer> failed) {
+    }
+}
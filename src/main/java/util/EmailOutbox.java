@@ -0,0 +1,422 @@
+package util;
+
+import model.Reservation;
+import model.ReservationStatus;
+import model.User;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Durable notification emails. DataStore writes one outbox row per email in the same transaction
+ * as the change it reports, so a notification exists exactly when the change does and survives a
+ * restart or an SMTP outage. A background dispatcher drains due rows in batches; rows are claimed
+ * with FOR UPDATE SKIP LOCKED and a lease, so several clients can dispatch side by side without
+ * sending a row twice. Failures are retried with exponential backoff and end up 'dead' after
+ * OUTBOX_MAX_ATTEMPTS.
+ * Each row has an idempotency key: enqueueing the same key twice stores one row, and the key is
+ * also the email's Message-ID, so a resend after a crash mid-send can be recognised as a duplicate.
+ * Reservation updates are held for EMAIL_DIGEST_WINDOW_SECONDS before sending; when the first of a
+ * user's held rows comes due, the rest are pulled in with it and the user gets one summary email
+ * instead of one per update. Welcome emails and updates to bookings that start within
+ * EMAIL_DIGEST_URGENT_HOURS are never held.
+ */
+public final class EmailOutbox {
+
+    public static final String PENDING = "pending";
+    public static final String SENDING = "sending";  // claimed and leased by a dispatcher
+    public static final String SENT = "sent";
+    public static final String DEAD = "dead";
+
+    private static final long POLL_MS = Long.parseLong(System.getenv("OUTBOX_POLL_MS") != null ?
+            System.getenv("OUTBOX_POLL_MS") : "2000");
+    private static final int BATCH_SIZE = Integer.parseInt(System.getenv("OUTBOX_BATCH_SIZE") != null ?
+            System.getenv("OUTBOX_BATCH_SIZE") : "50");
+    private static final int MAX_ATTEMPTS = Integer.parseInt(System.getenv("OUTBOX_MAX_ATTEMPTS") != null ?
+            System.getenv("OUTBOX_MAX_ATTEMPTS") : "8");
+    private static final int DIGEST_WINDOW_SECONDS = Integer.parseInt(System.getenv("EMAIL_DIGEST_WINDOW_SECONDS") != null ?
+            System.getenv("EMAIL_DIGEST_WINDOW_SECONDS") : "300");  // 0 sends every update on its own
+    private static final int DIGEST_URGENT_HOURS = Integer.parseInt(System.getenv("EMAIL_DIGEST_URGENT_HOURS") != null ?
+            System.getenv("EMAIL_DIGEST_URGENT_HOURS") : "24");
+    private static final int RETENTION_DAYS = 7;           // sent rows; dead ones are kept for inspection
+    private static final long PURGE_INTERVAL_HOURS = 24;
+    private static final int BASE_BACKOFF_SECONDS = 30;
+    private static final int MAX_BACKOFF_SECONDS = 3600;
+    private static final int LEASE_SECONDS = 300;          // a claimed row is retried if its client dies
+    private static final String MESSAGE_ID_DOMAIN = "conference-room.local";
+
+    private static ScheduledExecutorService dispatcher;  // guarded by EmailOutbox.class
+    private static final AtomicBoolean wakeQueued = new AtomicBoolean();
+
+    private EmailOutbox() {
+    }
+
+    /**
+     * One email waiting in the outbox. The reservation is a snapshot taken when it was queued;
+     * null for a welcome email.
+     */
+    public record Entry(long id, String key, EmailService.Kind kind, String username, String email,
+                        Reservation reservation, int attempts) {
+    }
+
+    // -------------------- ENQUEUE --------------------
+    /**
+     * Queue an email about a reservation on the caller's connection, inside its transaction
+     */
+    public static void enqueue(Connection conn, String key, EmailService.Kind kind, Reservation r) throws SQLException {
+        enqueue(conn, key, kind, r.getUsername(), null, r);
+    }
+
+    public static void enqueue(Connection conn, String key, EmailService.Kind kind, String username, String email,
+                               Reservation r) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(SqlQuery.ENQUEUE_EMAIL.sql())) {
+            bindEntry(pstmt, key, kind, username, email, r);
+            pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Queue one email of the same kind per reservation, as one batch
+     * @param keyPrefix each row's key is keyPrefix + ":" + reservation id
+     */
+    public static void enqueueAll(Connection conn, String keyPrefix, EmailService.Kind kind,
+                                  List<Reservation> rows) throws SQLException {
+        if (rows.isEmpty()) return;
+        try (PreparedStatement pstmt = conn.prepareStatement(SqlQuery.ENQUEUE_EMAIL.sql())) {
+            for (Reservation r : rows) {
+                bindEntry(pstmt, keyPrefix + ":" + r.getId(), kind, r.getUsername(), null, r);
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+    }
+
+    private static void bindEntry(PreparedStatement pstmt, String key, EmailService.Kind kind, String username,
+                                  String email, Reservation r) throws SQLException {
+        pstmt.setString(1, key);
+        pstmt.setString(2, kind.name());
+        pstmt.setString(3, username);
+        pstmt.setString(4, email);
+        if (r != null) {
+            pstmt.setObject(5, r.getId() != 0 ? r.getId() : null);
+            pstmt.setString(6, r.getRoomName());
+            pstmt.setDate(7, r.getLocalDate() != null ? Date.valueOf(r.getLocalDate()) : null);
+            pstmt.setTime(8, time(r.getStartMinute()));
+            pstmt.setTime(9, time(r.getEndMinute()));
+            pstmt.setString(10, r.getStatus());
+        } else {
+            for (int i = 5; i <= 10; i++) {
+                pstmt.setObject(i, null);
+            }
+        }
+        pstmt.setInt(11, urgent(kind, r) ? 0 : DIGEST_WINDOW_SECONDS);
+    }
+
+    /**
+     * Whether the email has to go out on its own right away rather than wait for a digest
+     */
+    static boolean urgent(EmailService.Kind kind, Reservation r) {
+        if (DIGEST_WINDOW_SECONDS <= 0 || kind == EmailService.Kind.WELCOME || r == null || r.getLocalDate() == null) {
+            return true;
+        }
+        LocalDateTime start = r.getLocalDate().atStartOfDay().plusMinutes(r.getStartMinute());
+        return start.isBefore(LocalDateTime.now().plusHours(DIGEST_URGENT_HOURS));
+    }
+
+    private static Time time(int minuteOfDay) {
+        return Time.valueOf(LocalTime.ofSecondOfDay(Math.min(minuteOfDay, 24 * 60 - 1) * 60L));
+    }
+
+    // -------------------- DISPATCH --------------------
+    /**
+     * Start the background dispatcher; DataStore does this once the tables exist
+     */
+    public static synchronized void start() {
+        if (dispatcher != null) return;
+        if (!EmailService.getInstance().isEnabled()) {
+            // Leave the rows pending for a client that can send them
+            System.out.println("[OUTBOX] Email disabled here; queued emails stay in the outbox");
+            return;
+        }
+        dispatcher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "email-outbox");
+            t.setDaemon(true);
+            return t;
+        });
+        // At start and then daily, so a client left running doesn't pile up sent rows
+        dispatcher.scheduleWithFixedDelay(EmailOutbox::purgeSent, 0, PURGE_INTERVAL_HOURS, TimeUnit.HOURS);
+        dispatcher.scheduleWithFixedDelay(EmailOutbox::drain, POLL_MS, POLL_MS, TimeUnit.MILLISECONDS);
+        System.out.println("[OUTBOX] Dispatcher started, polling every " + POLL_MS + " ms");
+    }
+
+    public static synchronized void stop() {
+        if (dispatcher == null) return;
+        dispatcher.shutdown();
+        try {
+            dispatcher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        dispatcher = null;
+    }
+
+    /**
+     * Drain now instead of at the next poll, e.g. right after a commit that queued emails
+     */
+    public static synchronized void wake() {
+        if (dispatcher != null && wakeQueued.compareAndSet(false, true)) {
+            dispatcher.execute(() -> {
+                wakeQueued.set(false);
+                drain();
+            });
+        }
+    }
+
+    private static void drain() {
+        try {
+            List<Entry> batch;
+            do {
+                batch = claimDue(BATCH_SIZE);
+                if (!batch.isEmpty()) dispatch(batch);
+            } while (batch.size() >= BATCH_SIZE);
+        } catch (RuntimeException e) {
+            System.err.println("[OUTBOX ERROR] Dispatch failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Claim up to `limit` due rows: lock them, skipping rows another client is claiming, and mark
+     * them 'sending' with a lease so nobody else picks them up while they are being sent; a row
+     * whose lease runs out (its client died) is due again.
+     * The held rows of every user with a due reservation update are claimed along with them, to go
+     * out in the same digest. Rows leased by another client are not held rows, and neither are rows
+     * waiting out a retry backoff: those keep their own schedule instead of riding along early.
+     */
+    private static List<Entry> claimDue(int limit) {
+        List<Entry> claimed = new ArrayList<>();
+        try (Connection conn = DataStore.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                try (PreparedStatement pstmt = conn.prepareStatement(SqlQuery.DUE_EMAILS.sql())) {
+                    pstmt.setInt(1, limit);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            claimed.add(readEntry(rs));
+                        }
+                    }
+                }
+                if (DIGEST_WINDOW_SECONDS > 0) claimHeld(conn, claimed);
+                try (PreparedStatement lease = conn.prepareStatement(SqlQuery.LEASE_EMAIL.sql())) {
+                    for (Entry entry : claimed) {
+                        lease.setInt(1, LEASE_SECONDS);
+                        lease.setLong(2, entry.id());
+                        lease.addBatch();
+                    }
+                    if (!claimed.isEmpty()) lease.executeBatch();
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            System.err.println("[OUTBOX ERROR] Failed to claim emails: " + e.getMessage());
+            return List.of();
+        }
+        return claimed;
+    }
+
+    private static void claimHeld(Connection conn, List<Entry> claimed) throws SQLException {
+        Set<String> usernames = new LinkedHashSet<>();
+        for (Entry entry : claimed) {
+            if (entry.email() == null && entry.username() != null && !urgent(entry.kind(), entry.reservation())) {
+                usernames.add(entry.username());
+            }
+        }
+        if (usernames.isEmpty()) return;
+        try (PreparedStatement pstmt = conn.prepareStatement(SqlQuery.HELD_EMAILS_FOR_USER.sql())) {
+            for (String username : usernames) {
+                pstmt.setString(1, username);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        claimed.add(readEntry(rs));
+                    }
+                }
+            }
+        }
+    }
+
+    private static Entry readEntry(ResultSet rs) throws SQLException {
+        Reservation r = null;
+        Date date = rs.getDate("date");
+        if (rs.getString("room_name") != null && date != null) {
+            r = new Reservation(rs.getString("username"), rs.getString("room_name"),
+                    (int) date.toLocalDate().toEpochDay(),
+                    Reservation.parseMinutes(rs.getString("startTime")),
+                    Reservation.parseMinutes(rs.getString("endTime")),
+                    ReservationStatus.of(rs.getString("res_status")));
+            r.setId(rs.getInt("reservation_id"));
+        }
+        return new Entry(rs.getLong("id"), rs.getString("idempotency_key"),
+                EmailService.Kind.valueOf(rs.getString("kind")), rs.getString("username"),
+                rs.getString("email"), r, rs.getInt("attempts"));
+    }
+
+    // Sends the batch in parallel on the email threads, then records every outcome
+    private static void dispatch(List<Entry> batch) {
+        EmailService emailService = EmailService.getInstance();
+        Map<List<Entry>, CompletableFuture<Void>> sends = new LinkedHashMap<>();
+        Map<Entry, String> failures = new LinkedHashMap<>();
+        for (List<Entry> email : groupByEmail(batch)) {
+            Entry first = email.get(0);
+            User user = recipient(first);
+            if (user == null) {
+                String error = "no user '" + (first.email() != null ? first.email() : first.username()) + "'";
+                email.forEach(entry -> failures.put(entry, error));
+                continue;
+            }
+            if (email.size() == 1) {
+                sends.put(email, emailService.deliver(first.kind(), user, first.reservation(), messageId(first.key())));
+            } else {
+                List<EmailService.Event> events = new ArrayList<>(email.size());
+                email.forEach(entry -> events.add(new EmailService.Event(entry.kind(), entry.reservation())));
+                String key = "digest:" + first.username() + ":" + first.id() + "-" + email.get(email.size() - 1).id();
+                sends.put(email, emailService.deliverDigest(user, events, messageId(key)));
+                System.out.println("[OUTBOX] Digest of " + email.size() + " updates for " + first.username());
+            }
+        }
+
+        List<Entry> sent = new ArrayList<>();
+        for (Map.Entry<List<Entry>, CompletableFuture<Void>> send : sends.entrySet()) {
+            try {
+                send.getValue().join();
+                sent.addAll(send.getKey());
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                String error = String.valueOf(cause.getMessage());
+                send.getKey().forEach(entry -> failures.put(entry, error));
+            }
+        }
+        recordOutcomes(sent, failures);
+    }
+
+    /**
+     * Split a batch into emails: an urgent row is an email of its own, the other rows of a user
+     * become one digest, oldest first
+     */
+    private static List<List<Entry>> groupByEmail(List<Entry> batch) {
+        List<List<Entry>> emails = new ArrayList<>();
+        Map<String, List<Entry>> digests = new LinkedHashMap<>();
+        for (Entry entry : batch) {
+            if (entry.email() != null || entry.username() == null || urgent(entry.kind(), entry.reservation())) {
+                emails.add(List.of(entry));
+            } else {
+                digests.computeIfAbsent(entry.username(), u -> new ArrayList<>()).add(entry);
+            }
+        }
+        for (List<Entry> digest : digests.values()) {
+            digest.sort(Comparator.comparingLong(Entry::id));
+            emails.add(digest);
+        }
+        return emails;
+    }
+
+    private static User recipient(Entry entry) {
+        if (entry.email() != null) return DataStore.getUserByEmail(entry.email());
+        return entry.username() != null ? DataStore.getUserByUsername(entry.username()) : null;
+    }
+
+    private static void recordOutcomes(List<Entry> sent, Map<Entry, String> failures) {
+        int dead = 0;
+        try (Connection conn = DataStore.getConnection();
+             PreparedStatement ok = conn.prepareStatement(SqlQuery.EMAIL_SENT.sql());
+             PreparedStatement failed = conn.prepareStatement(SqlQuery.EMAIL_FAILED.sql())) {
+            for (Entry entry : sent) {
+                ok.setLong(1, entry.id());
+                ok.addBatch();
+            }
+            for (Map.Entry<Entry, String> failure : failures.entrySet()) {
+                int attempts = failure.getKey().attempts() + 1;
+                boolean giveUp = attempts >= MAX_ATTEMPTS;
+                if (giveUp) dead++;
+                String error = failure.getValue();
+                failed.setString(1, giveUp ? DEAD : PENDING);
+                failed.setInt(2, backoffSeconds(attempts));
+                failed.setString(3, error.length() > 1000 ? error.substring(0, 1000) : error);
+                failed.setLong(4, failure.getKey().id());
+                failed.addBatch();
+            }
+            if (!sent.isEmpty()) ok.executeBatch();
+            if (!failures.isEmpty()) failed.executeBatch();
+        } catch (SQLException e) {
+            // Leases run out and the rows are tried again
+            System.err.println("[OUTBOX ERROR] Failed to record outcomes: " + e.getMessage());
+            return;
+        }
+        if (!failures.isEmpty()) {
+            System.out.println("[OUTBOX] Sent " + sent.size() + ", " + (failures.size() - dead) + " to retry, "
+                    + dead + " dead");
+        }
+    }
+
+    /**
+     * 30s, 60s, 120s, ... up to an hour, with +/-20% jitter so a recovering server isn't hit at once
+     */
+    static int backoffSeconds(int attempts) {
+        long base = Math.min((long) BASE_BACKOFF_SECONDS << Math.min(attempts - 1, 20), MAX_BACKOFF_SECONDS);
+        double jitter = 0.8 + ThreadLocalRandom.current().nextDouble() * 0.4;
+        return (int) Math.max(1, base * jitter);
+    }
+
+    private static String messageId(String key) {
+        return "<" + key.replaceAll("[^A-Za-z0-9.\\-]", ".") + "@" + MESSAGE_ID_DOMAIN + ">";
+    }
+
+    private static void purgeSent() {
+        try (Connection conn = DataStore.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(SqlQuery.PURGE_SENT_EMAILS.sql())) {
+            pstmt.setInt(1, RETENTION_DAYS);
+            int purged = pstmt.executeUpdate();
+            if (purged > 0) System.out.println("[OUTBOX] Purged " + purged + " sent email(s)");
+        } catch (SQLException e) {
+            System.err.println("[OUTBOX ERROR] Failed to purge sent emails: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Number of rows per state (pending, sending, sent, dead)
+     */
+    public static Map<String, Integer> counts() {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        try (Connection conn = DataStore.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(SqlQuery.OUTBOX_COUNTS.sql());
+             ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                counts.put(rs.getString(1), rs.getInt(2));
+            }
+        } catch (SQLException e) {
+            System.err.println("[OUTBOX ERROR] Failed to count emails: " + e.getMessage());
+        }
+        return counts;
+    }
+}
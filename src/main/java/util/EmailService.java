@@ -3,10 +3,20 @@ package util;
 import jakarta.mail.*;
 import jakarta.mail.internet.*;
 import model.Reservation;
+import model.ReservationStatus;
 import model.User;
 
+import java.io.UnsupportedEncodingException;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Email service using Jakarta Mail API
@@ -14,17 +24,52 @@ import java.util.concurrent.CompletableFuture;
  */
 public class EmailService {
 
+    private static final int MAIL_THREADS = Integer.parseInt(System.getenv("MAIL_THREADS") != null ?
+            System.getenv("MAIL_THREADS") : "3");
+    private static final int MAIL_QUEUE_SIZE = Integer.parseInt(System.getenv("MAIL_QUEUE_SIZE") != null ?
+            System.getenv("MAIL_QUEUE_SIZE") : "500");
+    private static final int MAIL_MAX_CONNECTIONS_PER_HOST = Integer.parseInt(
+            System.getenv("MAIL_MAX_CONNECTIONS_PER_HOST") != null ?
+                    System.getenv("MAIL_MAX_CONNECTIONS_PER_HOST") : "3");
+    private static final int MAIL_MAX_MESSAGES_PER_CONNECTION = Integer.parseInt(
+            System.getenv("MAIL_MAX_MESSAGES_PER_CONNECTION") != null ?
+                    System.getenv("MAIL_MAX_MESSAGES_PER_CONNECTION") : "100");
+
     private static EmailService instance;
     private final Properties mailProperties;
     private final String fromEmail;
     private final String fromPassword;
     private final boolean enabled;
+    private final Session session;
+    private final SmtpTransportPool transportPool;
+
+    // Bounded: when the queue is full the caller sends the message itself, which slows it down
+    private final ThreadPoolExecutor executor;
+
+    // Metrics
+    private final long startNanos = System.nanoTime();
+    private final LongAdder sentCount = new LongAdder();
+    private final LongAdder failedCount = new LongAdder();
+    private final LongAdder totalSendNanos = new LongAdder();
+    private final AtomicLong maxSendNanos = new AtomicLong();
 
     private EmailService() {
-        // Load email configuration from environment variables or config file
-        this.fromEmail = System.getenv("MAIL_USERNAME");
-        this.fromPassword = System.getenv("MAIL_PASSWORD");
-        this.enabled = fromEmail != null && fromPassword != null;
+        // Load email configuration from environment variables or config file.
+        // A local SMTP stand-in (LocalSmtpServer, MailHog, ...) takes mail without login or TLS
+        this(System.getenv("MAIL_HOST") != null ? System.getenv("MAIL_HOST") : "smtp.gmail.com",
+                Integer.parseInt(System.getenv("MAIL_PORT") != null ? System.getenv("MAIL_PORT") : "587"),
+                !"false".equalsIgnoreCase(System.getenv("MAIL_AUTH")),
+                !"false".equalsIgnoreCase(System.getenv("MAIL_STARTTLS")),
+                System.getenv("MAIL_USERNAME"), System.getenv("MAIL_PASSWORD"), System.getenv("MAIL_HOST") != null,
+                MAIL_THREADS, MAIL_QUEUE_SIZE, MAIL_MAX_CONNECTIONS_PER_HOST, MAIL_MAX_MESSAGES_PER_CONNECTION);
+    }
+
+    private EmailService(String host, int port, boolean auth, boolean starttls, String username, String password,
+                         boolean hostConfigured, int threads, int queueSize, int maxConnections,
+                         int maxMessagesPerConnection) {
+        this.fromEmail = username != null ? username : "noreply@localhost";
+        this.fromPassword = password;
+        this.enabled = auth ? username != null && password != null : hostConfigured;
 
         if (!enabled) {
             System.out.println("[EMAIL] Warning: Email credentials not configured. Email notifications disabled.");
@@ -33,17 +78,44 @@ public class EmailService {
 
         // Configure mail properties for Gmail (modify for other providers)
         mailProperties = new Properties();
-        mailProperties.put("mail.smtp.auth", "true");
-        mailProperties.put("mail.smtp.starttls.enable", "true");
-        mailProperties.put("mail.smtp.host", System.getenv("MAIL_HOST") != null ?
-                System.getenv("MAIL_HOST") : "smtp.gmail.com");
-        mailProperties.put("mail.smtp.port", System.getenv("MAIL_PORT") != null ?
-                System.getenv("MAIL_PORT") : "587");
+        mailProperties.put("mail.smtp.auth", String.valueOf(auth));
+        mailProperties.put("mail.smtp.starttls.enable", String.valueOf(starttls));
+        mailProperties.put("mail.smtp.starttls.required", String.valueOf(starttls));
+        mailProperties.put("mail.smtp.host", host);
+        mailProperties.put("mail.smtp.port", String.valueOf(port));
         mailProperties.put("mail.smtp.ssl.protocols", "TLSv1.2");
         mailProperties.put("mail.smtp.ssl.trust", "*");
+        mailProperties.put("mail.smtp.connectiontimeout", "10000");
+        mailProperties.put("mail.smtp.timeout", "30000");
+        mailProperties.put("mail.debug", String.valueOf("true".equalsIgnoreCase(System.getenv("MAIL_DEBUG"))));
+
+        session = Session.getInstance(mailProperties);
+        transportPool = new SmtpTransportPool(session, host, port, auth ? fromEmail : null, auth ? fromPassword : null,
+                maxConnections, maxMessagesPerConnection);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                r -> {
+                    Thread t = new Thread(r, "email-sender-" + threadNumber.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * A separate service sending to the given server without login or TLS, with its own threads
+     * and connections; e.g. EmailLoadTest against a LocalSmtpServer. The app uses getInstance().
+     */
+    public static EmailService forServer(String host, int port, int threads, int queueSize, int maxConnections,
+                                         int maxMessagesPerConnection) {
+        return new EmailService(host, port, false, false, null, null, true, threads, queueSize, maxConnections,
+                maxMessagesPerConnection);
     }
 
-    public static EmailService getInstance() {
+    public static synchronized EmailService getInstance() {
         if (instance == null) {
             instance = new EmailService();
         }
@@ -51,112 +123,235 @@ public class EmailService {
     }
 
     /**
-     * Send email asynchronously to avoid blocking UI thread
+     * The notifications the system sends
      */
-    private CompletableFuture<Boolean> sendEmailAsync(String toEmail, String subject, String htmlBody) {
-        return CompletableFuture.supplyAsync(() -> {
-            if (!enabled) {
-                System.out.println("[EMAIL] Email not sent (service disabled): " + subject);
-                return false;
-            }
+    public enum Kind {
+        WELCOME,
+        CONFIRMATION,
+        APPROVAL,
+        REJECTION,
+        CANCELLATION;
+
+        /**
+         * Email for a reservation moving to the given status, or null if that status sends none
+         */
+        public static Kind forStatus(String status) {
+            ReservationStatus s = ReservationStatus.of(status);
+            if (s.isApproved()) return APPROVAL;
+            if (s == ReservationStatus.REJECTED) return REJECTION;
+            return null;
+        }
+    }
+
+    /**
+     * One reservation update listed in a digest
+     */
+    public record Event(Kind kind, Reservation reservation) {
+    }
+
+    /**
+     * Send one notification on the email threads. Completes exceptionally if it could not be sent,
+     * so callers that retry (see EmailOutbox) see why.
+     * @param messageId stable Message-ID header for the notification, or null for a generated one.
+     *                  A resend with the same id can be dropped as a duplicate by the receiving server.
+     */
+    public CompletableFuture<Void> deliver(Kind kind, User user, Reservation reservation, String messageId) {
+        if (!enabled) {
+            return CompletableFuture.failedFuture(new IllegalStateException("email service disabled"));
+        }
+        return submit(recipientAddress(user), subject(kind, reservation), body(kind, user, reservation), messageId);
+    }
 
+    /**
+     * Send several updates for one user as a single summary email; completes like deliver()
+     */
+    public CompletableFuture<Void> deliverDigest(User user, List<Event> events, String messageId) {
+        if (!enabled) {
+            return CompletableFuture.failedFuture(new IllegalStateException("email service disabled"));
+        }
+        String subject = "Your reservation updates (" + events.size() + ")";
+        return submit(recipientAddress(user), subject, EmailTemplate.reservationDigest(user, events), messageId);
+    }
+
+    private static String recipientAddress(User user) {
+        return user.getEmail() != null ? user.getEmail() : user.getUsername() + "@example.com";
+    }
+
+    private CompletableFuture<Void> submit(String toEmail, String subject, String htmlBody, String messageId) {
+        return CompletableFuture.runAsync(() -> {
             try {
-                // Enable full Jakarta Mail debug logging
-                mailProperties.put("mail.debug", "true");
-                mailProperties.put("mail.smtp.starttls.required", "true");
-
-                Session session = Session.getInstance(mailProperties, new Authenticator() {
-                    @Override
-                    protected PasswordAuthentication getPasswordAuthentication() {
-                        System.out.println("[DEBUG] Authenticating as: " + fromEmail);
-                        return new PasswordAuthentication(fromEmail, fromPassword);
-                    }
-                });
-
-                System.out.println("[DEBUG] Preparing to send email to: " + toEmail);
-                Message message = new MimeMessage(session);
-                message.setFrom(new InternetAddress(fromEmail, "Conference Room System"));
-                message.setRecipients(Message.RecipientType.TO, InternetAddress.parse(toEmail));
-                message.setSubject(subject);
-                message.setContent(htmlBody, "text/html; charset=utf-8");
-
-                // Send synchronously for now so we see exceptions clearly
-                Transport.send(message);
-
-                System.out.println("[EMAIL] ✅ Successfully sent email to: " + toEmail);
-                System.out.println("[EMAIL] Subject: " + subject);
-                return true;
-
-            } catch (Exception e) {
-                System.err.println("[EMAIL ERROR] ❌ Failed to send email to " + toEmail + ": " + e.getMessage());
-                e.printStackTrace();
-                return false;
+                send(toEmail, subject, htmlBody, messageId);
+            } catch (MessagingException | UnsupportedEncodingException e) {
+                throw new CompletionException(e);
             }
-        }).exceptionally(ex -> {
-            System.err.println("[EMAIL ERROR] Async exception: " + ex.getMessage());
-            ex.printStackTrace();
+        }, executor);
+    }
+
+    private static String subject(Kind kind, Reservation reservation) {
+        return switch (kind) {
+            case WELCOME -> "Welcome to Conference Room Reservation System";
+            case CONFIRMATION -> "Reservation Request Received - " + reservation.getRoomName();
+            case APPROVAL -> "Reservation Approved - " + reservation.getRoomName();
+            case REJECTION -> "Reservation Rejected - " + reservation.getRoomName();
+            case CANCELLATION -> "Reservation Cancelled - " + reservation.getRoomName();
+        };
+    }
+
+    private static String body(Kind kind, User user, Reservation reservation) {
+        return switch (kind) {
+            case WELCOME -> EmailTemplate.welcomeEmail(user);
+            case CONFIRMATION -> EmailTemplate.reservationConfirmation(user, reservation);
+            case APPROVAL -> EmailTemplate.reservationApproved(user, reservation);
+            case REJECTION -> EmailTemplate.reservationRejected(user, reservation);
+            case CANCELLATION -> EmailTemplate.reservationCancelled(user, reservation);
+        };
+    }
+
+    /**
+     * Send email asynchronously to avoid blocking UI thread. Failures are logged and reported as false.
+     */
+    private CompletableFuture<Boolean> sendEmailAsync(Kind kind, User user, Reservation reservation) {
+        if (!enabled) {
+            System.out.println("[EMAIL] Email not sent (service disabled): " + kind);
+            return CompletableFuture.completedFuture(false);
+        }
+        return deliver(kind, user, reservation, null).handle((ok, ex) -> {
+            if (ex == null) return true;
+            Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+            System.err.println("[EMAIL ERROR] Failed to send " + kind + " email to " + user.getEmail()
+                    + ": " + cause.getMessage());
             return false;
         });
     }
 
+    private void send(String toEmail, String subject, String htmlBody, String messageId)
+            throws MessagingException, UnsupportedEncodingException {
+        long start = System.nanoTime();
+        try {
+            Message message = new MimeMessage(session) {
+                @Override
+                protected void updateMessageID() throws MessagingException {
+                    if (messageId != null) {
+                        setHeader("Message-ID", messageId);
+                    } else {
+                        super.updateMessageID();
+                    }
+                }
+            };
+            message.setFrom(new InternetAddress(fromEmail, "Conference Room System"));
+            message.setRecipients(Message.RecipientType.TO, InternetAddress.parse(toEmail));
+            message.setSubject(subject);
+            message.setContent(htmlBody, "text/html; charset=utf-8");
+            message.saveChanges(); // Transport.send did this for us
+
+            transportPool.send(message);
+        } catch (MessagingException | UnsupportedEncodingException e) {
+            failedCount.increment();
+            throw e;
+        }
+        recordSend(start);
+        System.out.println("[EMAIL] Sent \"" + subject + "\" to " + toEmail);
+    }
+
+    private void recordSend(long startNanos) {
+        long elapsed = System.nanoTime() - startNanos;
+        sentCount.increment();
+        totalSendNanos.add(elapsed);
+        maxSendNanos.accumulateAndGet(elapsed, Math::max);
+    }
 
     /**
-     * Send reservation confirmation email
+     * Let queued emails go out (up to the timeout) and close the SMTP connections
      */
-    public CompletableFuture<Boolean> sendReservationConfirmation(User user, Reservation reservation) {
-        String subject = "Reservation Request Received - " + reservation.getRoomName();
-        String htmlBody = EmailTemplate.reservationConfirmation(user, reservation);
+    public void shutdown(long timeoutMillis) {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                System.err.println("[EMAIL ERROR] " + executor.shutdownNow().size() + " email(s) dropped at shutdown");
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        transportPool.close();
+        System.out.println("[EMAIL] " + this);
+        System.out.println("[EMAIL] " + transportPool);
+    }
+
+    public long getSentCount() {
+        return sentCount.sum();
+    }
+
+    public long getFailedCount() {
+        return failedCount.sum();
+    }
 
-        // Use user's actual email if available, otherwise construct from username
-        String toEmail = user.getEmail() != null ? user.getEmail() : user.getUsername() + "@example.com";
+    public int getQueuedCount() {
+        return executor.getQueue().size();
+    }
 
-        return sendEmailAsync(toEmail, subject, htmlBody);
+    public double getAverageSendMillis() {
+        long sent = sentCount.sum();
+        return sent == 0 ? 0 : totalSendNanos.sum() / 1_000_000.0 / sent;
+    }
+
+    public double getMaxSendMillis() {
+        return maxSendNanos.get() / 1_000_000.0;
     }
 
     /**
-     * Send reservation approval email
+     * Messages sent per second since the service started
      */
-    public CompletableFuture<Boolean> sendReservationApproval(User user, Reservation reservation) {
-        String subject = "Reservation Approved - " + reservation.getRoomName();
-        String htmlBody = EmailTemplate.reservationApproved(user, reservation);
+    public double getThroughput() {
+        double seconds = (System.nanoTime() - startNanos) / 1_000_000_000.0;
+        return seconds <= 0 ? 0 : sentCount.sum() / seconds;
+    }
 
-        String toEmail = user.getEmail() != null ? user.getEmail() : user.getUsername() + "@example.com";
+    public SmtpTransportPool getTransportPool() {
+        return transportPool;
+    }
 
-        return sendEmailAsync(toEmail, subject, htmlBody);
+    @Override
+    public String toString() {
+        return String.format("EmailService{sent=%d, failed=%d, queued=%d, avgSend=%.1fms, maxSend=%.1fms, " +
+                        "throughput=%.2f msg/s}",
+                getSentCount(), getFailedCount(), getQueuedCount(), getAverageSendMillis(), getMaxSendMillis(),
+                getThroughput());
     }
 
     /**
-     * Send reservation rejection email
+     * Send reservation confirmation email
      */
-    public CompletableFuture<Boolean> sendReservationRejection(User user, Reservation reservation) {
-        String subject = "Reservation Rejected - " + reservation.getRoomName();
-        String htmlBody = EmailTemplate.reservationRejected(user, reservation);
+    public CompletableFuture<Boolean> sendReservationConfirmation(User user, Reservation reservation) {
+        return sendEmailAsync(Kind.CONFIRMATION, user, reservation);
+    }
 
-        String toEmail = user.getEmail() != null ? user.getEmail() : user.getUsername() + "@example.com";
+    /**
+     * Send reservation approval email
+     */
+    public CompletableFuture<Boolean> sendReservationApproval(User user, Reservation reservation) {
+        return sendEmailAsync(Kind.APPROVAL, user, reservation);
+    }
 
-        return sendEmailAsync(toEmail, subject, htmlBody);
+    /**
+     * Send reservation rejection email
+     */
+    public CompletableFuture<Boolean> sendReservationRejection(User user, Reservation reservation) {
+        return sendEmailAsync(Kind.REJECTION, user, reservation);
     }
 
     /**
      * Send reservation cancellation email
      */
     public CompletableFuture<Boolean> sendReservationCancellation(User user, Reservation reservation) {
-        String subject = "Reservation Cancelled - " + reservation.getRoomName();
-        String htmlBody = EmailTemplate.reservationCancelled(user, reservation);
-
-        String toEmail = user.getEmail() != null ? user.getEmail() : user.getUsername() + "@example.com";
-
-        return sendEmailAsync(toEmail, subject, htmlBody);
+        return sendEmailAsync(Kind.CANCELLATION, user, reservation);
     }
 
     /**
      * Send welcome email for new user registration
      */
     public CompletableFuture<Boolean> sendWelcomeEmail(User user) {
-        String subject = "Welcome to Conference Room Reservation System";
-        String htmlBody = EmailTemplate.welcomeEmail(user);
-
-        return sendEmailAsync(user.getEmail(), subject, htmlBody);
+        return sendEmailAsync(Kind.WELCOME, user, null);
     }
 
     /**
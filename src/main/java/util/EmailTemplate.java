@@ -3,11 +3,14 @@ package util;
 import model.Reservation;
 import model.User;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
 
 /**
- * HTML email templates for conference room system
+ * HTML email templates for conference room system.
+ * Each email is compiled once (see CompiledTemplate) with the page wrapper, title and colours
+ * already in place; sending only fills in the user and reservation fields, HTML-escaped.
  */
 public class EmailTemplate {
 
@@ -16,33 +19,39 @@ public class EmailTemplate {
     private static final String WARNING_COLOR = "#FF9800";
     private static final String DANGER_COLOR = "#f44336";
 
+    // Values passed to every template, in this order
+    private static final String[] FIELDS = {"username", "room", "date", "startTime", "endTime", "year"};
+
+    // The copyright year, recomputed when the year turns instead of on every email
+    private static volatile String year;
+    private static volatile long yearEndsAtMillis;
+
     /**
-     * Base HTML template wrapper
+     * Base HTML template wrapper; {{title}}, {{accent}} and {{&content}} are filled in by page()
      */
-    private static String wrapTemplate(String title, String content, String accentColor) {
-        return String.format("""
+    private static final String PAGE = """
             <!DOCTYPE html>
             <html>
             <head>
                 <meta charset="UTF-8">
                 <meta name="viewport" content="width=device-width, initial-scale=1.0">
-                <title>%s</title>
+                <title>{{title}}</title>
             </head>
             <body style="margin: 0; padding: 0; font-family: Arial, sans-serif; background-color: #f5f5f5;">
-                <table width="100%%" cellpadding="0" cellspacing="0" style="background-color: #f5f5f5; padding: 20px;">
+                <table width="100%" cellpadding="0" cellspacing="0" style="background-color: #f5f5f5; padding: 20px;">
                     <tr>
                         <td align="center">
                             <table width="600" cellpadding="0" cellspacing="0" style="background-color: white; border-radius: 8px; box-shadow: 0 2px 4px rgba(0,0,0,0.1);">
                                 <!-- Header -->
                                 <tr>
-                                    <td style="background-color: %s; padding: 30px; text-align: center; border-radius: 8px 8px 0 0;">
+                                    <td style="background-color: {{accent}}; padding: 30px; text-align: center; border-radius: 8px 8px 0 0;">
                                         <h1 style="margin: 0; color: white; font-size: 24px;">Conference Room System</h1>
                                     </td>
                                 </tr>
                                 <!-- Content -->
                                 <tr>
                                     <td style="padding: 40px 30px;">
-                                        %s
+                                        {{&content}}
                                     </td>
                                 </tr>
                                 <!-- Footer -->
@@ -53,7 +62,7 @@ public class EmailTemplate {
                                             Please do not reply to this email
                                         </p>
                                         <p style="margin: 10px 0 0 0; color: #999; font-size: 11px;">
-                                            &copy; %d Conference Room System. All rights reserved.
+                                            &copy; {{year}} Conference Room System. All rights reserved.
                                         </p>
                                     </td>
                                 </tr>
@@ -63,223 +72,176 @@ public class EmailTemplate {
                 </table>
             </body>
             </html>
-            """, title, accentColor, content, LocalDateTime.now().getYear());
-    }
+            """;
 
-    /**
-     * Reservation confirmation email (when user submits request)
-     */
-    public static String reservationConfirmation(User user, Reservation reservation) {
-        String content = String.format("""
-            <h2 style="color: #333; margin-top: 0;">Hello %s,</h2>
+    // Reservation confirmation email (when user submits request)
+    private static final CompiledTemplate CONFIRMATION = page("Reservation Request Received", BRAND_COLOR, """
+            <h2 style="color: #333; margin-top: 0;">Hello {{username}},</h2>
             <p style="color: #555; line-height: 1.6; font-size: 14px;">
-                Thank you for submitting your reservation request. We have received your booking details 
+                Thank you for submitting your reservation request. We have received your booking details
                 and it is now pending admin approval.
             </p>
-            
-            <div style="background-color: #fff3cd; border-left: 4px solid %s; padding: 15px; margin: 20px 0;">
+
+            <div style="background-color: #fff3cd; border-left: 4px solid {{warningColor}}; padding: 15px; margin: 20px 0;">
                 <h3 style="margin: 0 0 10px 0; color: #856404;">📋 Reservation Details</h3>
-                <table style="width: 100%%; font-size: 14px;">
+                <table style="width: 100%; font-size: 14px;">
                     <tr>
                         <td style="padding: 5px 0; color: #666; font-weight: bold;">Room:</td>
-                        <td style="padding: 5px 0; color: #333;">%s</td>
+                        <td style="padding: 5px 0; color: #333;">{{room}}</td>
                     </tr>
                     <tr>
                         <td style="padding: 5px 0; color: #666; font-weight: bold;">Date:</td>
-                        <td style="padding: 5px 0; color: #333;">%s</td>
+                        <td style="padding: 5px 0; color: #333;">{{date}}</td>
                     </tr>
                     <tr>
                         <td style="padding: 5px 0; color: #666; font-weight: bold;">Time:</td>
-                        <td style="padding: 5px 0; color: #333;">%s - %s</td>
+                        <td style="padding: 5px 0; color: #333;">{{startTime}} - {{endTime}}</td>
                     </tr>
                     <tr>
                         <td style="padding: 5px 0; color: #666; font-weight: bold;">Status:</td>
                         <td style="padding: 5px 0;">
-                            <span style="background-color: %s; color: white; padding: 4px 12px; border-radius: 3px; font-size: 12px; font-weight: bold;">
+                            <span style="background-color: {{warningColor}}; color: white; padding: 4px 12px; border-radius: 3px; font-size: 12px; font-weight: bold;">
                                 PENDING APPROVAL
                             </span>
                         </td>
                     </tr>
                 </table>
             </div>
-            
+
             <p style="color: #555; line-height: 1.6; font-size: 14px;">
-                An administrator will review your request shortly. You will receive another email once 
+                An administrator will review your request shortly. You will receive another email once
                 your reservation has been approved or if any changes are needed.
             </p>
-            
+
             <p style="color: #555; line-height: 1.6; font-size: 14px;">
                 If you have any questions, please contact the facilities team.
             </p>
-            
+
             <p style="color: #555; margin-top: 30px;">
                 Best regards,<br>
                 <strong>Conference Room Management Team</strong>
             </p>
-            """,
-                user.getUsername(),
-                WARNING_COLOR,
-                reservation.getRoomName(),
-                reservation.getDate(),
-                reservation.getStartTime(),
-                reservation.getEndTime(),
-                WARNING_COLOR
-        );
-
-        return wrapTemplate("Reservation Request Received", content, BRAND_COLOR);
-    }
+            """);
 
-    /**
-     * Reservation approval email
-     */
-    public static String reservationApproved(User user, Reservation reservation) {
-        String content = String.format("""
-            <h2 style="color: #333; margin-top: 0;">Great News, %s! 🎉</h2>
+    // Reservation approval email
+    private static final CompiledTemplate APPROVED = page("Reservation Approved", SUCCESS_COLOR, """
+            <h2 style="color: #333; margin-top: 0;">Great News, {{username}}! 🎉</h2>
             <p style="color: #555; line-height: 1.6; font-size: 14px;">
-                Your reservation request has been <strong style="color: %s;">APPROVED</strong>!
+                Your reservation request has been <strong style="color: {{successColor}};">APPROVED</strong>!
             </p>
-            
-            <div style="background-color: #e8f5e9; border-left: 4px solid %s; padding: 15px; margin: 20px 0;">
+
+            <div style="background-color: #e8f5e9; border-left: 4px solid {{successColor}}; padding: 15px; margin: 20px 0;">
                 <h3 style="margin: 0 0 10px 0; color: #2e7d32;">✅ Confirmed Reservation</h3>
-                <table style="width: 100%%; font-size: 14px;">
+                <table style="width: 100%; font-size: 14px;">
                     <tr>
                         <td style="padding: 5px 0; color: #666; font-weight: bold;">Room:</td>
-                        <td style="padding: 5px 0; color: #333;">%s</td>
+                        <td style="padding: 5px 0; color: #333;">{{room}}</td>
                     </tr>
                     <tr>
                         <td style="padding: 5px 0; color: #666; font-weight: bold;">Date:</td>
-                        <td style="padding: 5px 0; color: #333;">%s</td>
+                        <td style="padding: 5px 0; color: #333;">{{date}}</td>
                     </tr>
                     <tr>
                         <td style="padding: 5px 0; color: #666; font-weight: bold;">Time:</td>
-                        <td style="padding: 5px 0; color: #333;">%s - %s</td>
+                        <td style="padding: 5px 0; color: #333;">{{startTime}} - {{endTime}}</td>
                     </tr>
                     <tr>
                         <td style="padding: 5px 0; color: #666; font-weight: bold;">Status:</td>
                         <td style="padding: 5px 0;">
-                            <span style="background-color: %s; color: white; padding: 4px 12px; border-radius: 3px; font-size: 12px; font-weight: bold;">
+                            <span style="background-color: {{successColor}}; color: white; padding: 4px 12px; border-radius: 3px; font-size: 12px; font-weight: bold;">
                                 APPROVED
                             </span>
                         </td>
                     </tr>
                 </table>
             </div>
-            
+
             <div style="background-color: #e3f2fd; padding: 15px; margin: 20px 0; border-radius: 4px;">
                 <p style="margin: 0; color: #1565c0; font-size: 13px;">
-                    💡 <strong>Reminder:</strong> Please arrive on time and ensure the room is clean before you leave. 
+                    💡 <strong>Reminder:</strong> Please arrive on time and ensure the room is clean before you leave.
                     If you need to cancel, please do so at least 24 hours in advance.
                 </p>
             </div>
-            
+
             <p style="color: #555; line-height: 1.6; font-size: 14px;">
                 We look forward to hosting your meeting!
             </p>
-            
+
             <p style="color: #555; margin-top: 30px;">
                 Best regards,<br>
                 <strong>Conference Room Management Team</strong>
             </p>
-            """,
-                user.getUsername(),
-                SUCCESS_COLOR,
-                SUCCESS_COLOR,
-                reservation.getRoomName(),
-                reservation.getDate(),
-                reservation.getStartTime(),
-                reservation.getEndTime(),
-                SUCCESS_COLOR
-        );
-
-        return wrapTemplate("Reservation Approved", content, SUCCESS_COLOR);
-    }
+            """);
 
-    /**
-     * Reservation rejection email
-     */
-    public static String reservationRejected(User user, Reservation reservation) {
-        String content = String.format("""
-            <h2 style="color: #333; margin-top: 0;">Hello %s,</h2>
+    // Reservation rejection email
+    private static final CompiledTemplate REJECTED = page("Reservation Not Approved", DANGER_COLOR, """
+            <h2 style="color: #333; margin-top: 0;">Hello {{username}},</h2>
             <p style="color: #555; line-height: 1.6; font-size: 14px;">
                 We regret to inform you that your reservation request could not be approved at this time.
             </p>
-            
-            <div style="background-color: #ffebee; border-left: 4px solid %s; padding: 15px; margin: 20px 0;">
+
+            <div style="background-color: #ffebee; border-left: 4px solid {{dangerColor}}; padding: 15px; margin: 20px 0;">
                 <h3 style="margin: 0 0 10px 0; color: #c62828;">❌ Reservation Not Approved</h3>
-                <table style="width: 100%%; font-size: 14px;">
+                <table style="width: 100%; font-size: 14px;">
                     <tr>
                         <td style="padding: 5px 0; color: #666; font-weight: bold;">Room:</td>
-                        <td style="padding: 5px 0; color: #333;">%s</td>
+                        <td style="padding: 5px 0; color: #333;">{{room}}</td>
                     </tr>
                     <tr>
                         <td style="padding: 5px 0; color: #666; font-weight: bold;">Date:</td>
-                        <td style="padding: 5px 0; color: #333;">%s</td>
+                        <td style="padding: 5px 0; color: #333;">{{date}}</td>
                     </tr>
                     <tr>
                         <td style="padding: 5px 0; color: #666; font-weight: bold;">Time:</td>
-                        <td style="padding: 5px 0; color: #333;">%s - %s</td>
+                        <td style="padding: 5px 0; color: #333;">{{startTime}} - {{endTime}}</td>
                     </tr>
                     <tr>
                         <td style="padding: 5px 0; color: #666; font-weight: bold;">Status:</td>
                         <td style="padding: 5px 0;">
-                            <span style="background-color: %s; color: white; padding: 4px 12px; border-radius: 3px; font-size: 12px; font-weight: bold;">
+                            <span style="background-color: {{dangerColor}}; color: white; padding: 4px 12px; border-radius: 3px; font-size: 12px; font-weight: bold;">
                                 REJECTED
                             </span>
                         </td>
                     </tr>
                 </table>
             </div>
-            
+
             <p style="color: #555; line-height: 1.6; font-size: 14px;">
-                This may be due to a scheduling conflict or other administrative reasons. 
+                This may be due to a scheduling conflict or other administrative reasons.
                 Please feel free to submit a new reservation request for a different time slot.
             </p>
-            
+
             <p style="color: #555; line-height: 1.6; font-size: 14px;">
                 If you have questions about this decision, please contact the facilities team.
             </p>
-            
+
             <p style="color: #555; margin-top: 30px;">
                 Best regards,<br>
                 <strong>Conference Room Management Team</strong>
             </p>
-            """,
-                user.getUsername(),
-                DANGER_COLOR,
-                reservation.getRoomName(),
-                reservation.getDate(),
-                reservation.getStartTime(),
-                reservation.getEndTime(),
-                DANGER_COLOR
-        );
-
-        return wrapTemplate("Reservation Not Approved", content, DANGER_COLOR);
-    }
+            """);
 
-    /**
-     * Reservation cancellation email
-     */
-    public static String reservationCancelled(User user, Reservation reservation) {
-        String content = String.format("""
-            <h2 style="color: #333; margin-top: 0;">Hello %s,</h2>
+    // Reservation cancellation email
+    private static final CompiledTemplate CANCELLED = page("Reservation Cancelled", BRAND_COLOR, """
+            <h2 style="color: #333; margin-top: 0;">Hello {{username}},</h2>
             <p style="color: #555; line-height: 1.6; font-size: 14px;">
                 Your reservation has been successfully cancelled.
             </p>
-            
+
             <div style="background-color: #fafafa; border-left: 4px solid #757575; padding: 15px; margin: 20px 0;">
                 <h3 style="margin: 0 0 10px 0; color: #424242;">🗑️ Cancelled Reservation</h3>
-                <table style="width: 100%%; font-size: 14px;">
+                <table style="width: 100%; font-size: 14px;">
                     <tr>
                         <td style="padding: 5px 0; color: #666; font-weight: bold;">Room:</td>
-                        <td style="padding: 5px 0; color: #333;">%s</td>
+                        <td style="padding: 5px 0; color: #333;">{{room}}</td>
                     </tr>
                     <tr>
                         <td style="padding: 5px 0; color: #666; font-weight: bold;">Date:</td>
-                        <td style="padding: 5px 0; color: #333;">%s</td>
+                        <td style="padding: 5px 0; color: #333;">{{date}}</td>
                     </tr>
                     <tr>
                         <td style="padding: 5px 0; color: #666; font-weight: bold;">Time:</td>
-                        <td style="padding: 5px 0; color: #333;">%s - %s</td>
+                        <td style="padding: 5px 0; color: #333;">{{startTime}} - {{endTime}}</td>
                     </tr>
                     <tr>
                         <td style="padding: 5px 0; color: #666; font-weight: bold;">Status:</td>
@@ -291,38 +253,26 @@ public class EmailTemplate {
                     </tr>
                 </table>
             </div>
-            
+
             <p style="color: #555; line-height: 1.6; font-size: 14px;">
-                The room is now available for other users to book. You're welcome to make a new 
+                The room is now available for other users to book. You're welcome to make a new
                 reservation anytime through the system.
             </p>
-            
+
             <p style="color: #555; margin-top: 30px;">
                 Best regards,<br>
                 <strong>Conference Room Management Team</strong>
             </p>
-            """,
-                user.getUsername(),
-                reservation.getRoomName(),
-                reservation.getDate(),
-                reservation.getStartTime(),
-                reservation.getEndTime()
-        );
-
-        return wrapTemplate("Reservation Cancelled", content, BRAND_COLOR);
-    }
+            """);
 
-    /**
-     * Welcome email for new users
-     */
-    public static String welcomeEmail(User user) {
-        String content = String.format("""
-            <h2 style="color: #333; margin-top: 0;">Welcome to Conference Room System, %s! 👋</h2>
+    // Welcome email for new users
+    private static final CompiledTemplate WELCOME = page("Welcome to Conference Room System", SUCCESS_COLOR, """
+            <h2 style="color: #333; margin-top: 0;">Welcome to Conference Room System, {{username}}! 👋</h2>
             <p style="color: #555; line-height: 1.6; font-size: 14px;">
-                Thank you for registering with our Conference Room Reservation System. 
+                Thank you for registering with our Conference Room Reservation System.
                 Your account has been successfully created!
             </p>
-            
+
             <div style="background-color: #e3f2fd; padding: 20px; margin: 20px 0; border-radius: 4px;">
                 <h3 style="margin: 0 0 15px 0; color: #1565c0;">📚 Getting Started</h3>
                 <ul style="margin: 0; padding-left: 20px; color: #555; line-height: 1.8;">
@@ -333,26 +283,157 @@ public class EmailTemplate {
                     <li>Check "My Reservations" to view and manage your bookings</li>
                 </ul>
             </div>
-            
+
             <div style="background-color: #fff3cd; padding: 15px; margin: 20px 0; border-radius: 4px;">
                 <p style="margin: 0; color: #856404; font-size: 13px;">
-                    💡 <strong>Tip:</strong> Book rooms in advance to ensure availability. 
+                    💡 <strong>Tip:</strong> Book rooms in advance to ensure availability.
                     All reservations require admin approval for quality control.
                 </p>
             </div>
-            
+
             <p style="color: #555; line-height: 1.6; font-size: 14px;">
                 If you have any questions or need assistance, please don't hesitate to contact our support team.
             </p>
-            
+
             <p style="color: #555; margin-top: 30px;">
                 Best regards,<br>
                 <strong>Conference Room Management Team</strong>
             </p>
-            """,
-                user.getUsername()
-        );
+            """);
+
+    // Summary of several updates for one user; {{&rows}} is one DIGEST_ROW per update
+    private static final CompiledTemplate DIGEST = page("Your Reservation Updates", BRAND_COLOR, """
+            <h2 style="color: #333; margin-top: 0;">Hello {{username}},</h2>
+            <p style="color: #555; line-height: 1.6; font-size: 14px;">
+                Here is a summary of the latest {{count}} updates to your reservations.
+            </p>
+
+            <table style="width: 100%; font-size: 14px; border-collapse: collapse; margin: 20px 0;">
+                <tr>
+                    <td style="padding: 8px 0; color: #666; font-weight: bold; border-bottom: 2px solid #e0e0e0;">Status</td>
+                    <td style="padding: 8px 0; color: #666; font-weight: bold; border-bottom: 2px solid #e0e0e0;">Room</td>
+                    <td style="padding: 8px 0; color: #666; font-weight: bold; border-bottom: 2px solid #e0e0e0;">Date</td>
+                    <td style="padding: 8px 0; color: #666; font-weight: bold; border-bottom: 2px solid #e0e0e0;">Time</td>
+                </tr>
+                {{&rows}}
+            </table>
+
+            <p style="color: #555; line-height: 1.6; font-size: 14px;">
+                Check "My Reservations" for the full details of each booking. If you have any questions,
+                please contact the facilities team.
+            </p>
+
+            <p style="color: #555; margin-top: 30px;">
+                Best regards,<br>
+                <strong>Conference Room Management Team</strong>
+            </p>
+            """, "username", "count", "rows", "year");
+
+    private static final CompiledTemplate DIGEST_ROW = CompiledTemplate.compile("""
+                <tr>
+                    <td style="padding: 8px 0; border-bottom: 1px solid #eee;">
+                        <span style="background-color: {{color}}; color: white; padding: 3px 10px; border-radius: 3px; font-size: 11px; font-weight: bold;">{{label}}</span>
+                    </td>
+                    <td style="padding: 8px 0; color: #333; border-bottom: 1px solid #eee;">{{room}}</td>
+                    <td style="padding: 8px 0; color: #333; border-bottom: 1px solid #eee;">{{date}}</td>
+                    <td style="padding: 8px 0; color: #333; border-bottom: 1px solid #eee;">{{startTime}} - {{endTime}}</td>
+                </tr>
+            """, "color", "label", "room", "date", "startTime", "endTime");
+
+    /**
+     * Compile one email: the wrapper with its title, accent colour and content inlined
+     */
+    private static CompiledTemplate page(String title, String accentColor, String content) {
+        return page(title, accentColor, content, FIELDS);
+    }
+
+    private static CompiledTemplate page(String title, String accentColor, String content, String... names) {
+        String source = PAGE
+                .replace("{{title}}", title)
+                .replace("{{accent}}", accentColor)
+                .replace("{{&content}}", content)
+                .replace("{{brandColor}}", BRAND_COLOR)
+                .replace("{{successColor}}", SUCCESS_COLOR)
+                .replace("{{warningColor}}", WARNING_COLOR)
+                .replace("{{dangerColor}}", DANGER_COLOR);
+        return CompiledTemplate.compile(source, names);
+    }
+
+    private static String render(CompiledTemplate template, User user, Reservation reservation) {
+        if (reservation == null) {
+            return template.render(user.getUsername(), null, null, null, null, currentYear());
+        }
+        return template.render(user.getUsername(), reservation.getRoomName(), reservation.getDate(),
+                reservation.getStartTime(), reservation.getEndTime(), currentYear());
+    }
+
+    private static String currentYear() {
+        if (System.currentTimeMillis() >= yearEndsAtMillis) {
+            LocalDate today = LocalDate.now();
+            year = String.valueOf(today.getYear());
+            yearEndsAtMillis = LocalDate.of(today.getYear() + 1, 1, 1)
+                    .atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        }
+        return year;
+    }
+
+    /**
+     * Reservation confirmation email (when user submits request)
+     */
+    public static String reservationConfirmation(User user, Reservation reservation) {
+        return render(CONFIRMATION, user, reservation);
+    }
+
+    /**
+     * Reservation approval email
+     */
+    public static String reservationApproved(User user, Reservation reservation) {
+        return render(APPROVED, user, reservation);
+    }
+
+    /**
+     * Reservation rejection email
+     */
+    public static String reservationRejected(User user, Reservation reservation) {
+        return render(REJECTED, user, reservation);
+    }
+
+    /**
+     * Reservation cancellation email
+     */
+    public static String reservationCancelled(User user, Reservation reservation) {
+        return render(CANCELLED, user, reservation);
+    }
+
+    /**
+     * Welcome email for new users
+     */
+    public static String welcomeEmail(User user) {
+        return render(WELCOME, user, null);
+    }
+
+    /**
+     * One email summarising several reservation updates, a row per update in the given order
+     */
+    public static String reservationDigest(User user, List<EmailService.Event> events) {
+        StringBuilder rows = new StringBuilder(events.size() * 700);
+        for (EmailService.Event event : events) {
+            Reservation r = event.reservation();
+            String[] badge = badge(event.kind());
+            DIGEST_ROW.appendTo(rows, badge[0], badge[1], r.getRoomName(), r.getDate(), r.getStartTime(),
+                    r.getEndTime());
+        }
+        return DIGEST.render(user.getUsername(), String.valueOf(events.size()), rows.toString(), currentYear());
+    }
 
-        return wrapTemplate("Welcome to Conference Room System", content, SUCCESS_COLOR);
+    // Colour and label of the status badge for an update
+    private static String[] badge(EmailService.Kind kind) {
+        return switch (kind) {
+            case CONFIRMATION -> new String[] {WARNING_COLOR, "PENDING APPROVAL"};
+            case APPROVAL -> new String[] {SUCCESS_COLOR, "APPROVED"};
+            case REJECTION -> new String[] {DANGER_COLOR, "REJECTED"};
+            case CANCELLATION -> new String[] {"#757575", "CANCELLED"};
+            case WELCOME -> new String[] {BRAND_COLOR, "WELCOME"};
+        };
     }
-}
\ No newline at end of file
+}
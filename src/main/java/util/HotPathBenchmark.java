@@ -0,0 +1,285 @@
+package util;
+
+import model.Reservation;
+import model.Room;
+import model.User;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntFunction;
+
+/**
+ * Micro-benchmarks for the model and DataStore hot paths, run from the command line:
+ *
+ *   java util.HotPathBenchmark [rooms] [reservations] [rounds]
+ *
+ * The DataStore suites run against the database configured by the DB_* variables, so point
+ * DB_NAME at a scratch schema. Synthetic "bench-" rooms and reservations are seeded first and
+ * removed again afterwards. Each suite gets warm-up rounds before the measured ones.
+ * The email template suite is paired with a String.format baseline, the way emails were rendered
+ * before CompiledTemplate.
+ */
+public class HotPathBenchmark {
+
+    private static final String PREFIX = "bench-";
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int SEED_BATCH_SIZE = 1000;
+
+    // Results are folded into this so the JIT can't drop the work being measured
+    private static volatile int sink;
+
+    public static void main(String[] args) throws SQLException {
+        int roomCount = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        int reservationCount = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        System.out.println("[BENCH] " + roomCount + " rooms, " + reservationCount + " reservations, "
+                + rounds + " measured rounds");
+
+        // Model suites need no database
+        List<Reservation> sample = generate(roomCount, Math.min(reservationCount, 10_000), new Random(1));
+        User user = new User(PREFIX + "user", PREFIX + "user@example.com", "password", "user");
+
+        run("Reservation.conflictsWith", rounds, 100_000, i -> {
+            Reservation r = sample.get(i % sample.size());
+            return r.conflictsWith(r.getEpochDay(), 10 * 60, 11 * 60);
+        });
+        run("EmailTemplate.reservationConfirmation", rounds, 10_000,
+                i -> EmailTemplate.reservationConfirmation(user, sample.get(i % sample.size())));
+        run("String.format confirmation (baseline)", rounds, 10_000,
+                i -> formatConfirmation(user, sample.get(i % sample.size())));
+
+        // DataStore suites
+        DataStore.initialize();
+        if (DataStore.getPool() == null) {
+            System.err.println("[BENCH] Database not reachable, skipping DataStore suites");
+            return;
+        }
+        List<String> rooms = seed(roomCount, reservationCount);
+        try {
+            DataStore.getReservations(); // first load, so the delta suite starts from a synced list
+            String today = LocalDate.now().toString();
+
+            run("DataStore.hasConflict", rounds, 100_000, i -> DataStore.hasConflict(
+                    rooms.get(i % rooms.size()), today, "10:00", "11:00"));
+            run("DataStore.computeRoomStatusNow", rounds, 200,
+                    i -> DataStore.computeRoomStatusNow(rooms.get(i % rooms.size())));
+            run("DataStore.getReservationsByUser", rounds, 200,
+                    i -> DataStore.getReservationsByUser(PREFIX + "user" + (i % 50)).size());
+            run("syncReservationsFromDB (delta)", rounds, 50, i -> DataStore.getReservations().size());
+
+            DataStore.setDeltaSyncEnabled(false);
+            run("syncReservationsFromDB (full)", rounds, 5, i -> DataStore.getReservations().size());
+            DataStore.setDeltaSyncEnabled(true);
+        } finally {
+            cleanup(rooms);
+            System.out.println("[BENCH] " + DataStore.getPool());
+            DataStore.closeConnection();
+        }
+    }
+
+    private static void run(String name, int rounds, int opsPerRound, IntFunction<Object> op) {
+        for (int w = 0; w < WARMUP_ROUNDS; w++) {
+            round(opsPerRound, op);
+        }
+        double[] nsPerOp = new double[rounds];
+        for (int r = 0; r < rounds; r++) {
+            nsPerOp[r] = round(opsPerRound, op);
+        }
+        Arrays.sort(nsPerOp);
+        double mean = Arrays.stream(nsPerOp).average().orElse(0);
+        System.out.printf("[BENCH] %-40s mean=%12.1f ns/op  min=%12.1f  max=%12.1f%n",
+                name, mean, nsPerOp[0], nsPerOp[rounds - 1]);
+    }
+
+    private static double round(int ops, IntFunction<Object> op) {
+        long start = System.nanoTime();
+        int acc = 0;
+        for (int i = 0; i < ops; i++) {
+            Object result = op.apply(i);
+            acc += result == null ? 0 : result.hashCode();
+        }
+        long elapsed = System.nanoTime() - start;
+        sink += acc;
+        return (double) elapsed / ops;
+    }
+
+    // -------------------- BASELINES --------------------
+    // Confirmation email the way it was rendered before CompiledTemplate: String.format over the
+    // content block, then again over the page wrapper
+    private static String formatConfirmation(User user, Reservation reservation) {
+        String content = String.format("""
+            <h2 style="color: #333; margin-top: 0;">Hello %s,</h2>
+            <p style="color: #555; line-height: 1.6; font-size: 14px;">
+                Thank you for submitting your reservation request. We have received your booking details
+                and it is now pending admin approval.
+            </p>
+
+            <div style="background-color: #fff3cd; border-left: 4px solid %s; padding: 15px; margin: 20px 0;">
+                <h3 style="margin: 0 0 10px 0; color: #856404;">📋 Reservation Details</h3>
+                <table style="width: 100%%; font-size: 14px;">
+                    <tr>
+                        <td style="padding: 5px 0; color: #666; font-weight: bold;">Room:</td>
+                        <td style="padding: 5px 0; color: #333;">%s</td>
+                    </tr>
+                    <tr>
+                        <td style="padding: 5px 0; color: #666; font-weight: bold;">Date:</td>
+                        <td style="padding: 5px 0; color: #333;">%s</td>
+                    </tr>
+                    <tr>
+                        <td style="padding: 5px 0; color: #666; font-weight: bold;">Time:</td>
+                        <td style="padding: 5px 0; color: #333;">%s - %s</td>
+                    </tr>
+                    <tr>
+                        <td style="padding: 5px 0; color: #666; font-weight: bold;">Status:</td>
+                        <td style="padding: 5px 0;">
+                            <span style="background-color: %s; color: white; padding: 4px 12px; border-radius: 3px; font-size: 12px; font-weight: bold;">
+                                PENDING APPROVAL
+                            </span>
+                        </td>
+                    </tr>
+                </table>
+            </div>
+
+            <p style="color: #555; line-height: 1.6; font-size: 14px;">
+                An administrator will review your request shortly. You will receive another email once
+                your reservation has been approved or if any changes are needed.
+            </p>
+
+            <p style="color: #555; line-height: 1.6; font-size: 14px;">
+                If you have any questions, please contact the facilities team.
+            </p>
+
+            <p style="color: #555; margin-top: 30px;">
+                Best regards,<br>
+                <strong>Conference Room Management Team</strong>
+            </p>
+            """,
+                user.getUsername(),
+                "#FF9800",
+                reservation.getRoomName(),
+                reservation.getDate(),
+                reservation.getStartTime(),
+                reservation.getEndTime(),
+                "#FF9800"
+        );
+
+        return formatPage("Reservation Request Received", content, "#a51618");
+    }
+
+    private static String formatPage(String title, String content, String accentColor) {
+        return String.format("""
+            <!DOCTYPE html>
+            <html>
+            <head>
+                <meta charset="UTF-8">
+                <meta name="viewport" content="width=device-width, initial-scale=1.0">
+                <title>%s</title>
+            </head>
+            <body style="margin: 0; padding: 0; font-family: Arial, sans-serif; background-color: #f5f5f5;">
+                <table width="100%%" cellpadding="0" cellspacing="0" style="background-color: #f5f5f5; padding: 20px;">
+                    <tr>
+                        <td align="center">
+                            <table width="600" cellpadding="0" cellspacing="0" style="background-color: white; border-radius: 8px; box-shadow: 0 2px 4px rgba(0,0,0,0.1);">
+                                <!-- Header -->
+                                <tr>
+                                    <td style="background-color: %s; padding: 30px; text-align: center; border-radius: 8px 8px 0 0;">
+                                        <h1 style="margin: 0; color: white; font-size: 24px;">Conference Room System</h1>
+                                    </td>
+                                </tr>
+                                <!-- Content -->
+                                <tr>
+                                    <td style="padding: 40px 30px;">
+                                        %s
+                                    </td>
+                                </tr>
+                                <!-- Footer -->
+                                <tr>
+                                    <td style="background-color: #f9f9f9; padding: 20px 30px; text-align: center; border-radius: 0 0 8px 8px; border-top: 1px solid #e0e0e0;">
+                                        <p style="margin: 0; color: #666; font-size: 12px;">
+                                            This is an automated message from Conference Room Reservation System<br>
+                                            Please do not reply to this email
+                                        </p>
+                                        <p style="margin: 10px 0 0 0; color: #999; font-size: 11px;">
+                                            &copy; %d Conference Room System. All rights reserved.
+                                        </p>
+                                    </td>
+                                </tr>
+                            </table>
+                        </td>
+                    </tr>
+                </table>
+            </body>
+            </html>
+            """, title, accentColor, content, LocalDate.now().getYear());
+    }
+
+    // -------------------- DATA --------------------
+    private static List<Reservation> generate(int roomCount, int count, Random random) {
+        String[] statuses = {"approved", "pending", "rejected"};
+        LocalDate base = LocalDate.now().minusDays(180);
+        List<Reservation> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int start = 8 * 60 + random.nextInt(10 * 4) * 15;
+            int end = start + 15 * (1 + random.nextInt(8));
+            list.add(new Reservation(
+                    PREFIX + "user" + (i % 50),
+                    PREFIX + "room" + (i % roomCount),
+                    base.plusDays(random.nextInt(360)).toString(),
+                    String.format("%02d:%02d", start / 60, start % 60),
+                    String.format("%02d:%02d", end / 60, end % 60),
+                    statuses[random.nextInt(statuses.length)]));
+        }
+        return list;
+    }
+
+    private static List<String> seed(int roomCount, int reservationCount) throws SQLException {
+        List<String> rooms = new ArrayList<>(roomCount);
+        for (int i = 0; i < roomCount; i++) {
+            Room room = new Room(PREFIX + "room" + i, "Available");
+            DataStore.addRoom(room);
+            rooms.add(room.getName());
+        }
+
+        // Straight batch inserts: this is fixture data, not something to run through admission
+        List<Reservation> data = generate(roomCount, reservationCount, new Random(2));
+        try (Connection conn = DataStore.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(SqlQuery.INSERT_RESERVATION.sql())) {
+            conn.setAutoCommit(false);
+            for (int i = 0; i < data.size(); i++) {
+                Reservation r = data.get(i);
+                pstmt.setString(1, r.getUsername());
+                pstmt.setString(2, r.getRoomName());
+                pstmt.setDate(3, Date.valueOf(r.getDate()));
+                pstmt.setTime(4, Time.valueOf(r.getStartTime() + ":00"));
+                pstmt.setTime(5, Time.valueOf(r.getEndTime() + ":00"));
+                pstmt.setString(6, r.getStatus());
+                pstmt.addBatch();
+                if ((i + 1) % SEED_BATCH_SIZE == 0) {
+                    pstmt.executeBatch();
+                    conn.commit();
+                }
+            }
+            pstmt.executeBatch();
+            conn.commit();
+        }
+        System.out.println("[BENCH] Seeded " + roomCount + " rooms and " + reservationCount + " reservations");
+        return rooms;
+    }
+
+    private static void cleanup(List<String> rooms) {
+        // removeRoom tombstones the reservations, so other clients drop them on their next sync
+        for (String name : rooms) {
+            DataStore.removeRoom(new Room(name, "Available"));
+        }
+        System.out.println("[BENCH] Removed benchmark rooms and reservations");
+    }
+}
@@ -0,0 +1,262 @@
+package util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A minimal SMTP server on localhost that accepts every message and keeps it in memory instead of
+ * delivering it, so EmailService can be exercised and measured without a real mail host. It speaks
+ * plain SMTP without AUTH or STARTTLS (point the app at it with MAIL_HOST=localhost, MAIL_PORT,
+ * MAIL_AUTH=false and MAIL_STARTTLS=false) and can misbehave on purpose:
+ * - latencyMillis: delay before each message is acknowledged, like a slow relay
+ * - failureRate: share of messages refused with a temporary 451 error
+ * - dropRate: share of messages after which the connection is cut without a reply
+ *
+ * Run on its own with:
+ *
+ *   java util.LocalSmtpServer [port] [latencyMillis] [failureRate] [dropRate]
+ */
+public class LocalSmtpServer implements AutoCloseable {
+
+    private static final int KEPT_MESSAGES = 100;  // most recent ones, for inspection
+
+    private final ServerSocket serverSocket;
+    private volatile int latencyMillis;
+    private volatile double failureRate;
+    private volatile double dropRate;
+    private volatile boolean closed;
+
+    private final ConcurrentLinkedDeque<Received> recent = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger recentCount = new AtomicInteger();
+
+    // Metrics
+    private final LongAdder receivedCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+    private final LongAdder droppedCount = new LongAdder();
+    private final LongAdder connectionCount = new LongAdder();
+
+    /**
+     * One accepted message
+     */
+    public record Received(String from, List<String> recipients, String data) {
+    }
+
+    /**
+     * @param port 0 to pick a free port (see getPort())
+     */
+    public LocalSmtpServer(int port) throws IOException {
+        this.serverSocket = new ServerSocket(port, 200, InetAddress.getLoopbackAddress());
+    }
+
+    public LocalSmtpServer start() {
+        Thread acceptor = new Thread(this::acceptLoop, "smtp-sink");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        System.out.println("[SMTP SINK] Listening on localhost:" + getPort());
+        return this;
+    }
+
+    private void acceptLoop() {
+        while (!closed) {
+            try {
+                Socket socket = serverSocket.accept();
+                connectionCount.increment();
+                Thread.ofVirtual().name("smtp-sink-connection").start(() -> serve(socket));
+            } catch (IOException e) {
+                if (!closed) System.err.println("[SMTP SINK ERROR] Accept failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             OutputStream out = socket.getOutputStream()) {
+            reply(out, "220 localhost ESMTP sink");
+            String from = null;
+            List<String> recipients = new ArrayList<>();
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase() : line.toUpperCase();
+                switch (command) {
+                    case "EHLO" -> reply(out, "250-localhost\r\n250-8BITMIME\r\n250 SIZE 10485760");
+                    case "HELO" -> reply(out, "250 localhost");
+                    case "MAIL" -> {
+                        from = argument(line);
+                        recipients.clear();
+                        reply(out, "250 OK");
+                    }
+                    case "RCPT" -> {
+                        recipients.add(argument(line));
+                        reply(out, "250 OK");
+                    }
+                    case "DATA" -> {
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        String data = readData(in);
+                        if (data == null) return;
+                        if (!acknowledge(out, from, recipients, data)) return;
+                        from = null;
+                        recipients = new ArrayList<>();
+                    }
+                    case "RSET" -> {
+                        from = null;
+                        recipients.clear();
+                        reply(out, "250 OK");
+                    }
+                    case "NOOP" -> reply(out, "250 OK");
+                    case "QUIT" -> {
+                        reply(out, "221 Bye");
+                        return;
+                    }
+                    default -> reply(out, "502 Command not implemented");
+                }
+            }
+        } catch (SocketException e) {
+            // client went away
+        } catch (IOException e) {
+            if (!closed) System.err.println("[SMTP SINK ERROR] " + e.getMessage());
+        }
+    }
+
+    // The message body up to the lone "." line, with dot-stuffing undone; null if the client hung up
+    private static String readData(BufferedReader in) throws IOException {
+        StringBuilder data = new StringBuilder(4096);
+        String line;
+        while ((line = in.readLine()) != null) {
+            if (line.equals(".")) return data.toString();
+            data.append(line.startsWith("..") ? line.substring(1) : line).append("\r\n");
+        }
+        return null;
+    }
+
+    /**
+     * Apply the injected latency and faults to a received message
+     * @return false if the connection is to be dropped
+     */
+    private boolean acknowledge(OutputStream out, String from, List<String> recipients, String data) throws IOException {
+        if (latencyMillis > 0) {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (dropRate > 0 && random.nextDouble() < dropRate) {
+            droppedCount.increment();
+            return false;
+        }
+        if (failureRate > 0 && random.nextDouble() < failureRate) {
+            rejectedCount.increment();
+            reply(out, "451 4.3.0 Temporary failure, try again later");
+            return true;
+        }
+        receivedCount.increment();
+        recent.addLast(new Received(from, List.copyOf(recipients), data));
+        if (recentCount.incrementAndGet() > KEPT_MESSAGES && recent.pollFirst() != null) {
+            recentCount.decrementAndGet();
+        }
+        reply(out, "250 OK queued");
+        return true;
+    }
+
+    private static String argument(String line) {
+        int open = line.indexOf('<');
+        int close = line.indexOf('>', open + 1);
+        return open >= 0 && close > open ? line.substring(open + 1, close) : line.substring(line.indexOf(':') + 1).trim();
+    }
+
+    private static void reply(OutputStream out, String text) throws IOException {
+        out.write((text + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+
+    public void setLatencyMillis(int latencyMillis) {
+        this.latencyMillis = latencyMillis;
+    }
+
+    public void setFailureRate(double failureRate) {
+        this.failureRate = failureRate;
+    }
+
+    public void setDropRate(double dropRate) {
+        this.dropRate = dropRate;
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public long getReceivedCount() {
+        return receivedCount.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    public long getConnectionCount() {
+        return connectionCount.sum();
+    }
+
+    /**
+     * The most recently accepted messages, oldest first
+     */
+    public List<Received> getMessages() {
+        return List.copyOf(recent);
+    }
+
+    public void resetCounts() {
+        receivedCount.reset();
+        rejectedCount.reset();
+        droppedCount.reset();
+        connectionCount.reset();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            serverSocket.close();
+        } catch (IOException ignored) {
+            // closing anyway
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("LocalSmtpServer{port=%d, connections=%d, received=%d, rejected=%d, dropped=%d}",
+                getPort(), getConnectionCount(), getReceivedCount(), getRejectedCount(), getDroppedCount());
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        LocalSmtpServer server = new LocalSmtpServer(args.length > 0 ? Integer.parseInt(args[0]) : 2525);
+        server.setLatencyMillis(args.length > 1 ? Integer.parseInt(args[1]) : 0);
+        server.setFailureRate(args.length > 2 ? Double.parseDouble(args[2]) : 0);
+        server.setDropRate(args.length > 3 ? Double.parseDouble(args[3]) : 0);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> System.out.println("[SMTP SINK] " + server)));
+        server.start();
+        while (true) {
+            Thread.sleep(10_000);
+            System.out.println("[SMTP SINK] " + server);
+        }
+    }
+}
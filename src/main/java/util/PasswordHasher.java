@@ -0,0 +1,94 @@
+package util;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Salted, deliberately slow password hashes (PBKDF2 with HMAC-SHA256), stored as
+ * "pbkdf2$iterations$salt$hash" with Base64 salt and hash. Anything else in the password column is
+ * a password from before hashing, still accepted by verify() until it is upgraded at the next login.
+ * Hashing takes tens to hundreds of milliseconds on purpose, so never call it on the FX thread.
+ */
+public final class PasswordHasher {
+
+    private static final String PREFIX = "pbkdf2";
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int ITERATIONS = Integer.parseInt(System.getenv("PASSWORD_HASH_ITERATIONS") != null ?
+            System.getenv("PASSWORD_HASH_ITERATIONS") : "210000");
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+
+    private static final SecureRandom random = new SecureRandom();
+
+    private PasswordHasher() {
+    }
+
+    public static String hash(String password) {
+        byte[] salt = new byte[SALT_BYTES];
+        random.nextBytes(salt);
+        byte[] hash = pbkdf2(password, salt, ITERATIONS);
+        Base64.Encoder base64 = Base64.getEncoder().withoutPadding();
+        return PREFIX + "$" + ITERATIONS + "$" + base64.encodeToString(salt) + "$" + base64.encodeToString(hash);
+    }
+
+    /**
+     * Check a password against a stored hash, or against a plaintext password from before hashing.
+     * A null stored value (no such user) costs as much as a real check, so the response time
+     * doesn't tell which emails have accounts.
+     */
+    public static boolean verify(String password, String stored) {
+        if (password == null) return false;
+        if (stored == null) {
+            pbkdf2(password, new byte[SALT_BYTES], ITERATIONS);
+            return false;
+        }
+        if (!isHashed(stored)) {
+            return MessageDigest.isEqual(password.getBytes(StandardCharsets.UTF_8),
+                    stored.getBytes(StandardCharsets.UTF_8));
+        }
+        String[] parts = stored.split("\\$");
+        try {
+            int iterations = Integer.parseInt(parts[1]);
+            byte[] salt = Base64.getDecoder().decode(parts[2]);
+            byte[] expected = Base64.getDecoder().decode(parts[3]);
+            return MessageDigest.isEqual(pbkdf2(password, salt, iterations), expected);
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            System.err.println("[AUTH ERROR] Malformed password hash: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Whether a stored password should be replaced: plaintext, or hashed with fewer iterations
+     * than are configured now
+     */
+    public static boolean needsRehash(String stored) {
+        if (stored == null || !isHashed(stored)) return true;
+        String[] parts = stored.split("\\$");
+        try {
+            return Integer.parseInt(parts[1]) < ITERATIONS;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    public static boolean isHashed(String stored) {
+        return stored.startsWith(PREFIX + "$") && stored.chars().filter(c -> c == '$').count() == 3;
+    }
+
+    private static byte[] pbkdf2(String password, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " not available", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
@@ -0,0 +1,366 @@
+package util;
+
+import model.Reservation;
+import model.Room;
+import repository.Repositories;
+import repository.ReservationRepository;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bulk reservation import from CSV or JSON, for migrating bookings from other calendar systems.
+ * The file is streamed one record at a time; each record is validated and checked against the
+ * existing bookings and the rows imported so far, entirely in memory, and accepted rows are
+ * handed to the storage engine in chunks of IMPORT_BATCH_SIZE. The reservation list is refreshed
+ * once at the end instead of after every row.
+ *
+ * CSV needs a header row naming the columns: username, room, date, start, end and optionally
+ * status (room_name, startTime, etc. are accepted too). JSON is an array of flat objects with the
+ * same keys, or one object per line.
+ */
+public class ReservationImporter {
+
+    private static final int BATCH_SIZE = Integer.parseInt(System.getenv("IMPORT_BATCH_SIZE") != null ?
+            System.getenv("IMPORT_BATCH_SIZE") : "1000");
+    private static final int SLOT_MINUTES = 15;
+    private static final int MAX_REPORTED_ERRORS = 20;
+    private static final Set<String> STATUSES = Set.of("pending", "approved", "reserved", "rejected");
+    private static final DateTimeFormatter TIME_IN = DateTimeFormatter.ofPattern("H:mm[:ss]");
+    private static final DateTimeFormatter TIME_OUT = DateTimeFormatter.ofPattern("HH:mm");
+
+    private final ReservationRepository reservations = Repositories.reservations();
+    private final boolean notify;
+
+    // Rooms seen so far, so each name is looked up once
+    private final Map<String, Boolean> knownRooms = new HashMap<>();
+    // "room|date" -> 15-minute slots held by rows accepted earlier in this file
+    private final Map<String, BitSet> claimedSlots = new HashMap<>();
+    private final List<Reservation> pending = new ArrayList<>(BATCH_SIZE);
+
+    private int read;
+    private int imported;
+    private int invalid;
+    private int conflicts;
+    private final List<String> errors = new ArrayList<>();
+
+    private ReservationImporter(boolean notify) {
+        this.notify = notify;
+    }
+
+    /**
+     * Import a .json file, or a CSV file for any other extension
+     * @param notify send a confirmation email for every imported reservation
+     */
+    public static Result importFile(Path file, boolean notify) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".json")
+                    ? importJson(reader, notify)
+                    : importCsv(reader, notify);
+        }
+    }
+
+    public static Result importCsv(Reader in, boolean notify) throws IOException {
+        ReservationImporter importer = new ReservationImporter(notify);
+        long start = System.currentTimeMillis();
+        BufferedReader reader = in instanceof BufferedReader br ? br : new BufferedReader(in);
+
+        String headerLine = reader.readLine();
+        if (headerLine == null) return importer.finish(start);
+        List<String> header = splitCsv(headerLine);
+
+        String line;
+        int lineNo = 1;
+        while ((line = reader.readLine()) != null) {
+            lineNo++;
+            if (line.isBlank()) continue;
+            List<String> cells = splitCsv(line);
+            Map<String, String> record = new HashMap<>();
+            for (int i = 0; i < header.size() && i < cells.size(); i++) {
+                record.put(header.get(i), cells.get(i));
+            }
+            importer.accept("line " + lineNo, record);
+        }
+        return importer.finish(start);
+    }
+
+    public static Result importJson(Reader in, boolean notify) throws IOException {
+        ReservationImporter importer = new ReservationImporter(notify);
+        long start = System.currentTimeMillis();
+        JsonObjectReader reader = new JsonObjectReader(in instanceof BufferedReader br ? br : new BufferedReader(in));
+
+        Map<String, String> record;
+        int recordNo = 0;
+        while ((record = reader.next()) != null) {
+            recordNo++;
+            importer.accept("record " + recordNo, record);
+        }
+        return importer.finish(start);
+    }
+
+    // -------------------- VALIDATION --------------------
+    private void accept(String where, Map<String, String> raw) {
+        read++;
+        Map<String, String> record = new HashMap<>();
+        raw.forEach((key, value) -> record.put(normalizeKey(key), value == null ? "" : value.trim()));
+
+        String username = field(record, "username", "user");
+        String roomName = field(record, "room", "roomname");
+        String date = field(record, "date");
+        String start = field(record, "start", "starttime");
+        String end = field(record, "end", "endtime");
+        String status = field(record, "status").toLowerCase(Locale.ROOT);
+        if (status.isEmpty()) status = "pending";
+
+        if (username.isEmpty() || roomName.isEmpty() || date.isEmpty() || start.isEmpty() || end.isEmpty()) {
+            reject(where, "missing username, room, date, start or end");
+            return;
+        }
+        if (!STATUSES.contains(status)) {
+            reject(where, "unknown status '" + status + "'");
+            return;
+        }
+        LocalTime startTime;
+        LocalTime endTime;
+        try {
+            LocalDate.parse(date);
+            startTime = LocalTime.parse(start, TIME_IN);
+            endTime = LocalTime.parse(end, TIME_IN);
+        } catch (DateTimeParseException e) {
+            reject(where, "bad date or time (" + e.getParsedString() + ")");
+            return;
+        }
+        if (!endTime.isAfter(startTime)) {
+            reject(where, "end time must be after start time");
+            return;
+        }
+        if (!knownRooms.computeIfAbsent(roomName, this::roomExists)) {
+            reject(where, "no room named '" + roomName + "'");
+            return;
+        }
+
+        Reservation r = new Reservation(username, roomName, date,
+                startTime.format(TIME_OUT), endTime.format(TIME_OUT), status);
+        if (!"rejected".equals(status) && !claim(r)) {
+            conflicts++;
+            report(where + ": " + roomName + " " + date + " " + r.getTimeRange() + " is already taken");
+            return;
+        }
+
+        pending.add(r);
+        if (pending.size() >= BATCH_SIZE) flush();
+    }
+
+    private boolean roomExists(String name) {
+        Room room = Repositories.rooms().getRoomByName(name);
+        return room != null;
+    }
+
+    /**
+     * Same rule as the slot-claim table: a clash with a booking already stored, or with a row
+     * accepted earlier in this file, rejects the row before it reaches the database
+     */
+    private boolean claim(Reservation r) {
+        int first = r.getStartMinute() / SLOT_MINUTES;
+        int last = (r.getEndMinute() + SLOT_MINUTES - 1) / SLOT_MINUTES;
+        BitSet slots = claimedSlots.computeIfAbsent(r.getRoomName() + "|" + r.getDate(), k -> new BitSet());
+        int taken = slots.nextSetBit(first);
+        if (taken >= 0 && taken < last) return false;
+        if (!"Available".equals(reservations.getRoomStatusForTime(
+                r.getRoomName(), r.getDate(), r.getStartTime(), r.getEndTime()))) {
+            return false;
+        }
+        slots.set(first, last);
+        return true;
+    }
+
+    private void reject(String where, String reason) {
+        invalid++;
+        report(where + ": " + reason);
+    }
+
+    private void report(String message) {
+        if (errors.size() < MAX_REPORTED_ERRORS) errors.add(message);
+    }
+
+    // -------------------- STORAGE --------------------
+    private void flush() {
+        if (pending.isEmpty()) return;
+        List<Reservation> stored = reservations.addReservations(new ArrayList<>(pending), notify);
+        imported += stored.size();
+        conflicts += pending.size() - stored.size();
+        pending.clear();
+        System.out.println("[IMPORT] " + read + " rows read, " + imported + " imported");
+    }
+
+    private Result finish(long startMillis) {
+        flush();
+        reservations.getReservations(); // one resync for the whole import
+        Result result = new Result(read, imported, invalid, conflicts, List.copyOf(errors),
+                System.currentTimeMillis() - startMillis);
+        System.out.println("[IMPORT] " + result.summary());
+        return result;
+    }
+
+    private static String field(Map<String, String> record, String... names) {
+        for (String name : names) {
+            String value = record.get(name);
+            if (value != null && !value.isEmpty()) return value;
+        }
+        return "";
+    }
+
+    // "Room Name", "room_name" and "roomName" all become "roomname"
+    private static String normalizeKey(String key) {
+        return key.replaceAll("[\\s_-]", "").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Split one CSV line, honouring double-quoted fields and "" escapes
+     */
+    private static List<String> splitCsv(String line) {
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    cell.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    cell.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                cells.add(cell.toString());
+                cell.setLength(0);
+            } else {
+                cell.append(c);
+            }
+        }
+        cells.add(cell.toString());
+        return cells;
+    }
+
+    public record Result(int read, int imported, int invalid, int conflicts, List<String> errors, long millis) {
+        public String summary() {
+            return String.format("%d rows read, %d imported, %d invalid, %d conflicts in %.1fs",
+                    read, imported, invalid, conflicts, millis / 1000.0);
+        }
+    }
+
+    /**
+     * Streams flat JSON objects ({"key": "value", ...}) out of a reader one at a time, whether they
+     * sit in a top-level array or one per line. Nested objects and arrays are not supported.
+     */
+    private static class JsonObjectReader {
+        private final Reader in;
+        private int peeked = -2;
+
+        JsonObjectReader(Reader in) {
+            this.in = in;
+        }
+
+        Map<String, String> next() throws IOException {
+            int c;
+            while ((c = read()) != -1 && c != '{') {
+                // skip '[', ',', ']' and whitespace between objects
+            }
+            if (c == -1) return null;
+
+            Map<String, String> object = new LinkedHashMap<>();
+            while (true) {
+                c = skipWhitespace();
+                if (c == '}') return object;
+                if (c == ',') continue;
+                if (c != '"') throw new IOException("Expected a key in JSON object, got '" + (char) c + "'");
+                String key = readString();
+                if (skipWhitespace() != ':') throw new IOException("Expected ':' after \"" + key + "\"");
+                c = skipWhitespace();
+                object.put(key, c == '"' ? readString() : readBare(c));
+            }
+        }
+
+        private String readString() throws IOException {
+            StringBuilder sb = new StringBuilder();
+            int c;
+            while ((c = read()) != '"') {
+                if (c == -1) throw new IOException("Unterminated JSON string");
+                if (c == '\\') {
+                    c = read();
+                    switch (c) {
+                        case 'n' -> sb.append('\n');
+                        case 't' -> sb.append('\t');
+                        case 'r' -> sb.append('\r');
+                        case 'b' -> sb.append('\b');
+                        case 'f' -> sb.append('\f');
+                        case 'u' -> {
+                            char[] hex = new char[4];
+                            for (int i = 0; i < 4; i++) hex[i] = (char) read();
+                            sb.append((char) Integer.parseInt(new String(hex), 16));
+                        }
+                        default -> sb.append((char) c);
+                    }
+                } else {
+                    sb.append((char) c);
+                }
+            }
+            return sb.toString();
+        }
+
+        // Numbers, true/false and null; null becomes an empty value
+        private String readBare(int first) throws IOException {
+            if (first == '{' || first == '[') throw new IOException("Nested JSON values are not supported");
+            StringBuilder sb = new StringBuilder().append((char) first);
+            int c;
+            while ((c = peek()) != -1 && c != ',' && c != '}' && !Character.isWhitespace(c)) {
+                sb.append((char) read());
+            }
+            String value = sb.toString();
+            return "null".equals(value) ? "" : value;
+        }
+
+        private int skipWhitespace() throws IOException {
+            int c;
+            while ((c = read()) != -1 && Character.isWhitespace(c)) {
+                // skip
+            }
+            if (c == -1) throw new IOException("Unexpected end of JSON input");
+            return c;
+        }
+
+        private int peek() throws IOException {
+            if (peeked == -2) peeked = in.read();
+            return peeked;
+        }
+
+        private int read() throws IOException {
+            if (peeked != -2) {
+                int c = peeked;
+                peeked = -2;
+                return c;
+            }
+            return in.read();
+        }
+    }
+}
@@ -0,0 +1,303 @@
+package util;
+
+import model.Reservation;
+import model.ReservationStatus;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory occupancy of approved and pending bookings per room and day, used for conflict checks,
+ * room status and free-slot searches. Each room-day is two bitmaps of 1440 one-minute bits packed
+ * into 23 longs, so a range query is a few masked word tests and never allocates.
+ * Days older than INDEX_RETENTION_DAYS are evicted; queries for them answer UNKNOWN and callers
+ * go to the underlying store instead.
+ * Writers replace a day's bitmaps (copy-on-write); readers never lock.
+ */
+public class ReservationIndex {
+
+    public static final int UNKNOWN = -1;
+    public static final int NONE = 0;
+    public static final int PENDING = 1;
+    public static final int APPROVED = 2;
+
+    public static final int MINUTES_PER_DAY = 24 * 60;
+    private static final int WORDS = (MINUTES_PER_DAY + 63) / 64;
+
+    private static final int RETENTION_DAYS = Integer.parseInt(System.getenv("INDEX_RETENTION_DAYS") != null ?
+            System.getenv("INDEX_RETENTION_DAYS") : "7");
+
+    // room -> epoch day -> bookings of that day
+    private volatile Map<String, Map<Integer, DayBucket>> rooms = new ConcurrentHashMap<>();
+    // reservation id -> where it is indexed, so updates and deletes can find the old entry
+    private final Map<Integer, Entry> entries = new HashMap<>();
+    // Oldest epoch day still indexed
+    private volatile int horizon = currentHorizon();
+
+    // -------------------- WRITES --------------------
+    public synchronized void rebuild(Collection<Reservation> all) {
+        // Build off to the side so readers never see a half-empty index
+        Map<String, Map<Integer, DayBucket>> fresh = new ConcurrentHashMap<>();
+        entries.clear();
+        horizon = currentHorizon();
+        for (Reservation r : all) {
+            add(fresh, r);
+        }
+        rooms = fresh;
+    }
+
+    public synchronized void put(Reservation r) {
+        evictExpiredDays();
+        remove(r.getId());
+        add(rooms, r);
+    }
+
+    private void add(Map<String, Map<Integer, DayBucket>> target, Reservation r) {
+        int kind = kindOf(r.getReservationStatus());
+        if (kind == NONE || r.getRoomName() == null || r.getLocalDate() == null) return;
+        if (r.getEpochDay() < horizon) return;
+
+        Entry entry = new Entry(r.getRoomName(), r.getEpochDay(), kind,
+                clamp(r.getStartMinute()), clamp(r.getEndMinute()));
+        entries.put(r.getId(), entry);
+
+        Map<Integer, DayBucket> days = target.computeIfAbsent(entry.room, k -> new ConcurrentHashMap<>());
+        days.put(entry.epochDay, days.getOrDefault(entry.epochDay, DayBucket.EMPTY).with(r.getId(), entry));
+    }
+
+    public synchronized void remove(int id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) return;
+
+        Map<Integer, DayBucket> days = rooms.get(entry.room);
+        if (days == null) return;
+        DayBucket bucket = days.get(entry.epochDay);
+        if (bucket == null) return;
+
+        // Bits can't be cleared per booking if two ever overlapped, so redraw the day from what's left
+        DayBucket updated = bucket.without(id, entries);
+        if (updated.isEmpty()) {
+            days.remove(entry.epochDay);
+        } else {
+            days.put(entry.epochDay, updated);
+        }
+    }
+
+    // Drops the days that fell behind the retention window since the last write
+    private void evictExpiredDays() {
+        int newHorizon = currentHorizon();
+        if (newHorizon <= horizon) return;
+        horizon = newHorizon;
+        entries.values().removeIf(e -> e.epochDay < newHorizon);
+        for (Map<Integer, DayBucket> days : rooms.values()) {
+            days.keySet().removeIf(day -> day < newHorizon);
+        }
+        rooms.values().removeIf(Map::isEmpty);
+    }
+
+    private static int currentHorizon() {
+        return (int) LocalDate.now().toEpochDay() - RETENTION_DAYS;
+    }
+
+    // -------------------- QUERIES --------------------
+    /**
+     * APPROVED if an approved or reserved booking overlaps [startMinute, endMinute), PENDING if only pending
+     * ones do, NONE otherwise, or UNKNOWN if the day has been evicted.
+     */
+    public int statusFor(String roomName, int epochDay, int startMinute, int endMinute) {
+        if (epochDay < horizon) return UNKNOWN;
+        DayBucket bucket = bucket(roomName, epochDay);
+        if (bucket == null) return NONE;
+        int from = clamp(startMinute);
+        int to = clamp(endMinute);
+        if (anySet(bucket.approved, from, to)) return APPROVED;
+        if (anySet(bucket.pending, from, to)) return PENDING;
+        return NONE;
+    }
+
+    public int statusFor(String roomName, String date, String startTime, String endTime) {
+        return statusFor(roomName, (int) LocalDate.parse(date).toEpochDay(),
+                parseMinutes(startTime), parseMinutes(endTime));
+    }
+
+    /**
+     * Status of every room with an approved or pending booking covering the given minute
+     */
+    public Map<String, Integer> statusesAt(int epochDay, int minute) {
+        Map<String, Integer> statuses = new HashMap<>();
+        for (Map.Entry<String, Map<Integer, DayBucket>> room : rooms.entrySet()) {
+            DayBucket bucket = room.getValue().get(epochDay);
+            if (bucket == null) continue;
+            if (anySet(bucket.approved, minute, minute + 1)) {
+                statuses.put(room.getKey(), APPROVED);
+            } else if (anySet(bucket.pending, minute, minute + 1)) {
+                statuses.put(room.getKey(), PENDING);
+            }
+        }
+        return statuses;
+    }
+
+    /**
+     * Earliest start in [from, to) on a multiple of `step` minutes where `length` minutes are free of
+     * approved and pending bookings, or -1 if there is none (or UNKNOWN if the day has been evicted).
+     */
+    public int firstFreeStart(String roomName, int epochDay, int from, int to, int length, int step) {
+        if (epochDay < horizon) return UNKNOWN;
+        DayBucket bucket = bucket(roomName, epochDay);
+        to = clamp(to);
+        int start = alignUp(Math.max(from, 0), step);
+        while (start + length <= to) {
+            int busy = bucket == null ? -1 : nextOccupied(bucket, start, start + length);
+            if (busy < 0) return start;
+            // Skip past the whole occupied run, then back onto the grid
+            start = alignUp(nextFree(bucket, busy, to), step);
+        }
+        return -1;
+    }
+
+    public boolean isIndexed(int epochDay) {
+        return epochDay >= horizon;
+    }
+
+    private DayBucket bucket(String roomName, int epochDay) {
+        Map<Integer, DayBucket> days = rooms.get(roomName);
+        return days == null ? null : days.get(epochDay);
+    }
+
+    private static int kindOf(ReservationStatus status) {
+        return switch (status) {
+            case APPROVED, RESERVED -> APPROVED;
+            case PENDING -> PENDING;
+            default -> NONE;
+        };
+    }
+
+    /**
+     * Parse "HH:MM" or "HH:MM:SS" into minutes since midnight; see Reservation.parseMinutes
+     */
+    public static int parseMinutes(String time) {
+        return Reservation.parseMinutes(time);
+    }
+
+    private static int clamp(int minute) {
+        return Math.max(0, Math.min(minute, MINUTES_PER_DAY));
+    }
+
+    private static int alignUp(int minute, int step) {
+        return step <= 1 ? minute : (minute + step - 1) / step * step;
+    }
+
+    // -------------------- BITS --------------------
+    private static boolean anySet(long[] bits, int from, int to) {
+        if (from >= to) return false;
+        int first = from >>> 6;
+        int last = (to - 1) >>> 6;
+        long firstMask = -1L << from;  // shift counts are taken mod 64
+        long lastMask = -1L >>> -to;
+        if (first == last) return (bits[first] & firstMask & lastMask) != 0;
+        if ((bits[first] & firstMask) != 0) return true;
+        for (int i = first + 1; i < last; i++) {
+            if (bits[i] != 0) return true;
+        }
+        return (bits[last] & lastMask) != 0;
+    }
+
+    private static void setRange(long[] bits, int from, int to) {
+        if (from >= to) return;
+        int first = from >>> 6;
+        int last = (to - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -to;
+        if (first == last) {
+            bits[first] |= firstMask & lastMask;
+            return;
+        }
+        bits[first] |= firstMask;
+        for (int i = first + 1; i < last; i++) {
+            bits[i] = -1L;
+        }
+        bits[last] |= lastMask;
+    }
+
+    // First minute in [from, to) taken by an approved or pending booking, or -1
+    private static int nextOccupied(DayBucket bucket, int from, int to) {
+        if (from >= to) return -1;
+        int i = from >>> 6;
+        long word = (bucket.approved[i] | bucket.pending[i]) & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                int minute = (i << 6) + Long.numberOfTrailingZeros(word);
+                return minute < to ? minute : -1;
+            }
+            if (++i >= WORDS || (i << 6) >= to) return -1;
+            word = bucket.approved[i] | bucket.pending[i];
+        }
+    }
+
+    // First free minute at or after `from`, or `to` if everything up to it is taken
+    private static int nextFree(DayBucket bucket, int from, int to) {
+        if (from >= to) return to;
+        int i = from >>> 6;
+        long word = ~(bucket.approved[i] | bucket.pending[i]) & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                return Math.min((i << 6) + Long.numberOfTrailingZeros(word), to);
+            }
+            if (++i >= WORDS || (i << 6) >= to) return to;
+            word = ~(bucket.approved[i] | bucket.pending[i]);
+        }
+    }
+
+    // -------------------- STORAGE --------------------
+    private record Entry(String room, int epochDay, int kind, int start, int end) {
+    }
+
+    /**
+     * One room-day: the two occupancy bitmaps plus the ids drawn into them. Never modified once
+     * published; 2 x 23 longs and a small id array, whatever the number of bookings.
+     */
+    private static final class DayBucket {
+        static final DayBucket EMPTY = new DayBucket(new long[WORDS], new long[WORDS], new int[0]);
+
+        final long[] approved;
+        final long[] pending;
+        final int[] ids;
+
+        DayBucket(long[] approved, long[] pending, int[] ids) {
+            this.approved = approved;
+            this.pending = pending;
+            this.ids = ids;
+        }
+
+        boolean isEmpty() {
+            return ids.length == 0;
+        }
+
+        DayBucket with(int id, Entry entry) {
+            long[] newApproved = approved.clone();
+            long[] newPending = pending.clone();
+            setRange(entry.kind == APPROVED ? newApproved : newPending, entry.start, entry.end);
+            int[] newIds = Arrays.copyOf(ids, ids.length + 1);
+            newIds[ids.length] = id;
+            return new DayBucket(newApproved, newPending, newIds);
+        }
+
+        DayBucket without(int id, Map<Integer, Entry> entries) {
+            int[] remaining = new int[ids.length];
+            int n = 0;
+            long[] newApproved = new long[WORDS];
+            long[] newPending = new long[WORDS];
+            for (int other : ids) {
+                Entry e = other == id ? null : entries.get(other);
+                if (e == null) continue;
+                remaining[n++] = other;
+                setRange(e.kind == APPROVED ? newApproved : newPending, e.start, e.end);
+            }
+            return n == 0 ? EMPTY : new DayBucket(newApproved, newPending, Arrays.copyOf(remaining, n));
+        }
+    }
+}
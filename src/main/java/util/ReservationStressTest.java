@@ -0,0 +1,152 @@
+package util;
+
+import model.Reservation;
+import model.Room;
+import repository.InMemoryStorageEngine;
+import repository.Repositories;
+import repository.StorageEngine;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency check for slot admission, run from the command line:
+ *
+ *   java util.ReservationStressTest [threads] [attemptsPerThread] [engine]
+ *
+ * Released together from a start gate, the threads call addReservation with overlapping time
+ * ranges in one "stress-" room on one day. Afterwards it checks that no 15-minute slot was granted
+ * to more than one successful call, and that the stored holding rows of the room match those calls
+ * and don't overlap each other. Exits with status 1 if either check fails.
+ * The engine is "mysql" or "memory"; without it STORAGE_ENGINE decides, as in the app. For MySQL
+ * point DB_NAME at a scratch schema; the room and its reservations are removed again afterwards.
+ */
+public class ReservationStressTest {
+
+    private static final String PREFIX = "stress-";
+    private static final int SLOT_MINUTES = 15;
+    private static final int FIRST_START = 9 * 60;
+    private static final int STARTS = 12;          // 09:00 to 11:45
+    private static final int MAX_SLOTS = 6;        // up to 90 minutes
+    private static final int DAY_SLOTS = 24 * 60 / SLOT_MINUTES;
+
+    public static void main(String[] args) throws InterruptedException {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int attempts = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+        if (args.length > 2 && args[2].trim().equalsIgnoreCase("memory")) {
+            Repositories.use(new InMemoryStorageEngine());
+        }
+        StorageEngine engine = Repositories.get();
+        engine.initialize();
+        if ("mysql".equals(engine.getName()) && DataStore.getPool() == null) {
+            System.err.println("[STRESS] Database not reachable");
+            System.exit(1);
+        }
+
+        String roomName = PREFIX + "room";
+        String username = PREFIX + "user";
+        String date = LocalDate.now().plusDays(30).toString();
+        System.out.println("[STRESS] " + threads + " threads x " + attempts + " attempts on " + roomName
+                + " " + date + " (" + engine.getName() + ")");
+
+        Room room = new Room(roomName, "Available");
+        engine.removeRoom(room); // leftovers of an aborted run
+        engine.addRoom(room);
+
+        boolean ok;
+        try {
+            Queue<Reservation> granted = new ConcurrentLinkedQueue<>();
+            AtomicInteger refused = new AtomicInteger();
+            CountDownLatch startGate = new CountDownLatch(1);
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            long start = System.nanoTime();
+            for (int t = 0; t < threads; t++) {
+                Random random = new Random(t);
+                executor.execute(() -> {
+                    try {
+                        startGate.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    for (int i = 0; i < attempts; i++) {
+                        int from = FIRST_START + random.nextInt(STARTS) * SLOT_MINUTES;
+                        int to = from + (1 + random.nextInt(MAX_SLOTS)) * SLOT_MINUTES;
+                        Reservation r = new Reservation(username, roomName, date, time(from), time(to), "pending");
+                        if (engine.addReservation(r)) {
+                            granted.add(r);
+                        } else {
+                            refused.incrementAndGet();
+                        }
+                    }
+                });
+            }
+            startGate.countDown();
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.MINUTES);
+            double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+            System.out.printf("[STRESS] %d granted, %d refused in %.2f s%n", granted.size(), refused.get(), seconds);
+
+            ok = checkGranted(new ArrayList<>(granted)) & checkStored(engine, username, roomName, granted.size());
+        } finally {
+            engine.removeRoom(room);
+            engine.close();
+        }
+        System.out.println("[STRESS] " + (ok ? "PASSED" : "FAILED"));
+        if (!ok) System.exit(1);
+    }
+
+    // Every slot may be granted to one successful call at most
+    private static boolean checkGranted(List<Reservation> granted) {
+        int[] claims = new int[DAY_SLOTS];
+        for (Reservation r : granted) {
+            for (int slot = r.getStartMinute() / SLOT_MINUTES; slot < r.getEndMinute() / SLOT_MINUTES; slot++) {
+                claims[slot]++;
+            }
+        }
+        boolean ok = true;
+        for (int slot = 0; slot < DAY_SLOTS; slot++) {
+            if (claims[slot] > 1) {
+                System.err.println("[STRESS] Slot " + time(slot * SLOT_MINUTES) + " granted " + claims[slot] + " times");
+                ok = false;
+            }
+        }
+        return ok;
+    }
+
+    // The stored holding rows are exactly the granted calls and never overlap
+    private static boolean checkStored(StorageEngine engine, String username, String roomName, int grantedCount) {
+        List<Reservation> held = engine.getReservationsByUser(username).stream()
+                .filter(r -> roomName.equals(r.getRoomName()) && r.getReservationStatus().holdsSlot())
+                .toList();
+        boolean ok = true;
+        if (held.size() != grantedCount) {
+            System.err.println("[STRESS] " + held.size() + " holding rows stored for " + grantedCount + " granted calls");
+            ok = false;
+        }
+        for (int i = 0; i < held.size(); i++) {
+            Reservation a = held.get(i);
+            for (int j = i + 1; j < held.size(); j++) {
+                Reservation b = held.get(j);
+                if (a.conflictsWith(b.getEpochDay(), b.getStartMinute(), b.getEndMinute())) {
+                    System.err.println("[STRESS] Overlapping rows: " + a + " and " + b);
+                    ok = false;
+                }
+            }
+        }
+        return ok;
+    }
+
+    private static String time(int minutes) {
+        return String.format("%02d:%02d", minutes / 60, minutes % 60);
+    }
+}
@@ -0,0 +1,190 @@
+package util;
+
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.scene.Node;
+import javafx.scene.control.IndexedCell;
+import javafx.scene.control.TableView;
+import javafx.scene.control.skin.VirtualFlow;
+import model.Reservation;
+import repository.Repositories;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Feeds a reservation TableView from the storage engine one keyset page at a time.
+ * Pages are fetched on a background thread as the user scrolls toward either edge of the loaded
+ * window, and at most MAX_PAGES pages are kept; pages scrolled far out of view are dropped and
+ * fetched again if the user comes back. All window state is only touched on the FX thread.
+ */
+public final class ReservationTablePager {
+
+    private static final int PAGE_SIZE = 100;
+    private static final int MAX_PAGES = 5;
+    // Fetch the next page once the viewport is this close to an edge of the window
+    private static final int PREFETCH_ROWS = PAGE_SIZE / 2;
+
+    private static final ExecutorService loader = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "reservation-pager");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final TableView<Reservation> table;
+    private final ObservableList<Reservation> items = FXCollections.observableArrayList();
+    // Row count of each loaded page, top of the table first
+    private final Deque<Integer> pageSizes = new ArrayDeque<>();
+
+    private VirtualFlow<?> flow;
+    private boolean atTop = true;      // no newer rows above items[0]
+    private boolean atBottom = false;  // no older rows below the last item
+    private boolean loading;
+    private int generation;            // bumped on reload so late pages from before it are ignored
+
+    public ReservationTablePager(TableView<Reservation> table) {
+        this.table = table;
+        table.setItems(items);
+        table.skinProperty().addListener((obs, oldSkin, newSkin) -> hookScrolling());
+        hookScrolling();
+        reload();
+    }
+
+    public ObservableList<Reservation> getItems() {
+        return items;
+    }
+
+    /**
+     * Drop the window and start again from the newest reservations
+     */
+    public void reload() {
+        generation++;
+        fetch(() -> Repositories.reservations().getReservationPageAfter(null, PAGE_SIZE), page -> {
+            items.setAll(page);
+            pageSizes.clear();
+            if (!page.isEmpty()) pageSizes.add(page.size());
+            atTop = true;
+            atBottom = page.size() < PAGE_SIZE;
+        });
+    }
+
+    /**
+     * Re-read the rows currently in the window so status changes show up. When the window starts
+     * at the newest reservation it is re-anchored there, so new bookings appear at the top.
+     */
+    public void refresh() {
+        if (items.isEmpty()) {
+            reload();
+            return;
+        }
+        Reservation anchor = atTop ? null : items.get(0);
+        int size = items.size();
+        generation++;
+        fetch(() -> Repositories.reservations().getReservationPageFrom(anchor, size), page -> {
+            items.setAll(page);
+            pageSizes.clear();
+            for (int remaining = page.size(); remaining > 0; remaining -= PAGE_SIZE) {
+                pageSizes.add(Math.min(PAGE_SIZE, remaining));
+            }
+            atBottom = page.size() < size;
+        });
+    }
+
+    // -------------------- SCROLLING --------------------
+    private void hookScrolling() {
+        Node node = table.lookup(".virtual-flow");
+        if (node instanceof VirtualFlow<?> vf && vf != flow) {
+            flow = vf;
+            flow.positionProperty().addListener((obs, oldPos, newPos) -> loadIfNearEdge());
+        }
+    }
+
+    private void loadIfNearEdge() {
+        if (flow == null || loading || items.isEmpty()) return;
+        IndexedCell<?> first = flow.getFirstVisibleCell();
+        IndexedCell<?> last = flow.getLastVisibleCell();
+        if (first == null || last == null) return;
+
+        if (!atBottom && last.getIndex() >= items.size() - PREFETCH_ROWS) {
+            loadOlder();
+        } else if (!atTop && first.getIndex() < PREFETCH_ROWS) {
+            loadNewer();
+        }
+    }
+
+    private void loadOlder() {
+        Reservation last = items.get(items.size() - 1);
+        fetch(() -> Repositories.reservations().getReservationPageAfter(last, PAGE_SIZE), page -> {
+            atBottom = page.size() < PAGE_SIZE;
+            if (page.isEmpty()) return;
+            items.addAll(page);
+            pageSizes.addLast(page.size());
+
+            if (pageSizes.size() > MAX_PAGES) {
+                int dropped = pageSizes.removeFirst();
+                int top = firstVisibleIndex();
+                items.remove(0, dropped);
+                atTop = false;
+                // Keep the same rows in view after the ones above them were removed
+                flow.scrollToTop(Math.max(0, top - dropped));
+            }
+        });
+    }
+
+    private void loadNewer() {
+        Reservation first = items.get(0);
+        fetch(() -> Repositories.reservations().getReservationPageBefore(first, PAGE_SIZE), page -> {
+            atTop = page.size() < PAGE_SIZE;
+            if (page.isEmpty()) return;
+            int top = firstVisibleIndex();
+            items.addAll(0, page);
+            pageSizes.addFirst(page.size());
+            flow.scrollToTop(top + page.size());
+
+            if (pageSizes.size() > MAX_PAGES) {
+                int dropped = pageSizes.removeLast();
+                items.remove(items.size() - dropped, items.size());
+                atBottom = false;
+            }
+        });
+    }
+
+    private int firstVisibleIndex() {
+        IndexedCell<?> first = flow == null ? null : flow.getFirstVisibleCell();
+        return first == null ? 0 : first.getIndex();
+    }
+
+    /**
+     * Run the query on the loader thread and apply the page on the FX thread. If the query fails
+     * (returns null or throws) the window, atTop and atBottom stay as they were and the next
+     * scroll or refresh tries again.
+     */
+    private void fetch(Supplier<List<Reservation>> query, Consumer<List<Reservation>> apply) {
+        int requestGeneration = generation;
+        loading = true;
+        loader.execute(() -> {
+            List<Reservation> page = null;
+            try {
+                page = query.get();
+            } catch (RuntimeException e) {
+                System.err.println("[PAGER ERROR] Failed to load reservations: " + e.getMessage());
+            } finally {
+                List<Reservation> result = page;
+                Platform.runLater(() -> {
+                    if (requestGeneration != generation) return;
+                    loading = false;
+                    if (result == null) return;
+                    apply.accept(result);
+                    // Keep filling while the viewport still sits at an edge (e.g. after a fast drag)
+                    loadIfNearEdge();
+                });
+            }
+        });
+    }
+}
@@ -0,0 +1,306 @@
+package util;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.input.MouseButton;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.StackPane;
+import javafx.scene.layout.VBox;
+import model.Room;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Shows room cards in a grid that only builds the cards on screen. The grid is a ListView whose
+ * items are rows of rooms, so the ListView's virtual flow creates cells for the visible rows only
+ * and reuses them while scrolling; each cell keeps its cards and rebinds them to the rooms of the
+ * row it is showing. A status change rebinds the visible cards in place, and a search only
+ * swaps the rows, so neither rebuilds the scene graph. All state is only touched on the FX thread.
+ */
+public class RoomCardGrid {
+
+    private static final double CARD_WIDTH = 320;
+    private static final double CARD_HEIGHT = 200;
+    private static final double GAP = 20;
+    private static final int MAX_CACHED_IMAGES = 64;
+
+    private final ListView<List<Room>> listView;
+    private final Consumer<Room> onOpen;
+    private final ObservableList<List<Room>> rows = FXCollections.observableArrayList();
+    // The cards of every live cell; weak, so cells the ListView drops take their cards with them
+    private final Set<Card> cards = Collections.newSetFromMap(new WeakHashMap<>());
+    // Scaled room images by path; a recycled card shows a cached image instead of reading the file again
+    private final Map<String, Image> images = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Image> eldest) {
+            return size() > MAX_CACHED_IMAGES;
+        }
+    };
+
+    private List<Room> rooms = List.of();
+    private Map<String, String> statuses = Map.of();
+    private int columns = 1;
+
+    /**
+     * @param onOpen called with the room when its card is double-clicked
+     */
+    public RoomCardGrid(ListView<List<Room>> listView, Consumer<Room> onOpen) {
+        this.listView = listView;
+        this.onOpen = onOpen;
+        listView.setItems(rows);
+        listView.setFixedCellSize(CARD_HEIGHT + GAP);
+        listView.setFocusTraversable(false);
+        listView.setCellFactory(lv -> new RowCell());
+        listView.widthProperty().addListener((obs, oldWidth, newWidth) -> relayout());
+    }
+
+    /**
+     * Show these rooms, in order, with their current statuses (room name to status)
+     */
+    public void setRooms(List<Room> rooms, Map<String, String> statuses) {
+        this.rooms = List.copyOf(rooms);
+        this.statuses = statuses;
+        rows.setAll(chunk(this.rooms, columns));
+    }
+
+    /**
+     * New current statuses: rebinds the status of the cards on screen, the others pick it up
+     * when they are scrolled into view
+     */
+    public void setStatuses(Map<String, String> statuses) {
+        this.statuses = statuses;
+        for (Card card : cards) {
+            if (card.room != null) card.setStatus(statusOf(card.room));
+        }
+    }
+
+    // Re-chunk the rows when the width fits a different number of cards
+    private void relayout() {
+        double usable = listView.getWidth() - 30;  // cell padding and vertical scrollbar
+        int fit = Math.max(1, (int) ((usable + GAP) / (CARD_WIDTH + GAP)));
+        if (fit == columns) return;
+        columns = fit;
+        rows.setAll(chunk(rooms, columns));
+    }
+
+    private static List<List<Room>> chunk(List<Room> rooms, int columns) {
+        List<List<Room>> chunks = new ArrayList<>((rooms.size() + columns - 1) / columns);
+        for (int i = 0; i < rooms.size(); i += columns) {
+            chunks.add(rooms.subList(i, Math.min(i + columns, rooms.size())));
+        }
+        return chunks;
+    }
+
+    private String statusOf(Room room) {
+        return statuses.getOrDefault(room.getName(), "Available");
+    }
+
+    private Image imageFor(String path) {
+        if (path == null || path.isEmpty()) return null;
+        Image image = images.get(path);
+        if (image == null) {
+            File imageFile = new File(path);
+            if (!imageFile.exists()) return null;
+            // Decoded at card size, in the background; the card fills in when it is ready
+            image = new Image(imageFile.toURI().toString(), 180, 196, false, true, true);
+            images.put(path, image);
+        }
+        return image;
+    }
+
+    /**
+     * One row of the grid; keeps its cards and rebinds them as it is reused
+     */
+    private class RowCell extends ListCell<List<Room>> {
+        private final HBox box = new HBox(GAP);
+        private final List<Card> rowCards = new ArrayList<>();
+
+        RowCell() {
+            setStyle("-fx-background-color: transparent; -fx-padding: 0 0 " + GAP + " 0;");
+            setText(null);
+        }
+
+        @Override
+        protected void updateItem(List<Room> row, boolean empty) {
+            super.updateItem(row, empty);
+            if (empty || row == null) {
+                for (Card card : rowCards) {
+                    card.unbind();
+                }
+                setGraphic(null);
+                return;
+            }
+            while (rowCards.size() < row.size()) {
+                Card card = new Card();
+                rowCards.add(card);
+                cards.add(card);
+            }
+            box.getChildren().setAll(rowCards.subList(0, row.size()));
+            for (int i = 0; i < rowCards.size(); i++) {
+                if (i < row.size()) {
+                    rowCards.get(i).bind(row.get(i));
+                } else {
+                    rowCards.get(i).unbind();
+                }
+            }
+            setGraphic(box);
+        }
+    }
+
+    /**
+     * A room card built once and rebound to whichever room its row shows
+     */
+    private class Card extends VBox {
+        private static final String CARD_STYLE = "-fx-background-color: white; " +
+                "-fx-border-width: 2; " +
+                "-fx-border-radius: 10; " +
+                "-fx-background-radius: 10; " +
+                "-fx-effect: dropshadow(gaussian, rgba(0,0,0,0.1), 8, 0, 0, 2);";
+        private static final String STATUS_STYLE = "-fx-font-size: 12px; -fx-padding: 4 8; -fx-background-radius: 3;";
+        private static final String ICON_STYLE = "-fx-font-size: 18px; -fx-font-weight: bold;";
+
+        private final ImageView imageView = new ImageView();
+        private final Label nameLabel = new Label();
+        private final Label statusLabel = new Label();
+        private final Label iconLabel = new Label();
+
+        private Room room;
+        private String status;
+        private String style = CARD_STYLE;       // style for the bound status
+        private String hoverStyle = CARD_STYLE;
+
+        Card() {
+            super(0);
+            setPrefSize(CARD_WIDTH, CARD_HEIGHT);
+            setMaxSize(CARD_WIDTH, CARD_HEIGHT);
+            setMinSize(CARD_WIDTH, CARD_HEIGHT);
+
+            // Left side - Image (landscape)
+            StackPane imageContainer = new StackPane(imageView);
+            imageContainer.setPrefSize(180, 196);
+            imageContainer.setMaxSize(180, 196);
+            imageContainer.setStyle("-fx-background-color: #f5f5f5; -fx-background-radius: 8 0 0 8;");
+            imageView.setFitWidth(180);
+            imageView.setFitHeight(196);
+            imageView.setPreserveRatio(false);
+
+            // Right side - Content
+            nameLabel.setStyle("-fx-font-size: 15px; -fx-font-weight: bold; -fx-text-fill: #333;");
+            nameLabel.setWrapText(true);
+            nameLabel.setMaxWidth(112);
+            statusLabel.setMaxWidth(112);
+
+            Region spacer = new Region();
+            VBox.setVgrow(spacer, Priority.ALWAYS);
+
+            Label hintLabel = new Label("Double-click to reserve");
+            hintLabel.setStyle("-fx-font-size: 10px; -fx-text-fill: #999; -fx-font-style: italic;");
+            hintLabel.setWrapText(true);
+            hintLabel.setMaxWidth(112);
+
+            VBox contentBox = new VBox(8, nameLabel, statusLabel, spacer, hintLabel);
+            contentBox.setPrefSize(136, 196);
+            contentBox.setPadding(new Insets(15, 12, 15, 12));
+            contentBox.setAlignment(Pos.TOP_LEFT);
+
+            HBox mainContent = new HBox(0, imageContainer, contentBox);
+            mainContent.setPrefSize(316, 196);
+
+            // Status icon at bottom right
+            StackPane statusIconPane = new StackPane(iconLabel);
+            statusIconPane.setPrefSize(30, 30);
+            statusIconPane.setMaxSize(30, 30);
+            statusIconPane.setAlignment(Pos.BOTTOM_RIGHT);
+            statusIconPane.setStyle("-fx-background-radius: 15; -fx-padding: 0 8 8 0;");
+            StackPane.setAlignment(iconLabel, Pos.BOTTOM_RIGHT);
+
+            StackPane cardStack = new StackPane(mainContent, statusIconPane);
+            StackPane.setAlignment(statusIconPane, Pos.BOTTOM_RIGHT);
+            getChildren().add(cardStack);
+
+            // Mouse events read the bound room, so they survive rebinding
+            setOnMouseClicked(event -> {
+                if (room != null && event.getButton() == MouseButton.PRIMARY && event.getClickCount() == 2) {
+                    onOpen.accept(room);
+                }
+            });
+            setOnMouseEntered(e -> setStyle(hoverStyle));
+            setOnMouseExited(e -> setStyle(style));
+        }
+
+        void bind(Room room) {
+            if (this.room != room) {
+                this.room = room;
+                nameLabel.setText(room.getName());
+                imageView.setImage(imageFor(room.getImagePath()));
+            }
+            setStatus(statusOf(room));
+        }
+
+        void unbind() {
+            room = null;
+            imageView.setImage(null);
+        }
+
+        // Only touches the nodes when the status actually changed
+        void setStatus(String status) {
+            if (status.equals(this.status)) return;
+            this.status = status;
+
+            String badge;
+            String borderColor;
+            String glowColor;
+            if ("Available".equalsIgnoreCase(status)) {
+                badge = "-fx-background-color: #e8f5e9; -fx-text-fill: #2e7d32; -fx-font-weight: bold;";
+                borderColor = "#4CAF50";
+                glowColor = "rgba(76, 175, 80, 0.4)";
+                iconLabel.setText("✓");
+                iconLabel.setStyle(ICON_STYLE + "-fx-text-fill: #4CAF50;");
+            } else if ("Occupied".equalsIgnoreCase(status)) {
+                badge = "-fx-background-color: #ffebee; -fx-text-fill: #c62828; -fx-font-weight: bold;";
+                borderColor = "#f44336";
+                glowColor = "rgba(244, 67, 54, 0.4)";
+                iconLabel.setText("✗");
+                iconLabel.setStyle(ICON_STYLE + "-fx-text-fill: #f44336;");
+            } else if ("Pending".equalsIgnoreCase(status)) {
+                badge = "-fx-background-color: #fff3cd; -fx-text-fill: #f57c00; -fx-font-weight: bold;";
+                borderColor = "#FFC107";
+                glowColor = "rgba(255, 193, 7, 0.4)";
+                iconLabel.setText("⏱");
+                iconLabel.setStyle(ICON_STYLE + "-fx-text-fill: #FFC107;");
+            } else {
+                badge = "";
+                borderColor = "#ddd";
+                glowColor = "rgba(255, 193, 7, 0.4)";
+                iconLabel.setText("");
+                iconLabel.setStyle(ICON_STYLE);
+            }
+
+            statusLabel.setText(status);
+            statusLabel.setStyle(STATUS_STYLE + badge);
+            style = CARD_STYLE + "-fx-border-color: " + borderColor + ";";
+            hoverStyle = style +
+                    "-fx-cursor: hand; " +
+                    "-fx-effect: dropshadow(gaussian, " + glowColor + ", 15, 0.5, 0, 0); " +
+                    "-fx-scale-x: 1.02; -fx-scale-y: 1.02;";
+            setStyle(isHover() ? hoverStyle : style);
+        }
+    }
+}
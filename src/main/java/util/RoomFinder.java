@@ -0,0 +1,84 @@
+package util;
+
+import model.Reservation;
+import repository.Repositories;
+import repository.ReservationRepository;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * "Find me a room": the earliest free start in every room for a given duration, across a range of
+ * dates. Each room-day is answered from the in-memory occupancy bitmaps (see ReservationIndex),
+ * so no query runs per try; rooms are searched in parallel and the dates in order, stopping once
+ * enough candidates are found.
+ */
+public class RoomFinder {
+
+    public static final int DEFAULT_LIMIT = 20;
+    private static final int SLOT_MINUTES = 15;
+
+    private static final Comparator<Candidate> ORDER = Comparator
+            .comparing(Candidate::date)
+            .thenComparing(Candidate::startTime)
+            .thenComparing(Candidate::roomName);
+
+    /**
+     * A room that is free from startTime to endTime on the date
+     */
+    public record Candidate(String roomName, LocalDate date, String startTime, String endTime) {
+        public String describe() {
+            return roomName + " - " + date + " " + startTime + " - " + endTime;
+        }
+    }
+
+    private RoomFinder() {
+    }
+
+    /**
+     * The first `limit` candidates by date, start time and room name. A room contributes at most one
+     * candidate per day: its earliest fitting start, on the 15-minute grid.
+     * @param earliest first allowed start ("HH:mm"), or null for midnight
+     * @param latest time the booking must end by ("HH:mm"), or null for the end of the day
+     */
+    public static List<Candidate> find(Collection<String> roomNames, LocalDate from, LocalDate to, int minutes,
+                                       String earliest, String latest, int limit) {
+        if (minutes <= 0 || limit <= 0 || to.isBefore(from)) return List.of();
+        ReservationRepository reservations = Repositories.reservations();
+        String windowStart = earliest != null ? earliest : "00:00";
+        String windowEnd = latest != null ? latest : "24:00";
+        LocalDate today = LocalDate.now();
+
+        List<Candidate> found = new ArrayList<>();
+        for (LocalDate date = from.isBefore(today) ? today : from; !date.isAfter(to); date = date.plusDays(1)) {
+            String start = date.equals(today) ? later(windowStart, LocalTime.now()) : windowStart;
+            String day = date.toString();
+            LocalDate current = date;
+            List<Candidate> sameDay = roomNames.parallelStream()
+                    .map(room -> {
+                        String free = reservations.findFreeStart(room, day, start, windowEnd, minutes, SLOT_MINUTES);
+                        return free == null ? null : new Candidate(room, current, free,
+                                Reservation.formatMinutes(Reservation.parseMinutes(free) + minutes));
+                    })
+                    .filter(Objects::nonNull)
+                    .sorted(ORDER)
+                    .toList();
+            for (Candidate c : sameDay) {
+                found.add(c);
+                if (found.size() >= limit) return found;
+            }
+        }
+        return found;
+    }
+
+    // Today's search can't start in the past
+    private static String later(String time, LocalTime now) {
+        String nowText = Reservation.formatMinutes(now.getHour() * 60 + now.getMinute());
+        return time.compareTo(nowText) >= 0 ? time : nowText;
+    }
+}
@@ -0,0 +1,185 @@
+package util;
+
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Long-lived SMTP connections to one mail host, reused across messages instead of a connect,
+ * STARTTLS and login per email. At most maxConnections are open to the host at once; further
+ * senders wait for one to come back. A connection is replaced after maxMessagesPerConnection
+ * sends (servers cap these) and checked with a NOOP after sitting idle, since servers drop
+ * quiet connections.
+ */
+public class SmtpTransportPool {
+
+    private static final long IDLE_CHECK_MILLIS = 30_000;
+    private static final long ACQUIRE_TIMEOUT_SECONDS = 60;
+
+    private final Session session;
+    private final String host;
+    private final int port;
+    private final String username;
+    private final String password;
+    private final int maxConnections;
+    private final int maxMessagesPerConnection;
+
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<PooledTransport> idle = new LinkedBlockingDeque<>();
+    private volatile boolean closed;
+
+    // Metrics
+    private final LongAdder connectCount = new LongAdder();
+    private final LongAdder reuseCount = new LongAdder();
+    private final LongAdder staleCount = new LongAdder();
+
+    /**
+     * @param username null to connect without authenticating (e.g. a local SMTP stand-in)
+     */
+    public SmtpTransportPool(Session session, String host, int port, String username, String password,
+                             int maxConnections, int maxMessagesPerConnection) {
+        this.session = session;
+        this.host = host;
+        this.port = port;
+        this.username = username;
+        this.password = password;
+        this.maxConnections = Math.max(1, maxConnections);
+        this.maxMessagesPerConnection = Math.max(1, maxMessagesPerConnection);
+        this.permits = new Semaphore(this.maxConnections, true);
+    }
+
+    /**
+     * Send on a pooled connection. If a reused connection turns out to be dead the message is
+     * retried once on a fresh one; a rejected recipient is reported as is.
+     */
+    public void send(Message message) throws MessagingException {
+        if (closed) throw new MessagingException("SMTP pool is closed");
+        try {
+            if (!permits.tryAcquire(ACQUIRE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                throw new MessagingException("Timed out waiting for an SMTP connection to " + host);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MessagingException("Interrupted waiting for an SMTP connection", e);
+        }
+
+        try {
+            PooledTransport pooled = borrow();
+            try {
+                pooled.transport.sendMessage(message, message.getAllRecipients());
+            } catch (SendFailedException e) {
+                giveBack(pooled);  // the connection is fine, the addresses weren't
+                throw e;
+            } catch (MessagingException e) {
+                discard(pooled);
+                if (pooled.sent == 0) throw e;
+                staleCount.increment();
+                pooled = open();
+                try {
+                    pooled.transport.sendMessage(message, message.getAllRecipients());
+                } catch (MessagingException retry) {
+                    discard(pooled);
+                    throw retry;
+                }
+            }
+            pooled.sent++;
+            giveBack(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private PooledTransport borrow() throws MessagingException {
+        PooledTransport pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            boolean fresh = System.currentTimeMillis() - pooled.lastUsed < IDLE_CHECK_MILLIS;
+            if (fresh || pooled.transport.isConnected()) {
+                reuseCount.increment();
+                return pooled;
+            }
+            staleCount.increment();
+            discard(pooled);
+        }
+        return open();
+    }
+
+    private PooledTransport open() throws MessagingException {
+        Transport transport = session.getTransport("smtp");
+        transport.connect(host, port, username, password);
+        connectCount.increment();
+        return new PooledTransport(transport);
+    }
+
+    private void giveBack(PooledTransport pooled) {
+        if (closed || pooled.sent >= maxMessagesPerConnection) {
+            discard(pooled);
+            return;
+        }
+        pooled.lastUsed = System.currentTimeMillis();
+        idle.offerFirst(pooled); // most recently used first, so spare connections age out
+    }
+
+    private void discard(PooledTransport pooled) {
+        try {
+            pooled.transport.close();
+        } catch (MessagingException ignored) {
+            // already gone
+        }
+    }
+
+    public void close() {
+        closed = true;
+        PooledTransport pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            discard(pooled);
+        }
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    public int getActiveCount() {
+        return maxConnections - permits.availablePermits();
+    }
+
+    public long getConnectCount() {
+        return connectCount.sum();
+    }
+
+    public long getReuseCount() {
+        return reuseCount.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SmtpTransportPool{host=%s, active=%d, idle=%d, max=%d, connects=%d, reuses=%d, stale=%d}",
+                host, getActiveCount(), getIdleCount(), maxConnections, getConnectCount(), getReuseCount(),
+                staleCount.sum());
+    }
+
+    private static final class PooledTransport {
+        final Transport transport;
+        int sent;
+        long lastUsed = System.currentTimeMillis();
+
+        PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
+    }
+}
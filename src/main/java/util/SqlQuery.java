@@ -0,0 +1,133 @@
+package util;
+
+/**
+ * Registry of the constant SQL statements DataStore runs.
+ * Keeping the text in one place means every call site prepares the exact same string,
+ * so the driver's per-connection statement cache (see DataStore.DB_URL) can reuse it.
+ */
+public enum SqlQuery {
+    // Users
+    ALL_USERS("SELECT * FROM users ORDER BY id"),
+    COUNT_USERS("SELECT COUNT(*) FROM users"),
+    USER_EXISTS("SELECT 1 FROM users WHERE email = ? LIMIT 1"),
+    USER_ROLE_BY_EMAIL("SELECT role FROM users WHERE email = ?"),
+    USER_BY_EMAIL("SELECT * FROM users WHERE email = ?"),
+    USER_BY_USERNAME("SELECT * FROM users WHERE username = ?"),
+    INSERT_USER("INSERT INTO users (username, email, password, role) VALUES (?, ?, ?, ?)"),
+    UPDATE_USER("UPDATE users SET username = ?, password = ?, role = ? WHERE email = ?"),
+    UPDATE_PASSWORD("UPDATE users SET password = ? WHERE email = ? AND password = ?"),
+    DELETE_USER("DELETE FROM users WHERE email = ?"),
+
+    // Rooms
+    ALL_ROOMS("SELECT * FROM rooms ORDER BY id"),
+    COUNT_ROOMS("SELECT COUNT(*) FROM rooms"),
+    ROOM_BY_NAME("SELECT * FROM rooms WHERE name = ?"),
+    INSERT_ROOM("INSERT INTO rooms (name, status, imagePath) VALUES (?, ?, ?)"),
+    UPDATE_ROOM("UPDATE rooms SET status = ?, imagePath = ? WHERE name = ?"),
+    // Matches only rows whose values differ, so the update count is the number of rooms changed
+    UPDATE_ROOM_IF_CHANGED("UPDATE rooms SET status = ?, imagePath = ? WHERE name = ? " +
+            "AND NOT (status <=> ? AND imagePath <=> ?)"),
+    DELETE_ROOM("DELETE FROM rooms WHERE name = ?"),
+    // Only for days the occupancy index has evicted
+    ROOM_STATUS_FOR_RANGE("SELECT status FROM reservations " +
+            "WHERE room_name = ? AND date = ? AND startTime < ? AND endTime > ? " +
+            "AND status IN ('pending', 'approved', 'reserved', '')"),
+
+    // Reservations
+    ALL_RESERVATIONS("SELECT * FROM reservations ORDER BY date DESC, startTime DESC, id DESC"),
+    RESERVATIONS_CHANGED_SINCE("SELECT * FROM reservations WHERE updated_at >= ?"),
+    RESERVATIONS_BY_USER("SELECT * FROM reservations WHERE username = ? ORDER BY date DESC, startTime DESC"),
+    INSERT_RESERVATION("INSERT INTO reservations (username, room_name, date, startTime, endTime, status) " +
+            "VALUES (?, ?, ?, ?, ?, ?)"),
+    DELETE_RESERVATION("DELETE FROM reservations WHERE id = ?"),
+    UPDATE_RESERVATION_STATUS("UPDATE reservations SET status = ? WHERE id = ?"),
+    // Only for rows built outside the database (id 0); picks one row even if the booking is duplicated
+    RESERVATION_ID_BY_KEY("SELECT id FROM reservations " +
+            "WHERE username = ? AND room_name = ? AND date = ? AND startTime = ? AND endTime = ? " +
+            "ORDER BY id LIMIT 1"),
+    // Keyset pages in admin table order (newest first), seeking on idx_date_start_id
+    RESERVATIONS_FIRST_PAGE("SELECT * FROM reservations ORDER BY date DESC, startTime DESC, id DESC LIMIT ?"),
+    RESERVATIONS_PAGE_AFTER("SELECT * FROM reservations WHERE (date, startTime, id) < (?, ?, ?) " +
+            "ORDER BY date DESC, startTime DESC, id DESC LIMIT ?"),
+    RESERVATIONS_PAGE_FROM("SELECT * FROM reservations WHERE (date, startTime, id) <= (?, ?, ?) " +
+            "ORDER BY date DESC, startTime DESC, id DESC LIMIT ?"),
+    RESERVATIONS_PAGE_BEFORE("SELECT * FROM reservations WHERE (date, startTime, id) > (?, ?, ?) " +
+            "ORDER BY date, startTime, id LIMIT ?"),
+    RESERVATION_FOR_UPDATE("SELECT * FROM reservations WHERE id = ? FOR UPDATE"),
+
+    // Recurring series
+    INSERT_SERIES("INSERT INTO reservation_series " +
+            "(username, room_name, startTime, endTime, status, rule, start_date, until_date, exceptions) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)"),
+    ALL_SERIES("SELECT * FROM reservation_series ORDER BY start_date DESC, id DESC"),
+    ACTIVE_SERIES("SELECT * FROM reservation_series WHERE status IN ('pending', 'approved', 'reserved')"),
+    SERIES_BY_USER("SELECT * FROM reservation_series WHERE username = ? ORDER BY start_date, id"),
+    // Active series of a room whose date range overlaps [?, ?]
+    ACTIVE_SERIES_FOR_ROOM("SELECT * FROM reservation_series " +
+            "WHERE room_name = ? AND status IN ('pending', 'approved', 'reserved') " +
+            "AND start_date <= ? AND (until_date IS NULL OR until_date >= ?)"),
+    SERIES_FOR_UPDATE("SELECT * FROM reservation_series WHERE id = ? FOR UPDATE"),
+    UPDATE_SERIES_STATUS("UPDATE reservation_series SET status = ? WHERE id = ?"),
+    UPDATE_SERIES_EXCEPTIONS("UPDATE reservation_series SET exceptions = ? WHERE id = ?"),
+    DELETE_SERIES("DELETE FROM reservation_series WHERE id = ?"),
+    ACTIVE_RESERVATIONS_IN_RANGE("SELECT * FROM reservations " +
+            "WHERE room_name = ? AND date BETWEEN ? AND ? AND status IN ('pending', 'approved', 'reserved', '')"),
+    // Series writers lock the room row exclusively; single bookings take it shared, so they
+    // never wait for each other but can't slip past a series being admitted
+    LOCK_ROOM("SELECT name FROM rooms WHERE name = ? FOR UPDATE"),
+    LOCK_ROOM_SHARED("SELECT name FROM rooms WHERE name = ? FOR SHARE"),
+
+    // Slot claims
+    CLAIM_SLOT("INSERT INTO reservation_slots (room_name, date, slot, reservation_id) VALUES (?, ?, ?, ?)"),
+    CLAIM_SLOT_IF_FREE("INSERT IGNORE INTO reservation_slots (room_name, date, slot, reservation_id) VALUES (?, ?, ?, ?)"),
+    RELEASE_SLOTS("DELETE FROM reservation_slots WHERE reservation_id = ?"),
+    // A blank status is a legacy pending row (see ReservationStatus.of)
+    UNCLAIMED_ACTIVE_RESERVATIONS("SELECT * FROM reservations r " +
+            "WHERE r.status IN ('pending', 'approved', 'reserved', '') " +
+            "AND NOT EXISTS (SELECT 1 FROM reservation_slots s WHERE s.reservation_id = r.id)"),
+
+    // Tombstones for delta sync
+    TOMBSTONES_SINCE("SELECT reservation_id FROM reservation_tombstones WHERE deleted_at >= ?"),
+    TOMBSTONE_RESERVATION("INSERT INTO reservation_tombstones (reservation_id) VALUES (?)"),
+    TOMBSTONE_ROOM_RESERVATIONS("INSERT INTO reservation_tombstones (reservation_id) " +
+            "SELECT id FROM reservations WHERE room_name = ?"),
+
+    // Change feed: one counter per table, bumped by every write
+    SEED_TABLE_VERSION("INSERT IGNORE INTO table_versions (table_name, version) VALUES (?, 0)"),
+    BUMP_TABLE_VERSION("UPDATE table_versions SET version = version + 1 WHERE table_name = ?"),
+    TABLE_VERSIONS("SELECT table_name, version FROM table_versions"),
+
+    // Email outbox; written in the same transaction as the change it reports
+    ENQUEUE_EMAIL("INSERT INTO email_outbox (idempotency_key, kind, username, email, reservation_id, " +
+            "room_name, date, startTime, endTime, res_status, next_attempt_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, NOW() + INTERVAL ? SECOND) " +
+            "ON DUPLICATE KEY UPDATE id = id"),
+    // Due pending rows, plus 'sending' rows whose lease ran out because their client died
+    DUE_EMAILS("SELECT * FROM email_outbox WHERE state IN ('pending', 'sending') AND next_attempt_at <= NOW() " +
+            "ORDER BY next_attempt_at, id LIMIT ? FOR UPDATE SKIP LOCKED"),
+    // Rows still in their digest window: never tried, and not leased by another client
+    HELD_EMAILS_FOR_USER("SELECT * FROM email_outbox WHERE state = 'pending' AND attempts = 0 AND username = ? " +
+            "AND email IS NULL AND next_attempt_at > NOW() ORDER BY id FOR UPDATE SKIP LOCKED"),
+    LEASE_EMAIL("UPDATE email_outbox SET state = 'sending', next_attempt_at = NOW() + INTERVAL ? SECOND WHERE id = ?"),
+    EMAIL_SENT("UPDATE email_outbox SET state = 'sent', attempts = attempts + 1, sent_at = NOW(), " +
+            "last_error = NULL WHERE id = ?"),
+    EMAIL_FAILED("UPDATE email_outbox SET state = ?, attempts = attempts + 1, " +
+            "next_attempt_at = NOW() + INTERVAL ? SECOND, last_error = ? WHERE id = ?"),
+    PURGE_SENT_EMAILS("DELETE FROM email_outbox WHERE state = 'sent' AND sent_at < NOW() - INTERVAL ? DAY"),
+    OUTBOX_COUNTS("SELECT state, COUNT(*) FROM email_outbox GROUP BY state"),
+
+    // Misc
+    CURRENT_TIMESTAMP("SELECT CURRENT_TIMESTAMP"),
+    INDEX_EXISTS("SELECT 1 FROM information_schema.statistics " +
+            "WHERE table_schema = DATABASE() AND table_name = ? AND index_name = ? LIMIT 1");
+
+    private final String sql;
+
+    SqlQuery(String sql) {
+        this.sql = sql;
+    }
+
+    public String sql() {
+        return sql;
+    }
+}
@@ -0,0 +1,148 @@
+package util;
+
+import model.User;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded read-through cache for user lookups, keyed by both email and username.
+ * Entries expire after the TTL and the least recently used entry is evicted once the cache is
+ * full. Callers get copies, so editing a returned User never changes what is cached.
+ */
+public class UserCache {
+
+    private final int maxSize;
+    private final long ttlMillis;
+
+    // email -> entry, in access order for LRU eviction
+    private final LinkedHashMap<String, Entry> byEmail = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, String> emailByUsername = new HashMap<>();
+    // Bumped by every invalidation so a lookup that raced with it doesn't cache the old row
+    private long version;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public UserCache(int maxSize, long ttlMillis) {
+        this.maxSize = Math.max(1, maxSize);
+        this.ttlMillis = ttlMillis;
+    }
+
+    public synchronized User getByEmail(String email) {
+        return lookup(email);
+    }
+
+    public synchronized User getByUsername(String username) {
+        String email = emailByUsername.get(username);
+        if (email == null) {
+            misses.increment();
+            return null;
+        }
+        return lookup(email);
+    }
+
+    private User lookup(String email) {
+        Entry entry = byEmail.get(email);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (System.currentTimeMillis() - entry.loadedAt > ttlMillis) {
+            remove(email);
+            evictions.increment();
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return copy(entry.user);
+    }
+
+    /**
+     * Version to pass to put() for a row about to be read from the database
+     */
+    public synchronized long version() {
+        return version;
+    }
+
+    /**
+     * Cache a freshly loaded user, unless the cache was invalidated since the load started
+     */
+    public synchronized void put(User user, long loadedAtVersion) {
+        if (user == null || user.getEmail() == null || loadedAtVersion != version) return;
+
+        remove(user.getEmail());
+        byEmail.put(user.getEmail(), new Entry(copy(user), System.currentTimeMillis()));
+        if (user.getUsername() != null) emailByUsername.put(user.getUsername(), user.getEmail());
+
+        Iterator<Map.Entry<String, Entry>> eldest = byEmail.entrySet().iterator();
+        while (byEmail.size() > maxSize && eldest.hasNext()) {
+            Entry evicted = eldest.next().getValue();
+            eldest.remove();
+            forgetUsername(evicted.user);
+            evictions.increment();
+        }
+    }
+
+    public synchronized void invalidate(String email) {
+        version++;
+        remove(email);
+    }
+
+    public synchronized void invalidateAll() {
+        version++;
+        byEmail.clear();
+        emailByUsername.clear();
+    }
+
+    private void remove(String email) {
+        Entry old = byEmail.remove(email);
+        if (old != null) forgetUsername(old.user);
+    }
+
+    private void forgetUsername(User user) {
+        if (user.getUsername() != null) {
+            emailByUsername.remove(user.getUsername(), user.getEmail());
+        }
+    }
+
+    private static User copy(User user) {
+        return new User(user.getUsername(), user.getEmail(), user.getPassword(), user.getRole());
+    }
+
+    // -------------------- METRICS --------------------
+    public synchronized int size() {
+        return byEmail.size();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public double getHitRate() {
+        long total = hits.sum() + misses.sum();
+        return total == 0 ? 0 : (double) hits.sum() / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("UserCache{size=%d, max=%d, ttl=%ds, hits=%d, misses=%d, evictions=%d, hitRate=%.1f%%}",
+                size(), maxSize, ttlMillis / 1000, getHitCount(), getMissCount(), getEvictionCount(),
+                getHitRate() * 100);
+    }
+
+    private record Entry(User user, long loadedAt) {
+    }
+}